@@ -0,0 +1,688 @@
+package io.github.dissco.annotationlogic.maven;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.ToolProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates streaming Jackson serializers and deserializers for the openDS classes, which are
+ * generated from the json schemas by jsonschema2pojo, and a Jackson module registering them. Runs
+ * during the build before the library is compiled, with the generated sources directory of
+ * jsonschema2pojo and a scratch directory as arguments. The openDS classes are compiled into the
+ * scratch directory to be read, and the serializers are written next to them so the default
+ * compile picks them up. Classes that use
+ * Jackson features the generated code does not cover are left to Jackson's reflective binding.
+ * Lives in the build-only sources and is launched from its source file, so it is not part of the
+ * library jar.
+ */
+public class SerializerGenerator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SerializerGenerator.class);
+  private static final String SCHEMA_PACKAGE = "io.github.dissco.core.annotationlogic.schema";
+  private static final String TARGET_PACKAGE = "io.github.dissco.core.annotationlogic.serialization";
+  private static final String MODULE = "SchemaModule";
+  private static final String SUPPORT = "Values";
+  private static final Set<Class<? extends Annotation>> PROPERTY_ANNOTATIONS = Set.of(
+      JsonProperty.class, JsonPropertyDescription.class, JsonDeserialize.class);
+  private static final Set<Class<? extends Annotation>> CLASS_ANNOTATIONS = Set.of(
+      JsonInclude.class, JsonPropertyOrder.class);
+  private static final Set<Include> INCLUSIONS = Set.of(Include.ALWAYS, Include.NON_NULL,
+      Include.NON_EMPTY);
+  private static final Map<Class<?>, String> SCALAR_READERS = Map.of(
+      String.class, "readString",
+      Integer.class, "readInteger",
+      Long.class, "readLong",
+      Double.class, "readDouble",
+      Boolean.class, "readBoolean");
+
+  public static void main(String[] args) throws IOException, ClassNotFoundException {
+    LOGGER.info("Generating serializers for the openDS classes");
+    var generatedSources = Path.of(args[0]);
+    var classesDirectory = Path.of(args[1]);
+    var sourcesDirectory = generatedSources.resolve(TARGET_PACKAGE.replace('.', '/'));
+    compileModel(generatedSources.resolve(SCHEMA_PACKAGE.replace('.', '/')), classesDirectory);
+    var models = new LinkedHashMap<Class<?>, Model>();
+    for (var type : findClasses(classesDirectory)) {
+      var model = describe(type);
+      if (model.isPresent()) {
+        models.put(type, model.get());
+      } else {
+        LOGGER.info("Class {} is left to reflective binding", type.getName());
+      }
+    }
+    Files.createDirectories(sourcesDirectory);
+    var generator = new SerializerGenerator(models);
+    for (var model : models.values()) {
+      write(sourcesDirectory, serializerName(model.type()), generator.serializer(model));
+      write(sourcesDirectory, deserializerName(model.type()), generator.deserializer(model));
+    }
+    write(sourcesDirectory, MODULE, generator.module());
+    write(sourcesDirectory, SUPPORT, support());
+    LOGGER.info("Generated serializers for {} openDS classes", models.size());
+  }
+
+  private final Map<Class<?>, Model> models;
+
+  private SerializerGenerator(Map<Class<?>, Model> models) {
+    this.models = models;
+  }
+
+  /*
+   * Compiles the openDS sources into the scratch directory, with the classpath the generator was
+   * launched with
+   */
+  private static void compileModel(Path modelDirectory, Path classesDirectory) throws IOException {
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException("The serializer generator must run on a JDK");
+    }
+    List<Path> sources;
+    try (Stream<Path> files = Files.walk(modelDirectory)) {
+      sources = files.filter(file -> file.toString().endsWith(".java")).sorted().toList();
+    }
+    Files.createDirectories(classesDirectory);
+    try (var fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      var options = List.of("-proc:none", "-nowarn", "-classpath",
+          System.getProperty("java.class.path"), "-d", classesDirectory.toString());
+      var task = compiler.getTask(null, fileManager, null, options, null,
+          fileManager.getJavaFileObjectsFromPaths(sources));
+      if (!task.call()) {
+        throw new IllegalStateException("Unable to compile the openDS classes");
+      }
+    }
+  }
+
+  private static List<Class<?>> findClasses(Path classesDirectory)
+      throws IOException, ClassNotFoundException {
+    var packageDirectory = classesDirectory.resolve(SCHEMA_PACKAGE.replace('.', '/'));
+    List<String> names;
+    try (Stream<Path> files = Files.list(packageDirectory)) {
+      names = files.map(file -> file.getFileName().toString())
+          .filter(name -> name.endsWith(".class") && !name.contains("$"))
+          .map(name -> SCHEMA_PACKAGE + "." + name.substring(0, name.length() - 6))
+          .sorted()
+          .toList();
+    }
+    var classes = new ArrayList<Class<?>>();
+    // Not closed, the classes are read until the generator exits
+    var classLoader = new URLClassLoader(new URL[]{classesDirectory.toUri().toURL()},
+        SerializerGenerator.class.getClassLoader());
+    for (var name : names) {
+      classes.add(Class.forName(name, false, classLoader));
+    }
+    return classes;
+  }
+
+  /*
+   * Describes the properties of a generated class, or returns empty if the class relies on
+   * Jackson features that the generated code does not cover
+   */
+  private static Optional<Model> describe(Class<?> type) {
+    var include = type.getAnnotation(JsonInclude.class);
+    if (type.isEnum() || type.isInterface() || Modifier.isAbstract(type.getModifiers())
+        || !hasDefaultConstructor(type) || include == null
+        || !INCLUSIONS.contains(include.value())
+        || !onlyAnnotations(type, CLASS_ANNOTATIONS)) {
+      return Optional.empty();
+    }
+    var getters = annotatedMethods(type, 0);
+    var setters = annotatedMethods(type, 1);
+    var properties = new ArrayList<Property>();
+    Method anyGetter = null;
+    Method anySetter = null;
+    for (var method : type.getDeclaredMethods()) {
+      if (method.isAnnotationPresent(JsonAnyGetter.class)) {
+        anyGetter = method;
+      } else if (method.isAnnotationPresent(JsonAnySetter.class)) {
+        anySetter = method;
+      } else if (hasJacksonAnnotation(method) && !onlyAnnotations(method, PROPERTY_ANNOTATIONS)) {
+        return Optional.empty();
+      }
+    }
+    for (var field : type.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+        continue;
+      }
+      var jsonProperty = field.getAnnotation(JsonProperty.class);
+      if (jsonProperty == null) {
+        // Only the additional properties may be bound without a property name
+        if (!field.isAnnotationPresent(JsonIgnore.class) || !onlyAnnotations(field,
+            Set.of(JsonIgnore.class)) || !Map.class.isAssignableFrom(field.getType())) {
+          return Optional.empty();
+        }
+        continue;
+      }
+      var getter = getters.get(jsonProperty.value());
+      var setter = setters.get(jsonProperty.value());
+      if (getter == null || setter == null || !onlyAnnotations(field, PROPERTY_ANNOTATIONS)
+          || !isNameable(field.getGenericType())
+          || !getter.getGenericReturnType().equals(field.getGenericType())) {
+        return Optional.empty();
+      }
+      properties.add(new Property(jsonProperty.value(), field.getGenericType(), getter.getName(),
+          setter.getName()));
+    }
+    if ((anyGetter == null) != (anySetter == null)) {
+      return Optional.empty();
+    }
+    var order = Optional.ofNullable(type.getAnnotation(JsonPropertyOrder.class))
+        .map(JsonPropertyOrder::value).map(Arrays::asList).orElse(List.of());
+    properties.sort(Comparator.comparingInt(property -> order.contains(property.name())
+        ? order.indexOf(property.name()) : order.size()));
+    return Optional.of(new Model(type, include.value(), properties,
+        anyGetter == null ? null : anyGetter.getName(),
+        anySetter == null ? null : anySetter.getName()));
+  }
+
+  private static boolean isNameable(Type type) {
+    if (type instanceof Class<?> clazz) {
+      return !clazz.isArray() && clazz.getCanonicalName() != null;
+    }
+    return type instanceof ParameterizedType parameterized
+        && Arrays.stream(parameterized.getActualTypeArguments())
+        .allMatch(SerializerGenerator::isNameable);
+  }
+
+  private static boolean hasDefaultConstructor(Class<?> type) {
+    return Arrays.stream(type.getConstructors())
+        .anyMatch(constructor -> constructor.getParameterCount() == 0);
+  }
+
+  private static Map<String, Method> annotatedMethods(Class<?> type, int parameters) {
+    return Arrays.stream(type.getDeclaredMethods())
+        .filter(method -> Modifier.isPublic(method.getModifiers())
+            && method.getParameterCount() == parameters
+            && method.isAnnotationPresent(JsonProperty.class)
+            && (parameters == 0 || method.getReturnType() == void.class))
+        .collect(Collectors.toMap(method -> method.getAnnotation(JsonProperty.class).value(),
+            method -> method, (first, second) -> first));
+  }
+
+  private static boolean hasJacksonAnnotation(AnnotatedElement element) {
+    return Arrays.stream(element.getAnnotations())
+        .anyMatch(annotation -> annotation.annotationType().getPackageName()
+            .startsWith("com.fasterxml.jackson"));
+  }
+
+  private static boolean onlyAnnotations(AnnotatedElement element,
+      Set<Class<? extends Annotation>> allowed) {
+    return Arrays.stream(element.getAnnotations())
+        .map(Annotation::annotationType)
+        .filter(annotation -> annotation.getPackageName().startsWith("com.fasterxml.jackson"))
+        .allMatch(allowed::contains);
+  }
+
+  private static void write(Path directory, String className, String source) throws IOException {
+    Files.writeString(directory.resolve(className + ".java"), source, StandardCharsets.UTF_8);
+  }
+
+  private static String serializerName(Class<?> type) {
+    return type.getSimpleName() + "Serializer";
+  }
+
+  private static String deserializerName(Class<?> type) {
+    return type.getSimpleName() + "Deserializer";
+  }
+
+  private static String typeName(Type type) {
+    if (type instanceof Class<?> clazz) {
+      var name = clazz.getCanonicalName();
+      return name.startsWith("java.lang.") ? clazz.getSimpleName() : name;
+    }
+    var parameterized = (ParameterizedType) type;
+    return typeName(parameterized.getRawType()) + Arrays.stream(
+            parameterized.getActualTypeArguments())
+        .map(SerializerGenerator::typeName)
+        .collect(Collectors.joining(", ", "<", ">"));
+  }
+
+  private static Optional<Method> stringValue(Class<?> type) {
+    if (!type.isEnum()) {
+      return Optional.empty();
+    }
+    var value = Arrays.stream(type.getMethods())
+        .filter(method -> method.isAnnotationPresent(JsonValue.class)
+            && method.getParameterCount() == 0 && method.getReturnType() == String.class)
+        .findFirst();
+    var creator = Arrays.stream(type.getMethods())
+        .anyMatch(method -> method.isAnnotationPresent(JsonCreator.class)
+            && Modifier.isStatic(method.getModifiers()) && method.getName().equals("fromValue")
+            && Arrays.equals(method.getParameterTypes(), new Class<?>[]{String.class}));
+    return creator ? value : Optional.empty();
+  }
+
+  private static Optional<Class<?>> collectionElement(Type type) {
+    if (type instanceof ParameterizedType parameterized
+        && (parameterized.getRawType() == List.class || parameterized.getRawType() == Set.class)
+        && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+      return Optional.of(element);
+    }
+    return Optional.empty();
+  }
+
+  private String serializer(Model model) {
+    var type = typeName(model.type());
+    var source = new Source();
+    source.line("package " + TARGET_PACKAGE + ";")
+        .line()
+        .line("import com.fasterxml.jackson.core.JsonGenerator;")
+        .line("import com.fasterxml.jackson.databind.SerializerProvider;")
+        .line("import com.fasterxml.jackson.databind.ser.std.StdSerializer;")
+        .line("import java.io.IOException;")
+        .line("import javax.annotation.processing.Generated;")
+        .line()
+        .line("@Generated(\"" + SerializerGenerator.class.getName() + "\")")
+        .line("final class " + serializerName(model.type()) + " extends StdSerializer<" + type
+            + "> {")
+        .line()
+        .line("  static final " + serializerName(model.type()) + " INSTANCE = new "
+            + serializerName(model.type()) + "();")
+        .line()
+        .line("  private " + serializerName(model.type()) + "() {")
+        .line("    super(" + type + ".class);")
+        .line("  }")
+        .line()
+        .line("  @Override")
+        .line("  public void serialize(" + type
+            + " value, JsonGenerator gen, SerializerProvider provider)")
+        .line("      throws IOException {")
+        .line("    gen.writeStartObject(value);");
+    var index = 0;
+    for (var property : model.properties()) {
+      var variable = "p" + index++;
+      source.line("    var " + variable + " = value." + property.getter() + "();");
+      if (model.inclusion() == Include.ALWAYS) {
+        source.line("    if (" + variable + " == null) {")
+            .line("      gen.writeFieldName(\"" + property.name() + "\");")
+            .line("      provider.defaultSerializeNull(gen);")
+            .line("    } else {");
+      } else {
+        source.line("    if (" + included(model.inclusion(), property.type(), variable) + ") {");
+      }
+      writeProperty(source, property, variable);
+      source.line("    }");
+    }
+    if (model.anyGetter() != null) {
+      source.line("    for (var property : value." + model.anyGetter() + "().entrySet()) {")
+          .line("      provider.defaultSerializeField(property.getKey(), property.getValue(), gen);")
+          .line("    }");
+    }
+    return source.line("    gen.writeEndObject();")
+        .line("  }")
+        .line()
+        .line("}")
+        .toString();
+  }
+
+  private String included(Include inclusion, Type type, String variable) {
+    if (inclusion == Include.NON_NULL) {
+      return variable + " != null";
+    }
+    var rawType = type instanceof ParameterizedType parameterized
+        ? (Class<?>) parameterized.getRawType() : (Class<?>) type;
+    if (rawType == String.class || Collection.class.isAssignableFrom(rawType)
+        || Map.class.isAssignableFrom(rawType)) {
+      return variable + " != null && !" + variable + ".isEmpty()";
+    }
+    var value = stringValue(rawType);
+    if (value.isPresent()) {
+      return variable + " != null && !" + variable + "." + value.get().getName() + "().isEmpty()";
+    }
+    if (SCALAR_READERS.containsKey(rawType) || models.containsKey(rawType)) {
+      return variable + " != null";
+    }
+    return variable + " != null && !provider.findValueSerializer(" + variable
+        + ".getClass()).isEmpty(provider, " + variable + ")";
+  }
+
+  private void writeProperty(Source source, Property property, String variable) {
+    var element = collectionElement(property.type());
+    var name = "\"" + property.name() + "\"";
+    if (property.type() == String.class) {
+      source.line("      gen.writeStringField(" + name + ", " + variable + ");");
+    } else if (element.isPresent()) {
+      source.line("      gen.writeFieldName(" + name + ");")
+          .line("      gen.writeStartArray(" + variable + ", " + variable + ".size());")
+          .line("      for (var element : " + variable + ") {")
+          .line("        if (element == null) {")
+          .line("          provider.defaultSerializeNull(gen);")
+          .line("        } else {");
+      writeValue(source, element.get(), "element", "          ");
+      source.line("        }")
+          .line("      }")
+          .line("      gen.writeEndArray();");
+    } else if (property.type() instanceof Class<?> clazz && isDirect(clazz)) {
+      source.line("      gen.writeFieldName(" + name + ");");
+      writeValue(source, clazz, variable, "      ");
+    } else {
+      source.line("      provider.defaultSerializeField(" + name + ", " + variable + ", gen);");
+    }
+  }
+
+  private boolean isDirect(Class<?> type) {
+    return SCALAR_READERS.containsKey(type) || models.containsKey(type)
+        || stringValue(type).isPresent();
+  }
+
+  private void writeValue(Source source, Class<?> type, String variable, String indent) {
+    if (type == String.class) {
+      source.line(indent + "gen.writeString(" + variable + ");");
+    } else if (type == Integer.class || type == Long.class || type == Double.class) {
+      source.line(indent + "gen.writeNumber(" + variable + ");");
+    } else if (type == Boolean.class) {
+      source.line(indent + "gen.writeBoolean(" + variable + ");");
+    } else if (models.containsKey(type)) {
+      source.line(indent + serializerName(type) + ".INSTANCE.serialize(" + variable
+          + ", gen, provider);");
+    } else if (stringValue(type).isPresent()) {
+      source.line(indent + "gen.writeString(" + variable + "." + stringValue(type).get().getName()
+          + "());");
+    } else {
+      source.line(indent + "provider.defaultSerializeValue(" + variable + ", gen);");
+    }
+  }
+
+  private String deserializer(Model model) {
+    var type = typeName(model.type());
+    var className = deserializerName(model.type());
+    var source = new Source();
+    source.line("package " + TARGET_PACKAGE + ";")
+        .line()
+        .line("import com.fasterxml.jackson.core.JsonParser;")
+        .line("import com.fasterxml.jackson.core.JsonToken;")
+        .line("import com.fasterxml.jackson.core.type.TypeReference;")
+        .line("import com.fasterxml.jackson.databind.DeserializationContext;")
+        .line("import com.fasterxml.jackson.databind.deser.std.StdDeserializer;")
+        .line("import java.io.IOException;")
+        .line("import javax.annotation.processing.Generated;")
+        .line()
+        .line("@Generated(\"" + SerializerGenerator.class.getName() + "\")")
+        .line("final class " + className + " extends StdDeserializer<" + type + "> {")
+        .line()
+        .line("  static final " + className + " INSTANCE = new " + className + "();");
+    var index = 0;
+    for (var property : model.properties()) {
+      if (property.type() instanceof ParameterizedType) {
+        source.line("  private static final TypeReference<" + typeName(property.type()) + "> T"
+            + index + " = new TypeReference<>() {")
+            .line("  };");
+      }
+      index++;
+    }
+    source.line()
+        .line("  private " + className + "() {")
+        .line("    super(" + type + ".class);")
+        .line("  }")
+        .line()
+        .line("  @Override")
+        .line("  public " + type + " deserialize(JsonParser p, DeserializationContext ctxt)")
+        .line("      throws IOException {")
+        .line("    String name;")
+        .line("    if (p.isExpectedStartObjectToken()) {")
+        .line("      name = p.nextFieldName();")
+        .line("    } else if (p.hasToken(JsonToken.FIELD_NAME)) {")
+        .line("      name = p.currentName();")
+        .line("    } else if (p.hasToken(JsonToken.END_OBJECT)) {")
+        .line("      name = null;")
+        .line("    } else {")
+        .line("      return (" + type + ") ctxt.handleUnexpectedToken(" + type + ".class, p);")
+        .line("    }")
+        .line("    var bean = new " + type + "();")
+        .line("    for (; name != null; name = p.nextFieldName()) {")
+        .line("      p.nextToken();")
+        .line("      switch (name) {");
+    index = 0;
+    for (var property : model.properties()) {
+      source.line("        case \"" + property.name() + "\" -> bean." + property.setter() + "("
+          + readProperty(property, index++) + ");");
+    }
+    if (model.anySetter() != null) {
+      source.line("        default -> bean." + model.anySetter()
+          + "(name, Values.read(p, ctxt, Object.class));");
+    } else {
+      source.line("        default -> ctxt.handleUnknownProperty(p, this, bean, name);");
+    }
+    source.line("      }")
+        .line("    }")
+        .line("    return bean;")
+        .line("  }");
+    index = 0;
+    for (var property : model.properties()) {
+      var element = collectionElement(property.type());
+      if (element.isPresent()) {
+        var raw = (Class<?>) ((ParameterizedType) property.type()).getRawType();
+        var implementation = raw == Set.class ? "java.util.LinkedHashSet" : "java.util.ArrayList";
+        source.line()
+            .line("  private static " + typeName(property.type()) + " read" + index
+                + "(JsonParser p, DeserializationContext ctxt)")
+            .line("      throws IOException {")
+            .line("    if (p.currentToken() != JsonToken.START_ARRAY) {")
+            .line("      return Values.read(p, ctxt, T" + index + ");")
+            .line("    }")
+            .line("    var values = new " + implementation + "<" + typeName(element.get())
+                + ">();")
+            .line("    while (p.nextToken() != JsonToken.END_ARRAY) {")
+            .line("      values.add(" + readValue(element.get()) + ");")
+            .line("    }")
+            .line("    return values;")
+            .line("  }");
+      }
+      index++;
+    }
+    for (var enumType : model.properties().stream()
+        .flatMap(property -> property.type() instanceof Class<?> clazz ? Stream.of(clazz)
+            : collectionElement(property.type()).stream())
+        .filter(clazz -> stringValue(clazz).isPresent())
+        .distinct()
+        .toList()) {
+      var enumName = typeName(enumType);
+      source.line()
+          .line("  private static " + enumName + " " + enumReader(enumType)
+              + "(JsonParser p, DeserializationContext ctxt)")
+          .line("      throws IOException {")
+          .line("    if (p.currentToken() != JsonToken.VALUE_STRING) {")
+          .line("      return Values.read(p, ctxt, " + enumName + ".class);")
+          .line("    }")
+          .line("    var text = p.getText();")
+          .line("    try {")
+          .line("      return " + enumName + ".fromValue(text);")
+          .line("    } catch (IllegalArgumentException e) {")
+          .line("      return (" + enumName + ") ctxt.handleWeirdStringValue(" + enumName
+              + ".class, text,")
+          .line("          \"not one of the values accepted for %s\", " + enumName
+              + ".class.getSimpleName());")
+          .line("    }")
+          .line("  }");
+    }
+    return source.line()
+        .line("}")
+        .toString();
+  }
+
+  private String readProperty(Property property, int index) {
+    if (collectionElement(property.type()).isPresent()) {
+      return "Values.isNull(p) ? null : read" + index + "(p, ctxt)";
+    } else if (property.type() instanceof Class<?> clazz) {
+      return readValue(clazz);
+    }
+    return "Values.read(p, ctxt, T" + index + ")";
+  }
+
+  private String readValue(Class<?> type) {
+    if (SCALAR_READERS.containsKey(type)) {
+      return "Values." + SCALAR_READERS.get(type) + "(p, ctxt)";
+    } else if (models.containsKey(type)) {
+      return "Values.isNull(p) ? null : " + deserializerName(type)
+          + ".INSTANCE.deserialize(p, ctxt)";
+    } else if (stringValue(type).isPresent()) {
+      return "Values.isNull(p) ? null : " + enumReader(type) + "(p, ctxt)";
+    }
+    return "Values.read(p, ctxt, " + typeName(type) + ".class)";
+  }
+
+  private static String enumReader(Class<?> type) {
+    return "read" + type.getCanonicalName().substring(SCHEMA_PACKAGE.length() + 1)
+        .replace(".", "");
+  }
+
+  private String module() {
+    var source = new Source();
+    source.line("package " + TARGET_PACKAGE + ";")
+        .line()
+        .line("import com.fasterxml.jackson.databind.module.SimpleModule;")
+        .line("import javax.annotation.processing.Generated;")
+        .line()
+        .line("/**")
+        .line(" * Registers the generated serializers and deserializers of the openDS classes. Registered")
+        .line(" * with {@code SerializerUtils.registerSchemaModule(ObjectMapper)}.")
+        .line(" */")
+        .line("@Generated(\"" + SerializerGenerator.class.getName() + "\")")
+        .line("public final class " + MODULE + " extends SimpleModule {")
+        .line()
+        .line("  public " + MODULE + "() {")
+        .line("    super(\"" + TARGET_PACKAGE + "." + MODULE + "\");");
+    for (var type : models.keySet()) {
+      source.line("    addSerializer(" + typeName(type) + ".class, " + serializerName(type)
+              + ".INSTANCE);")
+          .line("    addDeserializer(" + typeName(type) + ".class, " + deserializerName(type)
+              + ".INSTANCE);");
+    }
+    return source.line("  }")
+        .line()
+        .line("}")
+        .toString();
+  }
+
+  private static String support() {
+    return """
+        package %s;
+
+        import com.fasterxml.jackson.core.JsonParser;
+        import com.fasterxml.jackson.core.JsonParser.NumberType;
+        import com.fasterxml.jackson.core.JsonToken;
+        import com.fasterxml.jackson.core.type.TypeReference;
+        import com.fasterxml.jackson.databind.DeserializationContext;
+        import java.io.IOException;
+        import javax.annotation.processing.Generated;
+
+        /*
+         * Reads the common value types straight from the parser, and leaves any other token to the
+         * deserializers configured in the mapper
+         */
+        @Generated("%s")
+        final class Values {
+
+          private Values() {
+          }
+
+          static boolean isNull(JsonParser p) {
+            return p.currentToken() == JsonToken.VALUE_NULL;
+          }
+
+          static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return p.currentToken() == JsonToken.VALUE_STRING ? p.getText()
+                : read(p, ctxt, String.class);
+          }
+
+          static Integer readInteger(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return p.currentToken() == JsonToken.VALUE_NUMBER_INT
+                && p.getNumberType() == NumberType.INT ? p.getIntValue()
+                : read(p, ctxt, Integer.class);
+          }
+
+          static Long readLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return p.currentToken() == JsonToken.VALUE_NUMBER_INT
+                && p.getNumberType() != NumberType.BIG_INTEGER ? p.getLongValue()
+                : read(p, ctxt, Long.class);
+          }
+
+          static Double readDouble(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return p.currentToken() == JsonToken.VALUE_NUMBER_FLOAT ? p.getDoubleValue()
+                : read(p, ctxt, Double.class);
+          }
+
+          static Boolean readBoolean(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return switch (p.currentToken()) {
+              case VALUE_TRUE -> Boolean.TRUE;
+              case VALUE_FALSE -> Boolean.FALSE;
+              default -> read(p, ctxt, Boolean.class);
+            };
+          }
+
+          static <T> T read(JsonParser p, DeserializationContext ctxt, Class<T> type)
+              throws IOException {
+            return isNull(p) ? null : ctxt.readValue(p, type);
+          }
+
+          static <T> T read(JsonParser p, DeserializationContext ctxt, TypeReference<T> type)
+              throws IOException {
+            return isNull(p) ? null : ctxt.readValue(p, ctxt.getTypeFactory().constructType(type));
+          }
+
+        }
+        """.formatted(TARGET_PACKAGE, SerializerGenerator.class.getName());
+  }
+
+  private record Model(Class<?> type, Include inclusion, List<Property> properties,
+                       String anyGetter, String anySetter) {
+
+  }
+
+  private record Property(String name, Type type, String getter, String setter) {
+
+  }
+
+  private static final class Source {
+
+    private final StringBuilder builder = new StringBuilder();
+
+    private Source line(String line) {
+      builder.append(line).append('\n');
+      return this;
+    }
+
+    private Source line() {
+      return line("");
+    }
+
+    @Override
+    public String toString() {
+      return builder.toString();
+    }
+  }
+
+}
@@ -4,34 +4,133 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.jayway.jsonpath.Option;
-import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion.VersionFlag;
+import io.github.dissco.annotationlogic.domain.ProtectionRule;
+import io.github.dissco.annotationlogic.utils.SerializerUtils;
 import io.github.dissco.annotationlogic.validator.AnnotationValidator;
+import io.github.dissco.annotationlogic.validator.CanonicalJson;
+import io.github.dissco.annotationlogic.validator.ConsistencyRule;
+import io.github.dissco.annotationlogic.validator.ConsistencyRules;
 import io.github.dissco.annotationlogic.validator.JsonSchemaValidator;
+import io.github.dissco.annotationlogic.validator.ProtectionPolicy;
+import io.github.dissco.annotationlogic.validator.SchemaRegistry;
+import io.github.dissco.annotationlogic.validator.SpecimenCache;
+import io.github.dissco.annotationlogic.validator.ValidationMemo;
+import io.github.dissco.annotationlogic.validator.ValidationScheduler;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @Configuration
+@EnableConfigurationProperties(AnnotationLogicProperties.class)
+@ImportRuntimeHints(AnnotationLogicRuntimeHints.class)
 public class AnnotationLogicLibraryConfiguration {
 
-  private static final JsonSchemaFactory FACTORY = JsonSchemaFactory.getInstance(
-      VersionFlag.V202012);
-
   /**
    * Public bean exposed to consuming applications.
    *
+   * @param properties     optional library settings
+   * @param validationMemo memo of validated specimen elements, if enabled
+   * @param schemaRegistry registry of the openDS schema versions
+   * @param specimenCache  cache of prepared specimens, if enabled
+   * @param rules          consistency rules declared as beans by the application
    * @return the fully configured AnnotationValidator
-   * @throws IOException if internal setup fails
    */
   @Bean
-  public AnnotationValidator annotationValidator() throws IOException {
-    return new AnnotationValidator(
-        objectMapper(), jsonPathConfiguration(), jsonSchemaValidator()
-    );
+  public AnnotationValidator annotationValidator(AnnotationLogicProperties properties,
+      ObjectProvider<ValidationMemo> validationMemo, SchemaRegistry schemaRegistry,
+      ObjectProvider<SpecimenCache> specimenCache, ObjectProvider<ConsistencyRule> rules) {
+    return AnnotationValidator.builder(objectMapper(), jsonPathConfiguration(),
+            jsonSchemaValidator(schemaRegistry, validationMemo.getIfAvailable()))
+        .streamingThreshold(properties.streaming().threshold().toBytes())
+        .protectionPolicy(protectionPolicy(properties.protection()))
+        .specimenCache(specimenCache.getIfAvailable())
+        .consistencyRules(consistencyRules(properties.consistency(), rules))
+        .batchExecutor(batchExecutor(properties.batch()))
+        .build();
+  }
+
+  /**
+   * Registry of the openDS schema versions, exposed so consuming applications can reload it.
+   *
+   * @param properties optional library settings
+   * @return the schema registry
+   * @throws IOException if the schemas can not be read
+   */
+  @Bean
+  public SchemaRegistry schemaRegistry(AnnotationLogicProperties properties) throws IOException {
+    var schemas = properties.schemas();
+    return new SchemaRegistry(objectMapper(), schemas.directory(), schemas.defaultVersion(),
+        schemas.reloadInterval());
+  }
+
+  /**
+   * Canonical serialisation and content hashes of specimens and annotations, with the library's
+   * mapper.
+   *
+   * @return the canonical JSON writer
+   */
+  @Bean
+  public CanonicalJson canonicalJson() {
+    return new CanonicalJson(objectMapper());
+  }
+
+  /**
+   * Memo of validated specimen elements, exposed so consuming applications can report its hit
+   * rate. Only created when annotation-logic.validation-memo.enabled is set.
+   *
+   * @param properties optional library settings
+   * @return the validation memo
+   */
+  @Bean
+  @ConditionalOnProperty(name = "annotation-logic.validation-memo.enabled", havingValue = "true")
+  public ValidationMemo validationMemo(AnnotationLogicProperties properties) {
+    return new ValidationMemo(properties.validationMemo().maxEntries());
+  }
+
+  /**
+   * Cache of prepared specimens, exposed so consuming applications can report its hit rate and
+   * invalidate specimens. Only created when annotation-logic.specimen-cache.enabled is set.
+   *
+   * @param properties optional library settings
+   * @return the specimen cache
+   */
+  @Bean
+  @ConditionalOnProperty(name = "annotation-logic.specimen-cache.enabled", havingValue = "true")
+  public SpecimenCache specimenCache(AnnotationLogicProperties properties) {
+    return new SpecimenCache(properties.specimenCache().maxSize().toBytes());
+  }
+
+  /**
+   * Admission control in front of the validator, with priority lanes for human and machine
+   * annotations. Only created when annotation-logic.scheduler.enabled is set.
+   *
+   * @param properties          optional library settings
+   * @param annotationValidator the validator the annotations are applied with
+   * @return the validation scheduler, with its workers started
+   */
+  @Bean
+  @ConditionalOnProperty(name = "annotation-logic.scheduler.enabled", havingValue = "true")
+  public ValidationScheduler validationScheduler(AnnotationLogicProperties properties,
+      AnnotationValidator annotationValidator) {
+    var scheduler = properties.scheduler();
+    var workers = scheduler.workers() > 0 ? scheduler.workers()
+        : Runtime.getRuntime().availableProcessors();
+    var validationScheduler = new ValidationScheduler(annotationValidator, workers,
+        scheduler.humanQueueCapacity(), scheduler.machineQueueCapacity(), scheduler.humanWeight());
+    validationScheduler.start();
+    return validationScheduler;
   }
 
   // --- Internal helper methods, private and not exposed as beans ---
@@ -40,8 +139,49 @@ public class AnnotationLogicLibraryConfiguration {
   /**
    * Internal ObjectMapper used by the library.
    */
-  private JsonSchemaValidator jsonSchemaValidator() throws IOException {
-    return new JsonSchemaValidator(specimenSchema(), objectMapper());
+  private JsonSchemaValidator jsonSchemaValidator(SchemaRegistry schemaRegistry,
+      ValidationMemo validationMemo) {
+    return new JsonSchemaValidator(schemaRegistry, objectMapper(), validationMemo);
+  }
+
+  /**
+   * Internal pool the specimens of batch annotations are annotated on, kept apart from the common
+   * pool. Its threads are daemon threads, which end when they are idle.
+   */
+  private Executor batchExecutor(AnnotationLogicProperties.Batch batch) {
+    return new ForkJoinPool(batch.workers() > 0 ? batch.workers()
+        : Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Internal protection policy, compiled from the default and configured rules.
+   */
+  private ProtectionPolicy protectionPolicy(AnnotationLogicProperties.Protection protection) {
+    var rules = new ArrayList<ProtectionRule>();
+    if (protection.includeDefaults()) {
+      rules.addAll(ProtectionPolicy.defaultRules());
+    }
+    if (protection.rules() != null) {
+      protection.rules().forEach(rule -> rules.add(new ProtectionRule(rule.path(),
+          rule.motivations() == null ? Set.of() : rule.motivations().stream()
+              .map(OaMotivation::fromValue)
+              .collect(Collectors.toSet()),
+          rule.allowedAgents())));
+    }
+    return new ProtectionPolicy(rules);
+  }
+
+  /**
+   * Internal consistency rules, the built-in rules if enabled followed by the application's rules.
+   */
+  private ConsistencyRules consistencyRules(AnnotationLogicProperties.Consistency consistency,
+      ObjectProvider<ConsistencyRule> applicationRules) {
+    var rules = new ArrayList<ConsistencyRule>();
+    if (consistency.includeBuiltInRules()) {
+      rules.addAll(ConsistencyRules.builtInRules());
+    }
+    applicationRules.orderedStream().forEach(rules::add);
+    return new ConsistencyRules(rules);
   }
 
   /**
@@ -57,7 +197,7 @@ public class AnnotationLogicLibraryConfiguration {
    * Internal JsonPath configuration for library usage.
    */
   private ObjectMapper objectMapper() {
-    var mapper = new ObjectMapper().findAndRegisterModules();
+    var mapper = SerializerUtils.registerSchemaModule(new ObjectMapper().findAndRegisterModules());
     SimpleModule dateModule = new SimpleModule();
     dateModule.addSerializer(Instant.class, new InstantSerializerLib());
     dateModule.addDeserializer(Instant.class, new InstantDeserializerLib());
@@ -68,14 +208,4 @@ public class AnnotationLogicLibraryConfiguration {
     return mapper;
   }
 
-  /**
-   * Retrieve specimen JSON schema from local resource.
-   */
-  private JsonSchema specimenSchema() throws IOException {
-    var schema = "json-schema/digital-specimen.json";
-    try (var input = Thread.currentThread().getContextClassLoader().getResourceAsStream(schema)) {
-      return FACTORY.getSchema(input);
-    }
-  }
-
 }
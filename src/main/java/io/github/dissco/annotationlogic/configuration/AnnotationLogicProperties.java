@@ -0,0 +1,120 @@
+package io.github.dissco.annotationlogic.configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Optional settings of the annotation logic library, under the {@code annotation-logic} prefix.
+ *
+ * @param streaming      settings for applying annotations to large specimens
+ * @param validationMemo settings for skipping previously validated specimen elements
+ * @param schemas        settings for the versions of the openDS schemas
+ * @param protection     rules for the parts of a specimen that may not be annotated
+ * @param scheduler      settings for admission control of annotations
+ * @param specimenCache  settings for reusing prepared specimens between annotations
+ * @param consistency    settings for the consistency rules checked on annotated specimens
+ * @param batch          settings for applying batch annotations
+ */
+@ConfigurationProperties("annotation-logic")
+public record AnnotationLogicProperties(@DefaultValue Streaming streaming,
+                                       @DefaultValue ValidationMemo validationMemo,
+                                       @DefaultValue Schemas schemas,
+                                       @DefaultValue Protection protection,
+                                       @DefaultValue Scheduler scheduler,
+                                       @DefaultValue SpecimenCache specimenCache,
+                                       @DefaultValue Consistency consistency,
+                                       @DefaultValue Batch batch) {
+
+  /**
+   * @param threshold serialised specimen size from which annotations are applied in streaming mode
+   */
+  public record Streaming(@DefaultValue("1MB") DataSize threshold) {
+
+  }
+
+  /**
+   * @param enabled    whether validated elements of the ods:has* collections are remembered
+   * @param maxEntries maximum number of remembered elements
+   */
+  public record ValidationMemo(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("100000") int maxEntries) {
+
+  }
+
+  /**
+   * @param directory      directory with additional schema versions, as
+   *                       {@code <directory>/<version>/digital-specimen.json}
+   * @param defaultVersion schema version for specimens that do not declare one, defaults to the
+   *                       version bundled with the library
+   * @param reloadInterval interval at which the directory is checked for changed schemas, zero to
+   *                       disable reloading
+   */
+  public record Schemas(Path directory, String defaultVersion,
+                        @DefaultValue("0s") Duration reloadInterval) {
+
+  }
+
+  /**
+   * @param includeDefaults whether the system-managed terms and classes are protected
+   * @param rules           additional protection rules
+   */
+  public record Protection(@DefaultValue("true") boolean includeDefaults, List<Rule> rules) {
+
+  }
+
+  /**
+   * @param enabled whether prepared specimens are cached by identifier, version and content
+   * @param maxSize maximum total serialised size of the cached specimens
+   */
+  public record SpecimenCache(@DefaultValue("false") boolean enabled,
+                              @DefaultValue("64MB") DataSize maxSize) {
+
+  }
+
+  /**
+   * @param includeBuiltInRules whether the consistency rules provided by the library are checked,
+   *                            in addition to the ConsistencyRule beans of the application
+   */
+  public record Consistency(@DefaultValue("false") boolean includeBuiltInRules) {
+
+  }
+
+  /**
+   * @param workers number of specimens of a batch annotation annotated at the same time, 0 for the
+   *                number of processors
+   */
+  public record Batch(@DefaultValue("0") int workers) {
+
+  }
+
+  /**
+   * @param enabled              whether the validation scheduler is created
+   * @param workers              number of annotations processed at the same time, 0 for the
+   *                             number of processors
+   * @param humanQueueCapacity   maximum number of waiting human annotations
+   * @param machineQueueCapacity maximum number of waiting machine annotations
+   * @param humanWeight          number of human annotations taken up before a waiting machine
+   *                             annotation
+   */
+  public record Scheduler(@DefaultValue("false") boolean enabled, @DefaultValue("0") int workers,
+                          @DefaultValue("1000") int humanQueueCapacity,
+                          @DefaultValue("1000") int machineQueueCapacity,
+                          @DefaultValue("4") int humanWeight) {
+
+  }
+
+  /**
+   * @param path          path pattern of the protected elements, e.g. {@code $..['ods:version']}
+   * @param motivations   motivations the rule applies to, e.g. {@code oa:editing}, empty for all
+   * @param allowedAgents identifiers of the agents that may still annotate the protected elements
+   */
+  public record Rule(String path, Set<String> motivations, Set<String> allowedAgents) {
+
+  }
+
+}
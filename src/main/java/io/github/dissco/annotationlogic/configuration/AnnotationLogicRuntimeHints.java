@@ -0,0 +1,63 @@
+package io.github.dissco.annotationlogic.configuration;
+
+import com.networknt.schema.JsonValidator;
+import io.github.dissco.annotationlogic.utils.SerializerUtils;
+import java.util.List;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reflection and resource hints for running the library in a GraalVM native image. Registered by
+ * {@link AnnotationLogicLibraryConfiguration}, applications that do not use Spring can rely on the
+ * equivalent metadata in {@code META-INF/native-image/io.github.dissco/annotation-logic}.
+ */
+public class AnnotationLogicRuntimeHints implements RuntimeHintsRegistrar {
+
+  static final String SCHEMA_PACKAGE = "io.github.dissco.core.annotationlogic.schema";
+  static final String VALIDATOR_PACKAGE = "com.networknt.schema";
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    // Bundled openDS schemas, and the messages of the schema validator
+    hints.resources().registerPattern("json-schema/*.json");
+    hints.resources().registerResourceBundle("jsv-messages");
+    // The generated openDS classes are bound by Jackson
+    new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+        findClasses(classLoader, SCHEMA_PACKAGE, (reader, factory) -> true)
+            .toArray(Class<?>[]::new));
+    // The generated serializers are registered through their module, which is loaded by name
+    hints.reflection().registerType(TypeReference.of(SerializerUtils.SCHEMA_MODULE),
+        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    // The schema validator creates a validator per keyword through its public constructor
+    findClasses(classLoader, VALIDATOR_PACKAGE, new AssignableTypeFilter(JsonValidator.class))
+        .forEach(type -> hints.reflection()
+            .registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+  }
+
+  private static List<Class<?>> findClasses(ClassLoader classLoader, String basePackage,
+      TypeFilter filter) {
+    var scanner = new ClassPathScanningCandidateComponentProvider(false) {
+      @Override
+      protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+        // Include nested enums and abstract types, which are skipped when scanning for beans
+        return true;
+      }
+    };
+    scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+    scanner.addIncludeFilter(filter);
+    return scanner.findCandidateComponents(basePackage).stream()
+        .<Class<?>>map(
+            definition -> ClassUtils.resolveClassName(definition.getBeanClassName(), classLoader))
+        .toList();
+  }
+
+}
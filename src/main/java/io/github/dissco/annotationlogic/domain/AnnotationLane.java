@@ -0,0 +1,37 @@
+package io.github.dissco.annotationlogic.domain;
+
+import io.github.dissco.core.annotationlogic.schema.Agent;
+import io.github.dissco.core.annotationlogic.schema.Agent.Type;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+
+/**
+ * Priority lane an annotation is scheduled in. Annotations made by curators are served before bulk
+ * machine annotations.
+ */
+public enum AnnotationLane {
+
+  HUMAN, MACHINE;
+
+  /**
+   * Annotations created by a person are human annotations, unless their {@code as:generator} is a
+   * software agent, such as a machine annotation service acting for a person. All others are machine
+   * annotations.
+   */
+  public static AnnotationLane of(Annotation annotation) {
+    if (isSoftware(annotation.getAsGenerator())) {
+      return MACHINE;
+    }
+    var creator = annotation.getDctermsCreator();
+    if (creator != null && (Type.PROV_PERSON.equals(creator.getType())
+        || Type.SCHEMA_PERSON.equals(creator.getType()))) {
+      return HUMAN;
+    }
+    return MACHINE;
+  }
+
+  private static boolean isSoftware(Agent agent) {
+    return agent != null && (Type.PROV_SOFTWARE_AGENT.equals(agent.getType())
+        || Type.AS_APPLICATION.equals(agent.getType()));
+  }
+
+}
@@ -0,0 +1,23 @@
+package io.github.dissco.annotationlogic.domain;
+
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+
+/**
+ * Outcome of applying an annotation to a specimen
+ *
+ * @param digitalSpecimen the annotated specimen, or the given specimen itself if it is unchanged
+ * @param unchanged       true if the annotation would not change the specimen, for example an edit
+ *                        to the value the term already has. These annotations are not validated
+ *                        against the schema, and callers can skip persisting the specimen.
+ */
+public record AnnotationResult(DigitalSpecimen digitalSpecimen, boolean unchanged) {
+
+  public static AnnotationResult changed(DigitalSpecimen digitalSpecimen) {
+    return new AnnotationResult(digitalSpecimen, false);
+  }
+
+  public static AnnotationResult unchanged(DigitalSpecimen digitalSpecimen) {
+    return new AnnotationResult(digitalSpecimen, true);
+  }
+
+}
@@ -0,0 +1,29 @@
+package io.github.dissco.annotationlogic.domain;
+
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+
+/**
+ * Outcome of applying a batch annotation to a single specimen of the batch
+ *
+ * @param targetId          identifier of the specimen
+ * @param digitalSpecimen   the annotated specimen, null if the annotation was rejected
+ * @param unchanged         true if the annotation did not change this specimen
+ * @param exception         reason the annotation was rejected for this specimen, null if it was
+ *                          applied
+ */
+public record BatchAnnotationResult(String targetId, DigitalSpecimen digitalSpecimen,
+                                    boolean unchanged, Exception exception) {
+
+  public static BatchAnnotationResult applied(String targetId, AnnotationResult result) {
+    return new BatchAnnotationResult(targetId, result.digitalSpecimen(), result.unchanged(), null);
+  }
+
+  public static BatchAnnotationResult rejected(String targetId, Exception exception) {
+    return new BatchAnnotationResult(targetId, null, false, exception);
+  }
+
+  public boolean isApplied() {
+    return exception == null;
+  }
+
+}
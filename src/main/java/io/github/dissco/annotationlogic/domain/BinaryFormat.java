@@ -0,0 +1,27 @@
+package io.github.dissco.annotationlogic.domain;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Binary encodings of the JSON data model in which specimens and annotations can be exchanged
+ */
+public enum BinaryFormat {
+
+  SMILE {
+    @Override
+    public JsonFactory createFactory() {
+      return new SmileFactory();
+    }
+  },
+  CBOR {
+    @Override
+    public JsonFactory createFactory() {
+      return new CBORFactory();
+    }
+  };
+
+  public abstract JsonFactory createFactory();
+
+}
@@ -0,0 +1,82 @@
+package io.github.dissco.annotationlogic.domain;
+
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Rectangular region of a media object, selected by a fragment selector. Either a spatial media
+ * fragment ({@code xywh=[pixel:|percent:]x,y,w,h}) or an ac:hasROI region in fractions of the
+ * media's size.
+ *
+ * @param unit   unit of the coordinates
+ * @param x      horizontal offset of the region
+ * @param y      vertical offset of the region
+ * @param width  width of the region
+ * @param height height of the region
+ */
+public record MediaFragment(Unit unit, double x, double y, double width, double height) {
+
+  private static final String NUMBER = "(\\d+(?:\\.\\d+)?)";
+  private static final Pattern XYWH_PATTERN = Pattern.compile(
+      "^xywh=(?:(pixel|percent):)?" + NUMBER + "," + NUMBER + "," + NUMBER + "," + NUMBER + "$");
+
+  public enum Unit {
+    PIXEL, PERCENT, FRACTION
+  }
+
+  /**
+   * Parses a spatial media fragment, as defined by https://www.w3.org/TR/media-frags/
+   *
+   * @param fragment the media fragment, e.g. xywh=160,120,320,240
+   * @return the selected region
+   * @throws InvalidAnnotationException if the fragment is not a valid spatial media fragment
+   */
+  public static MediaFragment parse(String fragment) throws InvalidAnnotationException {
+    var matcher = XYWH_PATTERN.matcher(fragment);
+    if (!matcher.matches()) {
+      throw new InvalidAnnotationException(
+          "Fragment selector is not a valid spatial media fragment: " + fragment);
+    }
+    var unit = "percent".equals(matcher.group(1)) ? Unit.PERCENT : Unit.PIXEL;
+    if (Unit.PIXEL.equals(unit) && fragment.contains(".")) {
+      throw new InvalidAnnotationException(
+          "Pixel coordinates of a media fragment must be integers: " + fragment);
+    }
+    return new MediaFragment(unit, Double.parseDouble(matcher.group(2)),
+        Double.parseDouble(matcher.group(3)), Double.parseDouble(matcher.group(4)),
+        Double.parseDouble(matcher.group(5)));
+  }
+
+  /**
+   * Reads an ac:hasROI region of interest
+   *
+   * @param regionOfInterest the ac:hasROI object of the selector
+   * @return the selected region
+   * @throws InvalidAnnotationException if any of the fractions is missing
+   */
+  public static MediaFragment fromRegionOfInterest(Map<?, ?> regionOfInterest)
+      throws InvalidAnnotationException {
+    return new MediaFragment(Unit.FRACTION,
+        readFraction(regionOfInterest, "ac:xFrac"), readFraction(regionOfInterest, "ac:yFrac"),
+        readFraction(regionOfInterest, "ac:widthFrac"),
+        readFraction(regionOfInterest, "ac:heightFrac"));
+  }
+
+  private static double readFraction(Map<?, ?> regionOfInterest, String key)
+      throws InvalidAnnotationException {
+    if (regionOfInterest.get(key) instanceof Number number) {
+      return number.doubleValue();
+    }
+    throw new InvalidAnnotationException("Region of interest is missing numeric " + key);
+  }
+
+  /**
+   * Checks whether the region is not empty and lies within a media object of the given size. The
+   * size is expressed in the unit of the region.
+   */
+  public boolean fitsWithin(double maxX, double maxY) {
+    return x >= 0 && y >= 0 && width > 0 && height > 0 && x + width <= maxX && y + height <= maxY;
+  }
+
+}
@@ -0,0 +1,49 @@
+package io.github.dissco.annotationlogic.domain;
+
+/**
+ * A single segment of a selector path in block notation, either a key (e.g. {@code ['dwc:country']}),
+ * an array index (e.g. {@code [0]}) or a wildcard matching every array element ({@code [*]}).
+ *
+ * @param key   the object key, null if the segment is an array index or wildcard
+ * @param index the array index, -1 if the segment is a key or wildcard
+ */
+public record PathSegment(String key, int index) {
+
+  private static final PathSegment WILDCARD = new PathSegment(null, -1);
+
+  public static PathSegment ofKey(String key) {
+    return new PathSegment(key, -1);
+  }
+
+  public static PathSegment ofIndex(int index) {
+    return new PathSegment(null, index);
+  }
+
+  public static PathSegment wildcard() {
+    return WILDCARD;
+  }
+
+  /**
+   * @return true if the segment selects one or more array elements, i.e. is an index or wildcard
+   */
+  public boolean isIndex() {
+    return key == null;
+  }
+
+  public boolean isWildcard() {
+    return key == null && index < 0;
+  }
+
+  public boolean matchesIndex(int i) {
+    return isWildcard() || index == i;
+  }
+
+  @Override
+  public String toString() {
+    if (isWildcard()) {
+      return "[*]";
+    }
+    return isIndex() ? "[" + index + "]" : "['" + key + "']";
+  }
+
+}
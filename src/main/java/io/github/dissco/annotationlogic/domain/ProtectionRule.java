@@ -0,0 +1,62 @@
+package io.github.dissco.annotationlogic.domain;
+
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+import java.util.Set;
+
+/**
+ * A rule protecting part of a specimen from annotations. The path is in block notation and may use
+ * {@code [*]} for any array element and {@code ..} for any number of segments, e.g.
+ * {@code $..['ods:version']} or {@code $['ods:hasIdentifications'][*]['ods:isVerified']}. The rule
+ * protects the element at the path and everything below it.
+ *
+ * @param path          path pattern of the protected elements
+ * @param motivations   motivations the rule applies to, empty for all motivations
+ * @param allowedAgents identifiers of the agents (as:generator or dcterms:creator) that may still
+ *                      annotate the protected elements, empty if no agent may
+ * @param selectorTypes selector types the rule applies to, empty for all selector types
+ */
+public record ProtectionRule(String path, Set<OaMotivation> motivations,
+                             Set<String> allowedAgents, Set<SelectorType> selectorTypes) {
+
+  public ProtectionRule {
+    motivations = motivations == null ? Set.of() : Set.copyOf(motivations);
+    allowedAgents = allowedAgents == null ? Set.of() : Set.copyOf(allowedAgents);
+    selectorTypes = selectorTypes == null ? Set.of() : Set.copyOf(selectorTypes);
+  }
+
+  /**
+   * Creates a rule that applies to all selector types
+   */
+  public ProtectionRule(String path, Set<OaMotivation> motivations, Set<String> allowedAgents) {
+    this(path, motivations, allowedAgents, Set.of());
+  }
+
+  /**
+   * Creates a rule that forbids all annotations on the path
+   */
+  public static ProtectionRule forbidden(String path) {
+    return new ProtectionRule(path, Set.of(), Set.of());
+  }
+
+  /**
+   * Creates a rule that forbids all annotations with this selector type on the path
+   */
+  public static ProtectionRule forbidden(String path, SelectorType selectorType) {
+    return new ProtectionRule(path, Set.of(), Set.of(), Set.of(selectorType));
+  }
+
+  /**
+   * @return true if the rule forbids an annotation with this motivation and selector type by these
+   * agents
+   */
+  public boolean forbids(OaMotivation motivation, SelectorType selectorType, Set<String> agents) {
+    if (!motivations.isEmpty() && !motivations.contains(motivation)) {
+      return false;
+    }
+    if (!selectorTypes.isEmpty() && !selectorTypes.contains(selectorType)) {
+      return false;
+    }
+    return agents.stream().noneMatch(allowedAgents::contains);
+  }
+
+}
@@ -0,0 +1,14 @@
+package io.github.dissco.annotationlogic.domain;
+
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+
+/**
+ * The first annotation of a replayed history that could not be applied
+ *
+ * @param index      position of the annotation in the history, starting at 0
+ * @param annotation the annotation
+ * @param exception  reason the annotation was rejected
+ */
+public record ReplayFailure(int index, Annotation annotation, Exception exception) {
+
+}
@@ -0,0 +1,52 @@
+package io.github.dissco.annotationlogic.domain;
+
+import java.time.Duration;
+
+/**
+ * Outcome of an annotation submitted to the validation scheduler
+ *
+ * @param outcome   whether the annotation was processed, and if not, why
+ * @param result    the annotated specimen, null if the annotation was not applied
+ * @param exception reason the annotation was rejected, null if it was not rejected
+ * @param queueWait time the annotation waited in its lane before it was taken up, zero if it was
+ *                  never queued
+ */
+public record ScheduledAnnotationResult(Outcome outcome, AnnotationResult result,
+                                        Exception exception, Duration queueWait) {
+
+  public enum Outcome {
+    /**
+     * The annotation was applied
+     */
+    APPLIED,
+    /**
+     * The annotation or its target is not valid
+     */
+    REJECTED,
+    /**
+     * The lane of the annotation was full, the annotation was not queued
+     */
+    OVERLOADED,
+    /**
+     * The deadline of the annotation passed before it was taken up
+     */
+    EXPIRED
+  }
+
+  public static ScheduledAnnotationResult applied(AnnotationResult result, Duration queueWait) {
+    return new ScheduledAnnotationResult(Outcome.APPLIED, result, null, queueWait);
+  }
+
+  public static ScheduledAnnotationResult rejected(Exception exception, Duration queueWait) {
+    return new ScheduledAnnotationResult(Outcome.REJECTED, null, exception, queueWait);
+  }
+
+  public static ScheduledAnnotationResult overloaded() {
+    return new ScheduledAnnotationResult(Outcome.OVERLOADED, null, null, Duration.ZERO);
+  }
+
+  public static ScheduledAnnotationResult expired(Duration queueWait) {
+    return new ScheduledAnnotationResult(Outcome.EXPIRED, null, null, queueWait);
+  }
+
+}
@@ -0,0 +1,81 @@
+package io.github.dissco.annotationlogic.domain;
+
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed form of a selector path in block notation, e.g.
+ * {@code $['ods:hasEvents'][0]['ods:hasLocation']['dwc:country']} or, with a wildcard,
+ * {@code $['ods:hasEvents'][*]['ods:hasLocation']['dwc:country']}
+ *
+ * @param segments the segments of the path, in order from the root
+ */
+public record SelectorPath(List<PathSegment> segments) {
+
+  private static final Pattern SEGMENT_PATTERN = Pattern.compile(
+      "\\[(?:['\"]([A-Za-z:]+)['\"]|(\\d{1,9})|(\\*))]");
+
+  public SelectorPath {
+    segments = List.copyOf(segments);
+  }
+
+  /**
+   * Parses a selector path
+   *
+   * @param path path in block notation
+   * @return the parsed path
+   * @throws InvalidAnnotationException if the path is not in valid block notation or is empty
+   */
+  public static SelectorPath parse(String path) throws InvalidAnnotationException {
+    if (path == null || !path.startsWith("$")) {
+      throw new InvalidAnnotationException("Selector path is not in valid JSON path format");
+    }
+    var matcher = SEGMENT_PATTERN.matcher(path);
+    var segments = new ArrayList<PathSegment>();
+    var position = 1;
+    while (matcher.find() && matcher.start() == position) {
+      if (matcher.group(1) != null) {
+        segments.add(PathSegment.ofKey(matcher.group(1)));
+      } else if (matcher.group(3) != null) {
+        segments.add(PathSegment.wildcard());
+      } else {
+        segments.add(PathSegment.ofIndex(Integer.parseInt(matcher.group(2))));
+      }
+      position = matcher.end();
+    }
+    if (position != path.length() || segments.isEmpty()) {
+      throw new InvalidAnnotationException("Selector path is not in valid JSON path format");
+    }
+    return new SelectorPath(segments);
+  }
+
+  public int size() {
+    return segments.size();
+  }
+
+  public PathSegment get(int i) {
+    return segments.get(i);
+  }
+
+  public PathSegment last() {
+    return segments.getLast();
+  }
+
+  public boolean hasWildcard() {
+    return segments.stream().anyMatch(PathSegment::isWildcard);
+  }
+
+  public SelectorPath parent() {
+    return new SelectorPath(segments.subList(0, segments.size() - 1));
+  }
+
+  @Override
+  public String toString() {
+    var builder = new StringBuilder("$");
+    segments.forEach(builder::append);
+    return builder.toString();
+  }
+
+}
@@ -9,7 +9,7 @@ public enum SelectorType {
 
   private final String selectorName;
   private static final Map<String, SelectorType> MAP = Map.of("ods:TermSelector", TERM_SELECTOR,
-      "ods:ClassSelector", CLASS_SELECTOR, "ods:FragmentSelector", FRAGMENT_SELECTOR);
+      "ods:ClassSelector", CLASS_SELECTOR, "oa:FragmentSelector", FRAGMENT_SELECTOR);
 
   SelectorType(String s) {
     this.selectorName = s;
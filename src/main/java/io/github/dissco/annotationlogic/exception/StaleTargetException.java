@@ -0,0 +1,30 @@
+package io.github.dissco.annotationlogic.exception;
+
+/**
+ * The annotation was made against an older version of its target than the one it is applied to.
+ * Callers can catch it to fetch the current target and retry, instead of rejecting the annotation.
+ */
+public class StaleTargetException extends InvalidAnnotationException {
+
+  private final int annotatedVersion;
+  private final Integer targetVersion;
+
+  public StaleTargetException(int annotatedVersion, Integer targetVersion) {
+    super("Annotation was made against version " + annotatedVersion
+        + " of the target, but the target is at version " + targetVersion);
+    this.annotatedVersion = annotatedVersion;
+    this.targetVersion = targetVersion;
+  }
+
+  public int getAnnotatedVersion() {
+    return annotatedVersion;
+  }
+
+  /**
+   * @return the version of the target, null if the target has no version
+   */
+  public Integer getTargetVersion() {
+    return targetVersion;
+  }
+
+}
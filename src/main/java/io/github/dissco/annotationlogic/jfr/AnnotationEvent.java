@@ -0,0 +1,76 @@
+package io.github.dissco.annotationlogic.jfr;
+
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import java.util.Objects;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a single call to applyAnnotation. Disabled by default, enable it
+ * in the recording settings with {@code io.github.dissco.annotationlogic.Annotation#enabled=true}.
+ */
+@Name("io.github.dissco.annotationlogic.Annotation")
+@Label("Annotation")
+@Category({"DiSSCo", "Annotation Logic"})
+@Description("Application of a single annotation to a target")
+@Enabled(false)
+@StackTrace(false)
+public class AnnotationEvent extends Event {
+
+  @Label("Target ID")
+  String targetId;
+
+  @Label("Selector Type")
+  String selectorType;
+
+  @Label("Motivation")
+  String motivation;
+
+  @Label("Path")
+  String path;
+
+  @Label("Document Size")
+  @Description("Size of the serialised target, in characters")
+  @DataAmount
+  long documentSize;
+
+  @Label("Outcome")
+  @Description("applied, unchanged, or the name of the exception the annotation was rejected with")
+  String outcome;
+
+  public void setDocumentSize(long documentSize) {
+    this.documentSize = documentSize;
+  }
+
+  /**
+   * Ends the event and commits it if it is enabled. Only reads the annotation when the event is
+   * committed.
+   *
+   * @param targetId   identifier of the annotated target
+   * @param annotation the applied annotation
+   * @param outcome    outcome of the call
+   */
+  public void end(String targetId, Annotation annotation, String outcome) {
+    end();
+    if (shouldCommit()) {
+      this.targetId = targetId;
+      this.outcome = outcome;
+      this.motivation = Objects.toString(annotation.getOaMotivation(), null);
+      if (annotation.getOaHasTarget() != null
+          && annotation.getOaHasTarget().getOaHasSelector() != null) {
+        var selector = annotation.getOaHasTarget().getOaHasSelector().getAdditionalProperties();
+        this.selectorType = Objects.toString(selector.get("@type"), null);
+        this.path = Objects.toString(selector.getOrDefault("ods:term", selector.get("ods:class")),
+            null);
+      }
+      commit();
+    }
+  }
+
+}
@@ -0,0 +1,25 @@
+package io.github.dissco.annotationlogic.jfr;
+
+/**
+ * Phases of applying an annotation to a target, recorded as {@link AnnotationPhaseEvent}s
+ */
+public enum AnnotationPhase {
+
+  SERIALIZE("serialize"),
+  PREAPPLICATION_CHECKS("preapplication checks"),
+  MUTATION("mutation"),
+  SCHEMA_VALIDATION("schema validation"),
+  BINDING("binding");
+
+  private final String phaseName;
+
+  AnnotationPhase(String phaseName) {
+    this.phaseName = phaseName;
+  }
+
+  @Override
+  public String toString() {
+    return phaseName;
+  }
+
+}
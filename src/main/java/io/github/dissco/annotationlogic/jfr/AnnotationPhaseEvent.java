@@ -0,0 +1,47 @@
+package io.github.dissco.annotationlogic.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a single phase of applying an annotation, nested within an
+ * {@link AnnotationEvent}. Disabled by default, enable it in the recording settings with
+ * {@code io.github.dissco.annotationlogic.AnnotationPhase#enabled=true}.
+ */
+@Name("io.github.dissco.annotationlogic.AnnotationPhase")
+@Label("Annotation Phase")
+@Category({"DiSSCo", "Annotation Logic"})
+@Description("A single phase of applying an annotation to a target")
+@Enabled(false)
+@StackTrace(false)
+public class AnnotationPhaseEvent extends Event {
+
+  @Label("Phase")
+  String phase;
+
+  @Label("Target ID")
+  String targetId;
+
+  public AnnotationPhaseEvent(AnnotationPhase phase) {
+    this.phase = phase.toString();
+  }
+
+  /**
+   * Ends the event and commits it if it is enabled
+   *
+   * @param targetId identifier of the annotated target
+   */
+  public void end(String targetId) {
+    end();
+    if (shouldCommit()) {
+      this.targetId = targetId;
+      commit();
+    }
+  }
+
+}
@@ -0,0 +1,53 @@
+package io.github.dissco.annotationlogic.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for checking a single consistency rule on an annotated target, nested
+ * within the schema validation {@link AnnotationPhaseEvent}. Disabled by default, enable it in the
+ * recording settings with {@code io.github.dissco.annotationlogic.ConsistencyRule#enabled=true}.
+ */
+@Name("io.github.dissco.annotationlogic.ConsistencyRule")
+@Label("Consistency Rule")
+@Category({"DiSSCo", "Annotation Logic"})
+@Description("Check of a single consistency rule on an annotated target")
+@Enabled(false)
+@StackTrace(false)
+public class ConsistencyRuleEvent extends Event {
+
+  @Label("Rule")
+  String rule;
+
+  @Label("Target ID")
+  String targetId;
+
+  @Label("Violations")
+  @Description("Number of inconsistencies the rule found")
+  int violations;
+
+  public ConsistencyRuleEvent(String rule) {
+    this.rule = rule;
+  }
+
+  /**
+   * Ends the event and commits it if it is enabled
+   *
+   * @param targetId   identifier of the annotated target
+   * @param violations number of inconsistencies the rule found
+   */
+  public void end(String targetId, int violations) {
+    end();
+    if (shouldCommit()) {
+      this.targetId = targetId;
+      this.violations = violations;
+      commit();
+    }
+  }
+
+}
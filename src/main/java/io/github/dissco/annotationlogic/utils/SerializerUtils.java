@@ -0,0 +1,47 @@
+package io.github.dissco.annotationlogic.utils;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SerializerUtils {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SerializerUtils.class);
+
+  private SerializerUtils() {
+    // Utility class
+  }
+
+  /**
+   * Jackson module with the serializers generated for the openDS classes during the build. It is
+   * generated after the library's sources are compiled, so it is loaded by name.
+   */
+  public static final String SCHEMA_MODULE =
+      "io.github.dissco.core.annotationlogic.serialization.SchemaModule";
+
+  /**
+   * Registers the generated serializers of the openDS classes with a mapper. Without them, for
+   * example when the classes are compiled outside the Maven build, the openDS classes are bound by
+   * reflection.
+   *
+   * @param mapper the mapper to register the serializers with
+   * @return the mapper
+   */
+  public static ObjectMapper registerSchemaModule(ObjectMapper mapper) {
+    Class<?> moduleClass;
+    try {
+      moduleClass = Class.forName(SCHEMA_MODULE, true, SerializerUtils.class.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      LOGGER.warn("Generated serializers not found, the openDS classes are bound by reflection");
+      return mapper;
+    }
+    try {
+      return mapper.registerModule(
+          (Module) moduleClass.getDeclaredConstructor().newInstance());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to create the generated serializers", e);
+    }
+  }
+
+}
@@ -0,0 +1,84 @@
+package io.github.dissco.annotationlogic.validator;
+
+import io.github.dissco.annotationlogic.domain.ReplayFailure;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import java.util.List;
+
+/**
+ * Outcome of replaying the annotation history of a specimen, created with
+ * {@link AnnotationValidator#replay(DigitalSpecimen, Iterable, int, int)}. Holds the state after
+ * every snapshot interval, so the specimen as it was after any number of applied annotations can be
+ * rebuilt by applying at most one interval of annotations to the nearest snapshot.
+ */
+public final class AnnotationReplay {
+
+  private final AnnotationValidator annotationValidator;
+  private final List<Object> snapshots;
+  private final int snapshotInterval;
+  private final List<CompiledAnnotation> applied;
+  private final Object current;
+  private final ReplayFailure failure;
+
+  AnnotationReplay(AnnotationValidator annotationValidator, List<Object> snapshots,
+      int snapshotInterval, List<CompiledAnnotation> applied, Object current,
+      ReplayFailure failure) {
+    this.annotationValidator = annotationValidator;
+    this.snapshots = snapshots;
+    this.snapshotInterval = snapshotInterval;
+    this.applied = applied;
+    this.current = current;
+    this.failure = failure;
+  }
+
+  /**
+   * @return number of annotations that were applied, the index of the failing annotation if the
+   * replay stopped at one
+   */
+  public int getAppliedCount() {
+    return applied.size();
+  }
+
+  public boolean isComplete() {
+    return failure == null;
+  }
+
+  /**
+   * @return the first annotation that could not be applied, null if the whole history was applied
+   */
+  public ReplayFailure getFailure() {
+    return failure;
+  }
+
+  /**
+   * @return the specimen after all applied annotations
+   * @throws InvalidAnnotationException if the specimen can not be bound
+   */
+  public DigitalSpecimen getCurrentState() throws InvalidAnnotationException {
+    return annotationValidator.bindTree(current);
+  }
+
+  /**
+   * Rebuilds the specimen as it was after a number of annotations of the history
+   *
+   * @param appliedCount number of annotations applied to the base specimen, 0 for the base
+   * @return the specimen after the first appliedCount annotations
+   * @throws IllegalArgumentException   if appliedCount is negative or larger than the number of
+   *                                    applied annotations
+   * @throws InvalidAnnotationException if the specimen can not be bound
+   */
+  public DigitalSpecimen getStateAt(int appliedCount) throws InvalidAnnotationException {
+    if (appliedCount < 0 || appliedCount > applied.size()) {
+      throw new IllegalArgumentException(
+          "State " + appliedCount + " is not within the " + applied.size()
+              + " applied annotations");
+    }
+    var snapshot = appliedCount / snapshotInterval;
+    var tree = snapshots.get(snapshot);
+    for (int i = snapshot * snapshotInterval; i < appliedCount; i++) {
+      tree = annotationValidator.applyAnnotationToTree(tree, applied.get(i));
+    }
+    return annotationValidator.bindTree(tree);
+  }
+
+}
@@ -0,0 +1,105 @@
+package io.github.dissco.annotationlogic.validator;
+
+import io.github.dissco.annotationlogic.domain.ReplayFailure;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.exception.InvalidTargetException;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays annotation histories for the {@link AnnotationValidator}, see
+ * {@link AnnotationValidator#replay(DigitalSpecimen, Iterable, int, int)}. Annotations are compiled,
+ * applied and validated by the validator, the replayer only decides when states are validated and
+ * which are kept as snapshots.
+ */
+final class AnnotationReplayer {
+
+  private final AnnotationValidator annotationValidator;
+
+  AnnotationReplayer(AnnotationValidator annotationValidator) {
+    this.annotationValidator = annotationValidator;
+  }
+
+  AnnotationReplay replay(DigitalSpecimen digitalSpecimen, Iterable<Annotation> annotations,
+      int checkpointInterval, int snapshotInterval) throws InvalidTargetException {
+    if (checkpointInterval < 1 || snapshotInterval < 1) {
+      throw new IllegalArgumentException("Checkpoint and snapshot intervals must be at least 1");
+    }
+    var tree = annotationValidator.parseTree(digitalSpecimen);
+    var snapshots = new ArrayList<>(List.of(tree));
+    var applied = new ArrayList<CompiledAnnotation>();
+    // States since the last checkpoint that passed, starting with the state of that checkpoint
+    var unvalidated = new ArrayList<>(List.of(tree));
+    ReplayFailure failure = null;
+    for (var annotation : annotations) {
+      try {
+        var compiledAnnotation = annotationValidator.compile(annotation);
+        tree = annotationValidator.applyAnnotationToTree(tree, compiledAnnotation);
+        applied.add(compiledAnnotation);
+        unvalidated.add(tree);
+      } catch (InvalidAnnotationException e) {
+        failure = new ReplayFailure(applied.size(), annotation, e);
+        break;
+      }
+      if (applied.size() % checkpointInterval == 0) {
+        var checkpointFailure = checkpoint(unvalidated, applied);
+        if (checkpointFailure != null) {
+          failure = checkpointFailure;
+          break;
+        }
+      }
+      if (applied.size() % snapshotInterval == 0) {
+        snapshots.add(tree);
+      }
+    }
+    var checkpointFailure = checkpoint(unvalidated, applied);
+    if (checkpointFailure != null) {
+      failure = checkpointFailure;
+    }
+    // Drop the snapshots of states after a failed checkpoint
+    snapshots.subList(applied.size() / snapshotInterval + 1, snapshots.size()).clear();
+    return new AnnotationReplay(annotationValidator, snapshots, snapshotInterval, applied,
+        unvalidated.getLast(), failure);
+  }
+
+  /*
+   * Validates the last of the states since the previous checkpoint. If it is invalid, the states are
+   * validated in order to find the annotation that made the specimen invalid, and that annotation
+   * and the ones after it are dropped. Afterwards the list only holds the last valid state.
+   */
+  private ReplayFailure checkpoint(List<Object> unvalidated, List<CompiledAnnotation> applied) {
+    if (unvalidated.size() == 1) {
+      return null;
+    }
+    var firstIndex = applied.size() - unvalidated.size() + 1;
+    var rules = annotationValidator.findConsistencyRules(
+        applied.subList(firstIndex, applied.size()));
+    try {
+      annotationValidator.treeIsValid(unvalidated.getLast(), rules);
+      unvalidated.subList(0, unvalidated.size() - 1).clear();
+      return null;
+    } catch (InvalidAnnotationException lastException) {
+      var failing = unvalidated.size() - 1;
+      var exception = lastException;
+      for (int i = 1; i < failing; i++) {
+        try {
+          annotationValidator.treeIsValid(unvalidated.get(i), rules);
+        } catch (InvalidAnnotationException e) {
+          failing = i;
+          exception = e;
+          break;
+        }
+      }
+      var index = firstIndex + failing - 1;
+      var failure = new ReplayFailure(index, applied.get(index).annotation(), exception);
+      applied.subList(index, applied.size()).clear();
+      var valid = unvalidated.get(failing - 1);
+      unvalidated.clear();
+      unvalidated.add(valid);
+      return failure;
+    }
+  }
+
+}
@@ -1,25 +1,48 @@
 package io.github.dissco.annotationlogic.validator;
 
-import static com.jayway.jsonpath.JsonPath.using;
 import static io.github.dissco.annotationlogic.utils.ValidationUtils.CLASS_MAP;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import io.github.dissco.annotationlogic.domain.AnnotationResult;
+import io.github.dissco.annotationlogic.domain.BatchAnnotationResult;
+import io.github.dissco.annotationlogic.domain.BinaryFormat;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
 import io.github.dissco.annotationlogic.domain.SelectorType;
 import io.github.dissco.annotationlogic.exception.InvalidAnnotationBodyException;
 import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
 import io.github.dissco.annotationlogic.exception.InvalidAnnotationMotivationException;
 import io.github.dissco.annotationlogic.exception.InvalidTargetException;
-import io.github.dissco.annotationlogic.utils.ValidationUtils;
+import io.github.dissco.annotationlogic.exception.StaleTargetException;
+import io.github.dissco.annotationlogic.jfr.AnnotationEvent;
+import io.github.dissco.annotationlogic.jfr.AnnotationPhase;
+import io.github.dissco.annotationlogic.jfr.AnnotationPhaseEvent;
+import io.github.dissco.annotationlogic.validator.PathResolver.TargetHandle;
+import io.github.dissco.annotationlogic.validator.StreamingAnnotationApplier.PatchedTarget;
 import io.github.dissco.core.annotationlogic.schema.Annotation;
 import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
 import io.github.dissco.core.annotationlogic.schema.DigitalMedia;
 import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
 import jakarta.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.SortedMap;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,100 +52,936 @@ public class AnnotationValidator implements AnnotationValidatorInterface {
   private final ObjectMapper mapper;
   private final Configuration jsonPathConfig;
   private final JsonSchemaValidator jsonSchemaValidator;
-  private static final Pattern LAST_INDEX_PATTERN = Pattern.compile("\\[(?!.*\\[)(\\d+)]");
+  private final StreamingAnnotationApplier streamingApplier;
+  private final long streamingThreshold;
+  private final ProtectionPolicy protectionPolicy;
+  private final PathResolver pathResolver;
+  private final SpecimenCache specimenCache;
+  private final ConsistencyRules consistencyRules;
+  private final SpecimenCodec codec;
+  private final AnnotationReplayer replayer = new AnnotationReplayer(this);
+  private final Executor batchExecutor;
+  private final BatchAnnotationApplier batchApplier;
+  private final SpecimenBinder specimenBinder = new SpecimenBinder();
   private static final Pattern LAST_KEY_PATTERN = Pattern.compile("\\[(?!.*\\[[\"'])(.*)[\"']]");
   private static final Pattern BLOCK_NOTATION_PATTERN = Pattern.compile(
-      "^\\$((?:\\[['\"][A-Za-z:]+['\"]])+(?:\\[\\d+])*+)*+");
+      "^\\$((?:\\[['\"][A-Za-z:]+['\"]])+(?:\\[(?:\\d+|\\*)])*+)*+");
+  private static final String WILDCARD = "[*]";
   private static final Logger LOGGER = LoggerFactory.getLogger(AnnotationValidator.class);
+  public static final int DEFAULT_CHECKPOINT_INTERVAL = 50;
+  public static final int DEFAULT_SNAPSHOT_INTERVAL = 100;
 
   public AnnotationValidator(ObjectMapper mapper, Configuration jsonPathConfig,
       JsonSchemaValidator jsonSchemaValidator) {
+    this(builder(mapper, jsonPathConfig, jsonSchemaValidator));
+  }
+
+  private AnnotationValidator(Builder builder) {
+    this(builder.mapper, builder.jsonPathConfig, builder.jsonSchemaValidator,
+        builder.streamingThreshold, builder.protectionPolicy, builder.specimenCache,
+        builder.consistencyRules, builder.batchExecutor, new SpecimenCodec(builder.mapper));
+  }
+
+  private AnnotationValidator(ObjectMapper mapper, Configuration jsonPathConfig,
+      JsonSchemaValidator jsonSchemaValidator, long streamingThreshold,
+      ProtectionPolicy protectionPolicy, SpecimenCache specimenCache,
+      ConsistencyRules consistencyRules, Executor batchExecutor, SpecimenCodec codec) {
     this.mapper = mapper;
     this.jsonPathConfig = jsonPathConfig;
     this.jsonSchemaValidator = jsonSchemaValidator;
+    this.streamingApplier = new StreamingAnnotationApplier(mapper);
+    this.streamingThreshold = streamingThreshold;
+    this.protectionPolicy = protectionPolicy;
+    this.specimenCache = specimenCache;
+    this.consistencyRules = consistencyRules;
+    this.pathResolver = new PathResolver(jsonPathConfig.jsonProvider());
+    this.batchExecutor = batchExecutor;
+    this.batchApplier = new BatchAnnotationApplier(this, batchExecutor);
+    this.codec = codec;
+  }
+
+  /**
+   * Starts building an annotation validator. Without further settings the validator never switches
+   * to streaming mode, protects the default terms and classes, prepares every specimen again,
+   * checks no consistency rules and applies batch annotations in the calling thread.
+   *
+   * @param mapper              mapper the specimens and annotations are read and written with
+   * @param jsonPathConfig      JsonPath configuration the specimens are parsed with
+   * @param jsonSchemaValidator validator of annotated specimens
+   */
+  public static Builder builder(ObjectMapper mapper, Configuration jsonPathConfig,
+      JsonSchemaValidator jsonSchemaValidator) {
+    return new Builder(mapper, jsonPathConfig, jsonSchemaValidator);
+  }
+
+  /*
+   * A validator with the settings and collaborators of this one, validating annotated specimens
+   * with another schema validator
+   */
+  private AnnotationValidator withSchemaValidator(JsonSchemaValidator schemaValidator) {
+    return new AnnotationValidator(mapper, jsonPathConfig, schemaValidator, streamingThreshold,
+        protectionPolicy, specimenCache, consistencyRules, batchExecutor, codec);
+  }
+
+  /**
+   * Returns a validator that validates annotated specimens against one version of the specimen
+   * schema, for example to check annotations against both the old and the new schema during a
+   * migration
+   *
+   * @param schemaVersion version of the specimen schema
+   * @throws IllegalArgumentException if the version is not known to the schema registry
+   */
+  public AnnotationValidator forSchemaVersion(String schemaVersion) {
+    return withSchemaValidator(jsonSchemaValidator.forSchemaVersion(schemaVersion));
+  }
+
+  /**
+   * Returns a validator that reports every schema violation of an annotated specimen. By default
+   * schema validation stops at the first violation, so a rejected annotation can be applied again
+   * with this validator to find out everything that is wrong with it.
+   */
+  public AnnotationValidator withFullDiagnostics() {
+    return withSchemaValidator(jsonSchemaValidator.withFullDiagnostics());
   }
 
   public DigitalSpecimen applyAnnotation(@Nonnull DigitalSpecimen digitalSpecimen,
       @Nonnull Annotation annotation)
       throws InvalidAnnotationException, InvalidTargetException {
-    var target = getTargetAsString(digitalSpecimen);
-    var context = using(jsonPathConfig).parse(target);
-    preapplicationChecks(context, annotation);
-    var annotatedTarget = applyAnnotationToContext(context, annotation);
+    return applyAnnotationWithResult(digitalSpecimen, annotation).digitalSpecimen();
+  }
+
+  /**
+   * Applies a single annotation to a target digital specimen, if the annotation was made against the
+   * current version of the specimen. The version is compared before any other work is done, so
+   * stale annotations are rejected without serialising the specimen or validating it.
+   *
+   * @param digitalSpecimen  digital specimen being annotated
+   * @param annotation       annotation to apply
+   * @param annotatedVersion the {@code ods:version} of the specimen the annotation was made against
+   * @return the annotated specimen
+   * @throws StaleTargetException       if the specimen has a different version
+   * @throws InvalidAnnotationException if the annotation is not valid
+   */
+  public DigitalSpecimen applyAnnotation(@Nonnull DigitalSpecimen digitalSpecimen,
+      @Nonnull Annotation annotation, int annotatedVersion)
+      throws InvalidAnnotationException, InvalidTargetException {
+    targetVersionIsCurrent(digitalSpecimen.getOdsVersion(), annotatedVersion);
+    return applyAnnotation(digitalSpecimen, annotation);
+  }
+
+  /**
+   * Applies a single annotation to a target digital specimen, with the specimen, annotation and
+   * result encoded in a binary format. The specimen is decoded straight into the working document
+   * and the result is encoded from it, it is never bound to a {@link DigitalSpecimen} or
+   * serialised as JSON text. Specimens above the streaming threshold, in bytes, are patched in one
+   * pass over their binary tokens. The binary mapper shares the configuration of the library's
+   * mapper.
+   *
+   * @param digitalSpecimen encoded digital specimen being annotated
+   * @param annotation      encoded annotation to apply
+   * @param format          binary format of the specimen and annotation
+   * @return the encoded, annotated specimen, or the given bytes if the annotation does not change
+   * the specimen
+   * @throws InvalidTargetException     if the specimen can not be decoded
+   * @throws InvalidAnnotationException if the annotation can not be decoded or is not valid
+   */
+  public byte[] applyAnnotation(@Nonnull byte[] digitalSpecimen, @Nonnull byte[] annotation,
+      @Nonnull BinaryFormat format) throws InvalidAnnotationException, InvalidTargetException {
+    var decodedAnnotation = codec.readAnnotation(format, annotation);
+    var targetId = decodedAnnotation.getOaHasTarget().getDctermsIdentifier();
+    return inEvent(targetId, decodedAnnotation, event -> applyAnnotationToBinary(digitalSpecimen,
+        format, targetId, () -> compile(decodedAnnotation), event)).target();
+  }
+
+  /**
+   * Encodes a digital specimen in a binary format, with the configuration of the library's mapper
+   *
+   * @throws InvalidTargetException if the specimen can not be encoded
+   */
+  public byte[] writeSpecimen(@Nonnull DigitalSpecimen digitalSpecimen,
+      @Nonnull BinaryFormat format) throws InvalidTargetException {
+    return codec.writeSpecimen(format, digitalSpecimen);
+  }
+
+  /**
+   * Applies a single annotation to a target digital specimen, and reports whether it changed the
+   * specimen. Annotations that would not change the specimen, such as an edit to the value a term
+   * already has, are not validated against the schema and return the given specimen itself.
+   *
+   * @param digitalSpecimen digital specimen being annotated
+   * @param annotation      annotation to apply
+   * @return the annotated specimen, flagged as unchanged if the annotation is a no-op
+   * @throws InvalidAnnotationException if the annotation is not valid
+   */
+  public AnnotationResult applyAnnotationWithResult(@Nonnull DigitalSpecimen digitalSpecimen,
+      @Nonnull Annotation annotation)
+      throws InvalidAnnotationException, InvalidTargetException {
+    return toResult(applyAnnotation(digitalSpecimen.getDctermsIdentifier(), annotation,
+        () -> prepare(digitalSpecimen), () -> compile(annotation), specimenBinder));
+  }
+
+  /*
+   * Applies an annotation that was compiled before, as for every specimen of a batch
+   */
+  AnnotationResult applyCompiledAnnotation(DigitalSpecimen digitalSpecimen,
+      CompiledAnnotation compiledAnnotation)
+      throws InvalidAnnotationException, InvalidTargetException {
+    return toResult(applyAnnotation(digitalSpecimen.getDctermsIdentifier(),
+        compiledAnnotation.annotation(), () -> prepare(digitalSpecimen), () -> compiledAnnotation,
+        specimenBinder));
+  }
+
+  /**
+   * Applies a single annotation to a target digital specimen and reports whether it changed the
+   * specimen, if the annotation was made against the current version of the specimen. See
+   * {@link #applyAnnotation(DigitalSpecimen, Annotation, int)}.
+   *
+   * @throws StaleTargetException if the specimen has a different version
+   */
+  public AnnotationResult applyAnnotationWithResult(@Nonnull DigitalSpecimen digitalSpecimen,
+      @Nonnull Annotation annotation, int annotatedVersion)
+      throws InvalidAnnotationException, InvalidTargetException {
+    targetVersionIsCurrent(digitalSpecimen.getOdsVersion(), annotatedVersion);
+    return applyAnnotationWithResult(digitalSpecimen, annotation);
+  }
+
+  /**
+   * Applies a single annotation to a digital specimen serialised as JSON, for example a specimen
+   * read from a JSONB column. The specimen is parsed once into the working document and the result
+   * is serialised once, it is never bound to a {@link DigitalSpecimen}. The annotation goes through
+   * the same checks and schema validation as with
+   * {@link #applyAnnotation(DigitalSpecimen, Annotation)}.
+   *
+   * @param digitalSpecimen UTF-8 encoded JSON of the digital specimen being annotated
+   * @param annotation      annotation to apply
+   * @return UTF-8 encoded JSON of the annotated specimen, or the given bytes if the annotation does
+   * not change the specimen
+   * @throws InvalidTargetException     if the specimen is not a JSON object
+   * @throws InvalidAnnotationException if the annotation is not valid
+   */
+  public byte[] applyAnnotation(@Nonnull byte[] digitalSpecimen, @Nonnull Annotation annotation)
+      throws InvalidAnnotationException, InvalidTargetException {
+    return applyAnnotation(annotation.getOaHasTarget().getDctermsIdentifier(), annotation,
+        () -> prepare(digitalSpecimen), () -> compile(annotation),
+        new JsonBinder(digitalSpecimen)).target();
+  }
+
+  /**
+   * Applies a single annotation to a digital specimen serialised as JSON, see
+   * {@link #applyAnnotation(byte[], Annotation)}. The position of the buffer is not changed.
+   */
+  public byte[] applyAnnotation(@Nonnull ByteBuffer digitalSpecimen,
+      @Nonnull Annotation annotation) throws InvalidAnnotationException, InvalidTargetException {
+    var bytes = new byte[digitalSpecimen.remaining()];
+    digitalSpecimen.duplicate().get(bytes);
+    return applyAnnotation(bytes, annotation);
+  }
+
+  /**
+   * Applies a single annotation to a digital specimen serialised as JSON, see
+   * {@link #applyAnnotation(byte[], Annotation)}. The stream is read to its end, but not closed.
+   */
+  public byte[] applyAnnotation(@Nonnull InputStream digitalSpecimen,
+      @Nonnull Annotation annotation) throws InvalidAnnotationException, InvalidTargetException {
+    byte[] bytes;
     try {
-      jsonSchemaValidator.specimenIsValid(annotatedTarget);
-      return mapper.readValue(annotatedTarget, DigitalSpecimen.class);
-    } catch (JsonProcessingException e) {
-      LOGGER.warn("Unable to parse annotated target", e);
-      throw new InvalidAnnotationException("Unable to parse annotated target");
+      bytes = digitalSpecimen.readAllBytes();
+    } catch (IOException e) {
+      LOGGER.warn("Unable to read digital specimen", e);
+      throw new InvalidTargetException("Unable to read digital specimen");
     }
+    return applyAnnotation(bytes, annotation);
   }
 
-  @Override
-  public DigitalMedia applyAnnotation(@Nonnull DigitalMedia target, @Nonnull Annotation annotation)
+  /**
+   * Applies a single annotation to a digital specimen serialised as JSON, and writes the annotated
+   * specimen as JSON to the output. The specimen is streamed from the input to the output in one
+   * pass and never held in full, only the changed element is parsed and validated against the
+   * schema, so memory is bounded by the size of that element. Only an annotation that affects a
+   * consistency rule holds the annotated specimen, as the rule reads the whole specimen. Neither
+   * stream is closed. The specimen is written to the output as it is read, so the output must be
+   * discarded if an exception is thrown.
+   *
+   * @param digitalSpecimen   UTF-8 encoded JSON of the digital specimen being annotated
+   * @param annotation        annotation to apply
+   * @param annotatedSpecimen output the annotated specimen is written to, or the specimen as it
+   *                          was if the annotation does not change it
+   * @return true if the annotation changed the specimen
+   * @throws InvalidTargetException     if the specimen is not a JSON object or can not be read or
+   *                                    written
+   * @throws InvalidAnnotationException if the annotation is not valid
+   */
+  public boolean applyAnnotation(@Nonnull InputStream digitalSpecimen,
+      @Nonnull Annotation annotation, @Nonnull OutputStream annotatedSpecimen)
       throws InvalidAnnotationException, InvalidTargetException {
-    throw new UnsupportedOperationException("Media validation not yet supported");
+    var targetId = annotation.getOaHasTarget().getDctermsIdentifier();
+    return inEvent(targetId, annotation, event -> applyAnnotationToStream(digitalSpecimen,
+        annotatedSpecimen, targetId, () -> compile(annotation))).target();
+  }
+
+  /**
+   * Serialises and parses a specimen once, so any number of annotations can be applied to it with
+   * {@link #apply(PreparedSpecimen, Annotation)}. With a specimen cache, the specimen is still
+   * serialised, but a specimen with the same identifier, version and content that was prepared
+   * before is not parsed again.
+   *
+   * @param digitalSpecimen the specimen to prepare
+   * @return the prepared specimen
+   * @throws InvalidTargetException if the specimen can not be serialised
+   */
+  public PreparedSpecimen prepare(@Nonnull DigitalSpecimen digitalSpecimen)
+      throws InvalidTargetException {
+    if (specimenCache == null) {
+      return prepareSpecimen(digitalSpecimen);
+    }
+    var targetId = digitalSpecimen.getDctermsIdentifier();
+    var version = digitalSpecimen.getOdsVersion();
+    var target = codec.serialise(digitalSpecimen);
+    var cached = specimenCache.get(targetId, version, target);
+    if (cached == null) {
+      var prepared = prepareSpecimen(digitalSpecimen, target);
+      // The cache does not hold on to the specimen object, only to its serialised and parsed form
+      specimenCache.put(targetId, version,
+          new PreparedSpecimen(null, prepared.serialised(), prepared.tree()));
+      return prepared;
+    }
+    return new PreparedSpecimen(digitalSpecimen, cached.serialised(), cached.tree());
+  }
+
+  private PreparedSpecimen prepareSpecimen(DigitalSpecimen digitalSpecimen)
+      throws InvalidTargetException {
+    return prepareSpecimen(digitalSpecimen, codec.serialise(digitalSpecimen));
+  }
+
+  private PreparedSpecimen prepareSpecimen(DigitalSpecimen digitalSpecimen, String target) {
+    var tree = target.length() >= streamingThreshold ? null
+        : jsonPathConfig.jsonProvider().parse(target);
+    return new PreparedSpecimen(digitalSpecimen, target, tree);
+  }
+
+  private PreparedSpecimen prepare(byte[] digitalSpecimen) throws InvalidTargetException {
+    var target = new String(digitalSpecimen, StandardCharsets.UTF_8);
+    if (target.length() >= streamingThreshold) {
+      return new PreparedSpecimen(null, target, null);
+    }
+    var provider = jsonPathConfig.jsonProvider();
+    Object tree;
+    try {
+      tree = provider.parse(target);
+    } catch (InvalidJsonException e) {
+      LOGGER.warn("Unable to parse digital specimen", e);
+      throw new InvalidTargetException("Unable to parse digital specimen");
+    }
+    if (!provider.isMap(tree)) {
+      throw new InvalidTargetException("Digital specimen must be a JSON object");
+    }
+    return new PreparedSpecimen(null, target, tree);
+  }
+
+  /**
+   * Applies a single annotation to a prepared specimen. The prepared specimen is not changed, each
+   * annotation is applied to a copy of only the elements it changes, so annotations can be
+   * evaluated independently of each other.
+   *
+   * @param preparedSpecimen specimen to annotate
+   * @param annotation       annotation to apply
+   * @return the specimen with the changes from the annotation, or the specimen the prepared
+   * specimen was created from if the annotation does not change it
+   * @throws InvalidAnnotationException if the annotation is not valid
+   */
+  public DigitalSpecimen apply(@Nonnull PreparedSpecimen preparedSpecimen,
+      @Nonnull Annotation annotation)
+      throws InvalidAnnotationException, InvalidTargetException {
+    return applyAnnotation(preparedSpecimen.getTargetId(), annotation, () -> preparedSpecimen,
+        () -> compile(annotation), specimenBinder).target();
+  }
+
+  /**
+   * Reads a specimen into a persistent tree, to which annotations can be applied with
+   * {@link #apply(PersistentSpecimen, Annotation)}
+   *
+   * @param digitalSpecimen the specimen
+   * @return the specimen as a persistent tree
+   * @throws InvalidTargetException if the specimen can not be serialised
+   */
+  public PersistentSpecimen persist(@Nonnull DigitalSpecimen digitalSpecimen)
+      throws InvalidTargetException {
+    return new PersistentSpecimen(mapper, codec.persist(digitalSpecimen));
+  }
+
+  /**
+   * Applies an annotation to a version of a specimen held as a persistent tree. Only the path to
+   * each changed element is copied, the new version shares all other elements with the given
+   * version, which is not changed. The new version goes through the same checks and schema
+   * validation as with {@link #applyAnnotation(DigitalSpecimen, Annotation)}.
+   *
+   * @param persistentSpecimen version of the specimen to annotate
+   * @param annotation         annotation to apply
+   * @return the new version, or the given version if the annotation does not change it
+   * @throws InvalidAnnotationException if the annotation is not valid
+   */
+  public PersistentSpecimen apply(@Nonnull PersistentSpecimen persistentSpecimen,
+      @Nonnull Annotation annotation) throws InvalidAnnotationException {
+    var tree = persistentSpecimen.tree();
+    var compiledAnnotation = compile(annotation);
+    var annotatedTree = applyAnnotationToTree(tree, compiledAnnotation);
+    if (annotatedTree == tree) {
+      return persistentSpecimen;
+    }
+    var annotated = new PersistentSpecimen(mapper, (PersistentJsonObject) annotatedTree);
+    var rules = findConsistencyRules(List.of(compiledAnnotation));
+    if (rules.isEmpty()) {
+      jsonSchemaValidator.specimenTreeIsValid(annotated.toJsonNode());
+    } else {
+      jsonSchemaValidator.specimenTreeIsValid(annotated.toJsonNode(), rules);
+    }
+    return annotated;
+  }
+
+  /**
+   * Replays the annotation history of a specimen, see
+   * {@link #replay(DigitalSpecimen, Iterable, int, int)}, validating every
+   * {@value #DEFAULT_CHECKPOINT_INTERVAL} annotations and keeping a snapshot every
+   * {@value #DEFAULT_SNAPSHOT_INTERVAL} annotations.
+   */
+  public AnnotationReplay replay(@Nonnull DigitalSpecimen digitalSpecimen,
+      @Nonnull Iterable<Annotation> annotations) throws InvalidTargetException {
+    return replay(digitalSpecimen, annotations, DEFAULT_CHECKPOINT_INTERVAL,
+        DEFAULT_SNAPSHOT_INTERVAL);
+  }
+
+  /**
+   * Replays the annotation history of a specimen, for example to rebuild its current state after a
+   * data repair. The annotations are applied in order to a single working document, which is only
+   * validated against the schema at checkpoints and after the last annotation. The replay stops at
+   * the first annotation that can not be applied. When a checkpoint fails, the states since the
+   * previous checkpoint are validated one by one to find the annotation that made the specimen
+   * invalid. A state that is invalid between checkpoints, but made valid again before the next
+   * checkpoint, is accepted.
+   *
+   * @param digitalSpecimen    the specimen the history starts from
+   * @param annotations        the annotation history, in the order the annotations were applied
+   * @param checkpointInterval number of annotations after which the specimen is validated
+   * @param snapshotInterval   number of annotations after which a snapshot of the state is kept,
+   *                           lower intervals hold more states in memory but rebuild historical
+   *                           states faster
+   * @return the replayed history, with the first failing annotation if the replay stopped early
+   * @throws InvalidTargetException   if the specimen can not be serialised
+   * @throws IllegalArgumentException if an interval is smaller than 1
+   */
+  public AnnotationReplay replay(@Nonnull DigitalSpecimen digitalSpecimen,
+      @Nonnull Iterable<Annotation> annotations, int checkpointInterval, int snapshotInterval)
+      throws InvalidTargetException {
+    return replayer.replay(digitalSpecimen, annotations, checkpointInterval, snapshotInterval);
   }
 
-  private static void preapplicationChecks(DocumentContext context, Annotation annotation)
+  /*
+   * Parses a specimen into the working document annotations are applied to
+   */
+  Object parseTree(DigitalSpecimen digitalSpecimen) throws InvalidTargetException {
+    return jsonPathConfig.jsonProvider().parse(codec.serialise(digitalSpecimen));
+  }
+
+  /*
+   * Validates a working document against the schema and the given consistency rules
+   */
+  void treeIsValid(Object tree, List<ConsistencyRule> rules) throws InvalidAnnotationException {
+    specimenIsValid(jsonPathConfig.jsonProvider().toJson(tree), rules);
+  }
+
+  /*
+   * Applies an annotation to a parsed specimen without changing it, returns the given tree if the
+   * annotation does not change the specimen
+   */
+  Object applyAnnotationToTree(Object tree, CompiledAnnotation compiledAnnotation)
       throws InvalidAnnotationException {
-    var identifier = (String) context.read("$['dcterms:identifier']");
-    annotationTargetsObject(annotation, identifier);
-    pathIsValid(context, annotation);
-    doesNotAnnotateForbiddenFields(annotation);
-    annotationHasCorrectValueCount(annotation);
+    var checkedAnnotation = preapplicationChecks(tree, compiledAnnotation);
+    if (isUnchanged(compiledAnnotation, checkedAnnotation.targets())) {
+      return tree;
+    }
+    return applyAnnotationToTree(tree, compiledAnnotation, checkedAnnotation.targets());
   }
 
+  DigitalSpecimen bindTree(Object tree) throws InvalidAnnotationException {
+    return specimenBinder.bind(jsonPathConfig.jsonProvider().toJson(tree));
+  }
 
-  private <T> String getTargetAsString(T target) throws InvalidTargetException {
+  /**
+   * Applies a batch annotation to all specimens of the batch. The template annotation is checked
+   * and its body read once, after which it is applied to the specimens on the batch executor. The
+   * specimens are selected by the batch, so the target identifier of the template is replaced by
+   * the identifier of each specimen. Specimens without an identifier, or of another ods:fdoType
+   * than the template targets, are rejected.
+   *
+   * @param template annotation shared by all specimens of the batch
+   * @param batch    specimens to annotate, keyed by their ods:placeInBatch
+   * @return the outcome for each specimen, keyed by ods:placeInBatch
+   * @throws InvalidAnnotationException if the template annotation is invalid for any target
+   */
+  public SortedMap<Integer, BatchAnnotationResult> applyBatchAnnotation(
+      @Nonnull Annotation template, @Nonnull Map<Integer, DigitalSpecimen> batch)
+      throws InvalidAnnotationException {
+    return batchApplier.apply(template, batch, digitalSpecimen -> digitalSpecimen);
+  }
+
+  /**
+   * Applies a batch annotation to all specimens of the batch, with the template and specimens
+   * encoded in a binary format. Specimens that can not be decoded are rejected without a target
+   * identifier. The specimens in the results are not encoded, use
+   * {@link #writeSpecimen(DigitalSpecimen, BinaryFormat)} to encode them.
+   *
+   * @param template encoded annotation shared by all specimens of the batch
+   * @param batch    encoded specimens to annotate, keyed by their ods:placeInBatch
+   * @param format   binary format of the template and specimens
+   * @return the outcome for each specimen, keyed by ods:placeInBatch
+   * @throws InvalidAnnotationException if the template can not be decoded or is invalid for any
+   *                                    target
+   */
+  public SortedMap<Integer, BatchAnnotationResult> applyBatchAnnotation(@Nonnull byte[] template,
+      @Nonnull Map<Integer, byte[]> batch, @Nonnull BinaryFormat format)
+      throws InvalidAnnotationException {
+    return batchApplier.apply(codec.readAnnotation(format, template), batch,
+        digitalSpecimen -> codec.readSpecimen(format, digitalSpecimen));
+  }
+
+  private static AnnotationResult toResult(Annotated<DigitalSpecimen> annotated) {
+    return annotated.unchanged() ? AnnotationResult.unchanged(annotated.target())
+        : AnnotationResult.changed(annotated.target());
+  }
+
+  private <T> Annotated<T> applyAnnotation(String targetId, Annotation annotation,
+      PhaseStep<PreparedSpecimen> preparer, PhaseStep<CompiledAnnotation> compiler,
+      Binder<T> binder) throws InvalidAnnotationException, InvalidTargetException {
+    return inEvent(targetId, annotation,
+        event -> applyAnnotationToSpecimen(targetId, preparer, compiler, binder, event));
+  }
+
+  /*
+   * Applies an annotation, recorded as a JFR event when enabled
+   */
+  private static <T> Annotated<T> inEvent(String targetId, Annotation annotation,
+      AnnotationSteps<T> steps) throws InvalidAnnotationException, InvalidTargetException {
+    var event = new AnnotationEvent();
+    event.begin();
+    var outcome = "error";
     try {
-      return mapper.writeValueAsString(target);
-    } catch (JsonProcessingException e) {
-      throw new InvalidTargetException(e.getMessage());
+      var result = steps.run(event);
+      outcome = result.unchanged() ? "unchanged" : "applied";
+      return result;
+    } catch (InvalidAnnotationException | InvalidTargetException e) {
+      outcome = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      event.end(targetId, annotation, outcome);
+    }
+  }
+
+  private <T> Annotated<T> applyAnnotationToSpecimen(String targetId,
+      PhaseStep<PreparedSpecimen> preparer, PhaseStep<CompiledAnnotation> compiler,
+      Binder<T> binder, AnnotationEvent event)
+      throws InvalidAnnotationException, InvalidTargetException {
+    var preparedSpecimen = inPhase(AnnotationPhase.SERIALIZE, targetId, preparer);
+    event.setDocumentSize(preparedSpecimen.getDocumentSize());
+    if (preparedSpecimen.tree() == null) {
+      return applyAnnotationStreaming(preparedSpecimen, targetId, compiler, binder);
+    }
+    var checkedAnnotation = inPhase(AnnotationPhase.PREAPPLICATION_CHECKS, targetId,
+        () -> preapplicationChecks(preparedSpecimen.tree(), compiler.run()));
+    var annotatedTarget = inPhase(AnnotationPhase.MUTATION, targetId, () -> {
+      if (isUnchanged(checkedAnnotation.compiledAnnotation(), checkedAnnotation.targets())) {
+        return null;
+      }
+      return jsonPathConfig.jsonProvider().toJson(applyAnnotationToTree(preparedSpecimen.tree(),
+          checkedAnnotation.compiledAnnotation(), checkedAnnotation.targets()));
+    });
+    if (annotatedTarget == null) {
+      return new Annotated<>(binder.unchanged(preparedSpecimen), true);
+    }
+    inPhase(AnnotationPhase.SCHEMA_VALIDATION, targetId, () -> {
+      specimenIsValid(annotatedTarget,
+          findConsistencyRules(List.of(checkedAnnotation.compiledAnnotation())));
+      return null;
+    });
+    return new Annotated<>(
+        inPhase(AnnotationPhase.BINDING, targetId, () -> binder.bind(annotatedTarget)), false);
+  }
+
+  /*
+   * Streaming mode for large specimens. The target is never parsed into a tree, the change is
+   * applied while copying its tokens into a token buffer and only the changed element is validated
+   * against the schema. The result is bound from the buffered tokens, so it is never serialised
+   * and parsed again, and the strings of the buffer are shared with the bound result.
+   */
+  private <T> Annotated<T> applyAnnotationStreaming(PreparedSpecimen preparedSpecimen,
+      String targetId, PhaseStep<CompiledAnnotation> compiler, Binder<T> binder)
+      throws InvalidAnnotationException, InvalidTargetException {
+    var compiledAnnotation = inPhase(AnnotationPhase.PREAPPLICATION_CHECKS, targetId, compiler);
+    // The buffer holds no resources, so it is not closed
+    var buffer = new TokenBuffer(mapper, false);
+    var patchedTarget = patchTarget(targetId, compiledAnnotation,
+        () -> SpecimenCodec.readTree(mapper, buffer),
+        () -> streamingApplier.applyAnnotation(preparedSpecimen.serialised(), buffer,
+            compiledAnnotation.targetId(), compiledAnnotation.selectorPath(),
+            compiledAnnotation.motivation(), compiledAnnotation.newValue()));
+    if (!patchedTarget.changed()) {
+      return new Annotated<>(binder.unchanged(preparedSpecimen), true);
+    }
+    return new Annotated<>(
+        inPhase(AnnotationPhase.BINDING, targetId, () -> binder.bind(buffer)), false);
+  }
+
+  /*
+   * Streams a specimen from the input to the output. Nothing of the specimen is held, unless the
+   * annotation affects a consistency rule, which reads the whole specimen. The result is then
+   * buffered, and only written once the rules are checked.
+   */
+  private Annotated<Boolean> applyAnnotationToStream(InputStream digitalSpecimen,
+      OutputStream annotatedSpecimen, String targetId, PhaseStep<CompiledAnnotation> compiler)
+      throws InvalidAnnotationException, InvalidTargetException {
+    var compiledAnnotation = inPhase(AnnotationPhase.PREAPPLICATION_CHECKS, targetId, compiler);
+    var factory = mapper.getFactory();
+    PhaseStep<PatchedTarget> patcher;
+    try (var generator = factory.createGenerator(annotatedSpecimen)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      if (findConsistencyRules(List.of(compiledAnnotation)).isEmpty()) {
+        patcher = () -> streamingApplier.applyAnnotation(digitalSpecimen, factory, generator,
+            compiledAnnotation.targetId(), compiledAnnotation.selectorPath(),
+            compiledAnnotation.motivation(), compiledAnnotation.newValue());
+        var patchedTarget = patchTarget(targetId, compiledAnnotation, () -> null, patcher);
+        return new Annotated<>(patchedTarget.changed(), !patchedTarget.changed());
+      }
+      try (var buffer = new TokenBuffer(mapper, false)) {
+        patcher = () -> streamingApplier.applyAnnotation(digitalSpecimen, factory, buffer,
+            compiledAnnotation.targetId(), compiledAnnotation.selectorPath(),
+            compiledAnnotation.motivation(), compiledAnnotation.newValue());
+        var patchedTarget = patchTarget(targetId, compiledAnnotation,
+            () -> SpecimenCodec.readTree(mapper, buffer), patcher);
+        buffer.serialize(generator);
+        return new Annotated<>(patchedTarget.changed(), !patchedTarget.changed());
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Unable to write annotated target", e);
+      throw new InvalidTargetException("Unable to write annotated target");
+    }
+  }
+
+  /*
+   * Applies the change in one pass over the tokens of the target, and validates the changed element
+   * if the target changed. Consistency rules read the whole specimen, so it is only read into a
+   * tree when the annotation affects one.
+   */
+  private PatchedTarget patchTarget(String targetId, CompiledAnnotation compiledAnnotation,
+      PhaseStep<JsonNode> annotatedTree, PhaseStep<PatchedTarget> patcher)
+      throws InvalidAnnotationException, InvalidTargetException {
+    var selectorPath = compiledAnnotation.selectorPath();
+    var patchedTarget = inPhase(AnnotationPhase.MUTATION, targetId, patcher);
+    if (!patchedTarget.changed()) {
+      return patchedTarget;
     }
+    inPhase(AnnotationPhase.SCHEMA_VALIDATION, targetId, () -> {
+      jsonSchemaValidator.mutationIsValid(selectorPath, compiledAnnotation.newValue(),
+          patchedTarget.declaredSchema());
+      var rules = consistencyRules.findRules(List.of(selectorPath));
+      if (!rules.isEmpty()) {
+        jsonSchemaValidator.specimenTreeIsConsistent(annotatedTree.run(), rules);
+      }
+      return null;
+    });
+    return patchedTarget;
   }
 
-  private static void doesNotAnnotateForbiddenFields(Annotation annotation)
+  /*
+   * Binary specimens are decoded straight into the working tree and the annotated tree is encoded
+   * again in the same format. The tree is validated as a Jackson tree, so the specimen is never
+   * bound or serialised as JSON text.
+   */
+  private Annotated<byte[]> applyAnnotationToBinary(byte[] digitalSpecimen,
+      BinaryFormat format, String targetId, PhaseStep<CompiledAnnotation> compiler,
+      AnnotationEvent event) throws InvalidAnnotationException, InvalidTargetException {
+    event.setDocumentSize(digitalSpecimen.length);
+    if (digitalSpecimen.length >= streamingThreshold) {
+      return applyAnnotationToBinaryStreaming(digitalSpecimen, codec.binaryMapper(format),
+          targetId, compiler);
+    }
+    var tree = inPhase(AnnotationPhase.SERIALIZE, targetId,
+        () -> codec.decodeTree(format, digitalSpecimen));
+    var checkedAnnotation = inPhase(AnnotationPhase.PREAPPLICATION_CHECKS, targetId,
+        () -> preapplicationChecks(tree, compiler.run()));
+    var compiledAnnotation = checkedAnnotation.compiledAnnotation();
+    var annotatedTree = inPhase(AnnotationPhase.MUTATION, targetId,
+        () -> isUnchanged(compiledAnnotation, checkedAnnotation.targets()) ? null
+            : applyAnnotationToTree(tree, compiledAnnotation, checkedAnnotation.targets()));
+    if (annotatedTree == null) {
+      return new Annotated<>(digitalSpecimen, true);
+    }
+    inPhase(AnnotationPhase.SCHEMA_VALIDATION, targetId, () -> {
+      jsonSchemaValidator.specimenTreeIsValid(mapper.valueToTree(annotatedTree),
+          findConsistencyRules(List.of(compiledAnnotation)));
+      return null;
+    });
+    return new Annotated<>(inPhase(AnnotationPhase.BINDING, targetId,
+        () -> codec.encodeTree(format, annotatedTree)), false);
+  }
+
+  /*
+   * Streaming mode for large binary specimens, which are returned as an array. The result is
+   * written to an output buffer and copied once into the returned array, use
+   * applyAnnotation(InputStream, Annotation, OutputStream) to avoid holding it.
+   */
+  private Annotated<byte[]> applyAnnotationToBinaryStreaming(byte[] digitalSpecimen,
+      ObjectMapper binaryMapper, String targetId, PhaseStep<CompiledAnnotation> compiler)
+      throws InvalidAnnotationException, InvalidTargetException {
+    var compiledAnnotation = inPhase(AnnotationPhase.PREAPPLICATION_CHECKS, targetId, compiler);
+    var factory = binaryMapper.getFactory();
+    var output = new ByteArrayOutputStream(digitalSpecimen.length + 1024);
+    PatchedTarget patchedTarget;
+    try (var generator = factory.createGenerator(output)) {
+      patchedTarget = patchTarget(targetId, compiledAnnotation,
+          () -> SpecimenCodec.readTree(binaryMapper, output.toByteArray()),
+          () -> streamingApplier.applyAnnotation(digitalSpecimen, factory, generator,
+              compiledAnnotation.targetId(), compiledAnnotation.selectorPath(),
+              compiledAnnotation.motivation(), compiledAnnotation.newValue()));
+    } catch (IOException e) {
+      LOGGER.warn("Unable to encode annotated target", e);
+      throw new InvalidAnnotationException("Unable to encode annotated target");
+    }
+    return patchedTarget.changed() ? new Annotated<>(output.toByteArray(), false)
+        : new Annotated<>(digitalSpecimen, true);
+  }
+
+  /*
+   * Validates an annotated specimen against the schema, and checks the consistency rules on the
+   * same parsed document if there are any
+   */
+  private void specimenIsValid(String annotatedTarget, List<ConsistencyRule> rules)
       throws InvalidAnnotationException {
-    var selector = getSelector(annotation);
-    var lastKey = getLastKey(getTargetPath(annotation));
-    if (SelectorType.CLASS_SELECTOR.equals(selector) && ValidationUtils.FORBIDDEN_CLASSES.contains(
-        lastKey)) {
-      throw new InvalidAnnotationException(
-          "Annotation is attempting to annotate class" + lastKey + ", which is forbidden");
-    } else if (SelectorType.TERM_SELECTOR.equals(selector)
-        && ValidationUtils.FORBIDDEN_FIELDS.contains(lastKey)) {
-      throw new InvalidAnnotationException(
-          "Annotation is attempting to annotate term " + lastKey + ", which is forbidden");
+    if (rules.isEmpty()) {
+      jsonSchemaValidator.specimenIsValid(annotatedTarget);
+    } else {
+      jsonSchemaValidator.specimenIsValid(annotatedTarget, rules);
+    }
+  }
+
+  List<ConsistencyRule> findConsistencyRules(List<CompiledAnnotation> compiledAnnotations) {
+    return consistencyRules.findRules(compiledAnnotations.stream()
+        .map(CompiledAnnotation::selectorPath)
+        .toList());
+  }
+
+  private record Annotated<T>(T target, boolean unchanged) {
+
+  }
+
+  /*
+   * Turns the annotated document into the type returned to the caller
+   */
+  private interface Binder<T> {
+
+    T unchanged(PreparedSpecimen preparedSpecimen);
+
+    T bind(String annotatedTarget) throws InvalidAnnotationException;
+
+    T bind(TokenBuffer annotatedTarget) throws InvalidAnnotationException;
+  }
+
+  private final class SpecimenBinder implements Binder<DigitalSpecimen> {
+
+    @Override
+    public DigitalSpecimen unchanged(PreparedSpecimen preparedSpecimen) {
+      return preparedSpecimen.digitalSpecimen();
+    }
+
+    @Override
+    public DigitalSpecimen bind(String annotatedTarget) throws InvalidAnnotationException {
+      return codec.bind(annotatedTarget);
+    }
+
+    @Override
+    public DigitalSpecimen bind(TokenBuffer annotatedTarget) throws InvalidAnnotationException {
+      return codec.bind(annotatedTarget);
+    }
+  }
+
+  /*
+   * Returns the annotated document as UTF-8 encoded JSON, and the input itself if it is unchanged
+   */
+  private record JsonBinder(byte[] input) implements Binder<byte[]> {
+
+    @Override
+    public byte[] unchanged(PreparedSpecimen preparedSpecimen) {
+      return input;
+    }
+
+    @Override
+    public byte[] bind(String annotatedTarget) {
+      return annotatedTarget.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] bind(TokenBuffer annotatedTarget) throws InvalidAnnotationException {
+      return SpecimenCodec.writeBytes(annotatedTarget);
+    }
+  }
+
+  /*
+   * Runs a single phase of applying an annotation, recorded as a JFR event when enabled
+   */
+  private static <T> T inPhase(AnnotationPhase phase, String targetId, PhaseStep<T> step)
+      throws InvalidAnnotationException, InvalidTargetException {
+    var event = new AnnotationPhaseEvent(phase);
+    event.begin();
+    try {
+      return step.run();
+    } finally {
+      event.end(targetId);
+    }
+  }
+
+  @FunctionalInterface
+  private interface PhaseStep<T> {
+
+    T run() throws InvalidAnnotationException, InvalidTargetException;
+  }
+
+  @FunctionalInterface
+  private interface AnnotationSteps<T> {
+
+    Annotated<T> run(AnnotationEvent event)
+        throws InvalidAnnotationException, InvalidTargetException;
+  }
+
+  /*
+   * Runs all checks that only depend on the annotation and reads its body
+   */
+  CompiledAnnotation compile(Annotation annotation) throws InvalidAnnotationException {
+    if (SelectorType.FRAGMENT_SELECTOR.equals(getSelector(annotation))) {
+      throw new InvalidAnnotationException("Fragment selectors can only target digital media");
     }
+    var path = getTargetPath(annotation);
+    pathHasValidFormat(annotation, path);
+    motivationIsSupported(annotation);
+    var selectorPath = SelectorPath.parse(path);
+    var selectorType = getSelector(annotation);
+    protectionPolicy.check(annotation, selectorPath, selectorType);
+    annotationHasCorrectValueCount(annotation);
+    var newValue = getNewValue(annotation, path);
+    return new CompiledAnnotation(annotation, annotation.getOaHasTarget().getDctermsIdentifier(),
+        path, selectorPath, selectorType, newValue);
   }
 
-  private static void annotationTargetsObject(Annotation annotation, String targetId)
+  private JsonNode getNewValue(Annotation annotation, String path)
       throws InvalidAnnotationException {
-    if (!Objects.equals(targetId, annotation.getOaHasTarget().getDctermsIdentifier())) {
+    if (OaMotivation.ODS_DELETING.equals(annotation.getOaMotivation())) {
+      return null;
+    }
+    if (SelectorType.TERM_SELECTOR.equals(getSelector(annotation))) {
+      return TextNode.valueOf(annotation.getOaHasBody().getOaValue().getFirst());
+    }
+    return mapper.valueToTree(readClassValue(annotation, path));
+  }
+
+  /**
+   * Applies a fragment selector annotation to a digital media object. These annotations describe a
+   * region of the media and do not change the media itself. The region is checked against the
+   * dimensions recorded in the media's metadata, the media content is never loaded.
+   *
+   * @throws UnsupportedOperationException if the annotation does not use a fragment selector
+   */
+  @Override
+  public DigitalMedia applyAnnotation(@Nonnull DigitalMedia digitalMedia,
+      @Nonnull Annotation annotation)
+      throws InvalidAnnotationException, InvalidTargetException {
+    if (!SelectorType.FRAGMENT_SELECTOR.equals(getSelector(annotation))) {
+      throw new UnsupportedOperationException(
+          "Media validation is only supported for fragment selectors");
+    }
+    var event = new AnnotationEvent();
+    event.begin();
+    var targetId = digitalMedia.getDctermsIdentifier();
+    var outcome = "error";
+    try {
+      inPhase(AnnotationPhase.PREAPPLICATION_CHECKS, targetId, () -> {
+        FragmentSelectorValidator.fragmentSelectorIsValid(digitalMedia, annotation);
+        return null;
+      });
+      outcome = "applied";
+      return digitalMedia;
+    } catch (InvalidAnnotationException | InvalidTargetException e) {
+      outcome = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      event.end(targetId, annotation, outcome);
+    }
+  }
+
+  /*
+   * Resolves the targets the annotation applies to. This is the target of the selector path, or
+   * every target matching it when the selector contains wildcards.
+   */
+  private CheckedAnnotation preapplicationChecks(Object tree,
+      CompiledAnnotation compiledAnnotation) throws InvalidAnnotationException {
+    var identifier = jsonPathConfig.jsonProvider().getMapValue(tree, "dcterms:identifier")
+        instanceof String id ? id : null;
+    annotationTargetsObject(compiledAnnotation, identifier);
+    var targets = pathResolver.resolve(tree, compiledAnnotation.selectorPath());
+    pathIsValid(compiledAnnotation.motivation(), targets);
+    return new CheckedAnnotation(compiledAnnotation, targets);
+  }
+
+  private record CheckedAnnotation(CompiledAnnotation compiledAnnotation,
+                                   List<TargetHandle> targets) {
+
+  }
+
+  private static void targetVersionIsCurrent(Integer targetVersion, int annotatedVersion)
+      throws StaleTargetException {
+    if (targetVersion == null || targetVersion != annotatedVersion) {
+      throw new StaleTargetException(annotatedVersion, targetVersion);
+    }
+  }
+
+  private static void annotationTargetsObject(CompiledAnnotation compiledAnnotation,
+      String targetId) throws InvalidAnnotationException {
+    if (!Objects.equals(targetId, compiledAnnotation.targetId())) {
       throw new InvalidAnnotationException("Annotation does not target provided target");
     }
   }
 
-  private static void pathIsValid(DocumentContext context, Annotation annotation)
+  private static void pathHasValidFormat(Annotation annotation, String path)
       throws InvalidAnnotationException {
-    var path = getTargetPath(annotation);
     if (!BLOCK_NOTATION_PATTERN.matcher(path).find()) {
       throw new InvalidAnnotationException("Selector path is not in valid JSON path format");
     }
-    if ((OaMotivation.OA_EDITING.equals(annotation.getOaMotivation())
-        || OaMotivation.ODS_DELETING.equals(annotation.getOaMotivation()))) {
-      if (!pathExists(context, path)) {
+    if (OaMotivation.ODS_ADDING.equals(annotation.getOaMotivation()) && path.endsWith(WILDCARD)) {
+      throw new InvalidAnnotationException(
+          "Invalid path. The selector path of an ods:adding annotation can not end in a wildcard");
+    }
+  }
+
+  private static void pathIsValid(OaMotivation motivation, List<TargetHandle> targets)
+      throws InvalidAnnotationException {
+    if (targets.isEmpty()) {
+      throw new InvalidAnnotationException(
+          "Invalid path. Wildcard selector does not match any element in the target");
+    }
+    for (var target : targets) {
+      if (OaMotivation.ODS_ADDING.equals(motivation)) {
+        if (target.exists() || !target.parentExists()) {
+          throw new InvalidAnnotationException(
+              "Invalid path. Target path must NOT exist for ods:adding annotation, but parent path must exist. Use a class selector instead.");
+        }
+      } else if (!target.exists()) {
         throw new InvalidAnnotationException(
             "Invalid path. Target path must exist for ods:editing annotation");
       }
-    } else if (OaMotivation.ODS_ADDING.equals(annotation.getOaMotivation())) {
-      var parentPath = getParentPath(path);
-      if (pathExists(context, path) || !pathExists(context, parentPath)) {
-        throw new InvalidAnnotationException(
-            "Invalid path. Target path must NOT exist for ods:adding annotation, but parent path must exist. Use a class selector instead.");
-      }
-    } else {
+    }
+  }
+
+  private static void motivationIsSupported(Annotation annotation)
+      throws InvalidAnnotationMotivationException {
+    if (!OaMotivation.OA_EDITING.equals(annotation.getOaMotivation())
+        && !OaMotivation.ODS_DELETING.equals(annotation.getOaMotivation())
+        && !OaMotivation.ODS_ADDING.equals(annotation.getOaMotivation())) {
       throw new InvalidAnnotationMotivationException(
           "Invalid motivation: " + annotation.getOaMotivation().toString());
     }
@@ -154,22 +1013,12 @@ public class AnnotationValidator implements AnnotationValidatorInterface {
     }
   }
 
-  private static boolean pathExists(DocumentContext context, String path) {
-    return context.read(path) != null;
-  }
-
   private static SelectorType getSelector(Annotation annotation) {
     var selectorString = annotation.getOaHasTarget().getOaHasSelector().getAdditionalProperties()
         .get("@type").toString();
     return SelectorType.fromString(selectorString);
   }
 
-  private static String getParentPath(String path) {
-    return path
-        .replaceAll(LAST_INDEX_PATTERN.pattern(), "")
-        .replaceAll(LAST_KEY_PATTERN.pattern(), "");
-  }
-
   private static String getLastKey(String jsonPath) {
     var lastKeyMatcher = LAST_KEY_PATTERN.matcher(jsonPath);
     lastKeyMatcher.find();
@@ -181,74 +1030,237 @@ public class AnnotationValidator implements AnnotationValidatorInterface {
   }
 
 
-  private String applyAnnotationToContext(DocumentContext context, Annotation annotation)
-      throws InvalidAnnotationException {
-    var selectorType = getSelector(annotation);
-    if (SelectorType.TERM_SELECTOR.equals(selectorType)) {
-      return applyTermAnnotation(context, annotation);
-    } else {
-      return applyClassAnnotation(context, annotation);
+  /*
+   * Copies the containers along the path to each target, so the annotation can change them without
+   * changing the prepared tree. All other elements are shared with the prepared tree. The copies
+   * are made from the containers held by the target handles, the tree is not walked again.
+   * Returns the root of the annotated tree.
+   */
+  private Object applyAnnotationToTree(Object tree, CompiledAnnotation compiledAnnotation,
+      List<TargetHandle> targets) {
+    if (tree instanceof PersistentJsonObject) {
+      return applyAnnotationToPersistentTree(tree, compiledAnnotation, targets);
+    }
+    var provider = jsonPathConfig.jsonProvider();
+    var copies = new IdentityHashMap<Object, Object>();
+    var root = shallowCopy(provider, tree, copies);
+    var parents = targets.stream()
+        .map(target -> copyParents(provider, root, target, copies))
+        .toList();
+    if (OaMotivation.ODS_DELETING.equals(compiledAnnotation.motivation())) {
+      // Delete from the back, so removing an array element does not shift the remaining targets
+      for (int i = targets.size() - 1; i >= 0; i--) {
+        var last = targets.get(i).last();
+        provider.removeProperty(parents.get(i), last.isIndex() ? last.index() : last.key());
+      }
+      return root;
+    }
+    var isTerm = SelectorType.TERM_SELECTOR.equals(compiledAnnotation.selectorType());
+    for (int i = 0; i < targets.size(); i++) {
+      var parent = parents.get(i);
+      var last = targets.get(i).last();
+      // Each target gets its own copy of the class, so later changes to one do not affect others
+      Object newValue = isTerm ? compiledAnnotation.newValue().textValue()
+          : mapper.convertValue(compiledAnnotation.newValue(), Map.class);
+      if (!last.isIndex()) {
+        provider.setProperty(parent, last.key(), newValue);
+      } else if (OaMotivation.ODS_ADDING.equals(compiledAnnotation.motivation())) {
+        // Added elements are appended to the end of the array
+        provider.setArrayIndex(parent, provider.length(parent), newValue);
+      } else {
+        provider.setArrayIndex(parent, last.index(), newValue);
+      }
     }
+    return root;
   }
 
-  private String applyTermAnnotation(DocumentContext context, Annotation annotation) {
-    var path = getTargetPath(annotation);
-    if (annotation.getOaMotivation().equals(OaMotivation.ODS_DELETING)) {
-      context.delete(path);
+  /*
+   * Persistent trees are changed by copying the path from the root to each target, the handles are
+   * only used for their resolved segments
+   */
+  private Object applyAnnotationToPersistentTree(Object tree,
+      CompiledAnnotation compiledAnnotation, List<TargetHandle> targets) {
+    var root = tree;
+    if (OaMotivation.ODS_DELETING.equals(compiledAnnotation.motivation())) {
+      // Delete from the back, so removing an array element does not shift the remaining targets
+      for (var target : targets.reversed()) {
+        root = PersistentJson.updateIn(root, target.segments(), 0,
+            (parent, last) -> last.isIndex()
+                ? ((PersistentJsonArray) parent).without(last.index())
+                : ((PersistentJsonObject) parent).without(last.key()));
+      }
+      return root;
+    }
+    Object newValue;
+    if (SelectorType.TERM_SELECTOR.equals(compiledAnnotation.selectorType())) {
+      newValue = compiledAnnotation.newValue().textValue();
     } else {
-      var parentPath = getParentPath(path);
-      var lastKey = getLastKey(path);
-      context.put(parentPath, lastKey, annotation.getOaHasBody().getOaValue().getFirst());
+      try (var parser = mapper.treeAsTokens(compiledAnnotation.newValue())) {
+        newValue = PersistentJson.read(parser);
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to read annotation value", e);
+      }
     }
-    return context.jsonString();
+    var adding = OaMotivation.ODS_ADDING.equals(compiledAnnotation.motivation());
+    // Persistent values are immutable, so all targets share the same value
+    for (var target : targets) {
+      root = PersistentJson.updateIn(root, target.segments(), 0, (parent, last) -> {
+        if (!last.isIndex()) {
+          return ((PersistentJsonObject) parent).with(last.key(), newValue);
+        }
+        var array = (PersistentJsonArray) parent;
+        // Added elements are appended to the end of the array
+        return adding ? array.append(newValue) : array.with(last.index(), newValue);
+      });
+    }
+    return root;
   }
 
-  private String applyClassAnnotation(DocumentContext context, Annotation annotation)
-      throws InvalidAnnotationException {
-    var path = getTargetPath(annotation);
-    if (annotation.getOaMotivation().equals(OaMotivation.ODS_DELETING)) {
-      context.delete(path);
-    } else {
-      var targetClass = getLastKey(path);
-      var clazz = CLASS_MAP.get(targetClass);
-      if (clazz == null) {
-        LOGGER.warn("Unrecognized class: {}", targetClass);
-        throw new InvalidAnnotationException("Unrecognized class: " + path);
+  private static Object copyParents(JsonProvider provider, Object root, TargetHandle target,
+      Map<Object, Object> copies) {
+    var container = root;
+    for (int i = 1; i < target.containers().size(); i++) {
+      var original = target.containers().get(i);
+      var copy = copies.get(original);
+      if (copy == null) {
+        copy = shallowCopy(provider, original, copies);
+        var segment = target.segments().get(i - 1);
+        if (segment.isIndex()) {
+          provider.setArrayIndex(container, segment.index(), copy);
+        } else {
+          provider.setProperty(container, segment.key(), copy);
+        }
       }
-      Map<String, Object> newObjectHashMap;
-      try {
-        // Checks if the value of the annotation correctly maps to its intended class
-        var newObject = mapper.readValue(annotation.getOaHasBody().getOaValue().getFirst(), clazz);
-        newObjectHashMap = mapper.convertValue(newObject, Map.class);
-      } catch (JsonProcessingException e) {
-        LOGGER.error("Unable to read value {} as target class {}",
-            annotation.getOaHasBody().getOaValue().getFirst(), targetClass, e);
-        throw new InvalidAnnotationBodyException(
-            "Unable to read value " + annotation.getOaHasBody().getOaValue().getFirst()
-                + " as class " + targetClass);
+      container = copy;
+    }
+    return container;
+  }
+
+  private static Object shallowCopy(JsonProvider provider, Object container,
+      Map<Object, Object> copies) {
+    Object copy;
+    if (provider.isArray(container)) {
+      copy = provider.createArray();
+      for (int i = 0; i < provider.length(container); i++) {
+        provider.setArrayIndex(copy, i, provider.getArrayIndex(container, i));
       }
-      if (OaMotivation.ODS_ADDING.equals(annotation.getOaMotivation())) {
-        applyClassAnnotationAdd(context, path, newObjectHashMap);
-      } else if (OaMotivation.OA_EDITING.equals(annotation.getOaMotivation())) {
-        context.set(path, newObjectHashMap);
+    } else {
+      copy = provider.createMap();
+      for (var key : provider.getPropertyKeys(container)) {
+        provider.setProperty(copy, key, provider.getMapValue(container, key));
       }
     }
-    return context.jsonString();
+    copies.put(container, copy);
+    return copy;
   }
 
-  private void applyClassAnnotationAdd(DocumentContext context, String path,
-      Map<String, Object> newClassValue) {
-    // If we're appending a class to the end of an array
-    if (LAST_INDEX_PATTERN.matcher(path).find()) {
-      var arrPath = path.replaceAll(LAST_INDEX_PATTERN.pattern(), ""); // remove trailing index
-      var arr = context.read(arrPath);
-      var arrayContext = using(jsonPathConfig).parse(arr);
-      arrayContext.add("$", newClassValue);
-      context.set(arrPath, arrayContext.json());
-    } else {
-      var newField = getLastKey(path);
-      var parentPath = getParentPath(path);
-      context.put(parentPath, newField, newClassValue);
+  /*
+   * An annotation is a no-op if it edits every target to the value it already has, or adds a class
+   * to arrays that already hold an identical element
+   */
+  private boolean isUnchanged(CompiledAnnotation compiledAnnotation, List<TargetHandle> targets) {
+    var isTerm = SelectorType.TERM_SELECTOR.equals(compiledAnnotation.selectorType());
+    if (OaMotivation.OA_EDITING.equals(compiledAnnotation.motivation())) {
+      Object newValue = isTerm ? compiledAnnotation.newValue().textValue()
+          : mapper.convertValue(compiledAnnotation.newValue(), Map.class);
+      return targets.stream().allMatch(target -> Objects.equals(target.value(), newValue));
+    }
+    if (OaMotivation.ODS_ADDING.equals(compiledAnnotation.motivation()) && !isTerm) {
+      var newValue = mapper.convertValue(compiledAnnotation.newValue(), Map.class);
+      return targets.stream().allMatch(target -> target.last().isIndex()
+          && target.parent() instanceof List<?> elements && elements.contains(newValue));
+    }
+    return false;
+  }
+
+  private Object readClassValue(Annotation annotation, String path)
+      throws InvalidAnnotationException {
+    var targetClass = getLastKey(path);
+    var clazz = CLASS_MAP.get(targetClass);
+    if (clazz == null) {
+      LOGGER.warn("Unrecognized class: {}", targetClass);
+      throw new InvalidAnnotationException("Unrecognized class: " + path);
+    }
+    try {
+      // Checks if the value of the annotation correctly maps to its intended class
+      return mapper.readValue(annotation.getOaHasBody().getOaValue().getFirst(), clazz);
+    } catch (JsonProcessingException e) {
+      LOGGER.error("Unable to read value {} as target class {}",
+          annotation.getOaHasBody().getOaValue().getFirst(), targetClass, e);
+      throw new InvalidAnnotationBodyException(
+          "Unable to read value " + annotation.getOaHasBody().getOaValue().getFirst()
+              + " as class " + targetClass);
+    }
+  }
+
+  /**
+   * Settings of an {@link AnnotationValidator}, see
+   * {@link AnnotationValidator#builder(ObjectMapper, Configuration, JsonSchemaValidator)}
+   */
+  public static final class Builder {
+
+    private final ObjectMapper mapper;
+    private final Configuration jsonPathConfig;
+    private final JsonSchemaValidator jsonSchemaValidator;
+    private long streamingThreshold = Long.MAX_VALUE;
+    private ProtectionPolicy protectionPolicy = ProtectionPolicy.defaults();
+    private SpecimenCache specimenCache;
+    private ConsistencyRules consistencyRules = ConsistencyRules.none();
+    private Executor batchExecutor = Runnable::run;
+
+    private Builder(ObjectMapper mapper, Configuration jsonPathConfig,
+        JsonSchemaValidator jsonSchemaValidator) {
+      this.mapper = Objects.requireNonNull(mapper);
+      this.jsonPathConfig = Objects.requireNonNull(jsonPathConfig);
+      this.jsonSchemaValidator = Objects.requireNonNull(jsonSchemaValidator);
+    }
+
+    /**
+     * @param streamingThreshold size of the serialised specimen, in characters, from which
+     *                           annotations are applied in streaming mode
+     */
+    public Builder streamingThreshold(long streamingThreshold) {
+      this.streamingThreshold = streamingThreshold;
+      return this;
+    }
+
+    /**
+     * @param protectionPolicy rules protecting parts of the specimen from annotations
+     */
+    public Builder protectionPolicy(@Nonnull ProtectionPolicy protectionPolicy) {
+      this.protectionPolicy = Objects.requireNonNull(protectionPolicy);
+      return this;
+    }
+
+    /**
+     * @param specimenCache cache of prepared specimens by identifier, version and content, null to
+     *                      prepare every specimen again
+     */
+    public Builder specimenCache(SpecimenCache specimenCache) {
+      this.specimenCache = specimenCache;
+      return this;
+    }
+
+    /**
+     * @param consistencyRules rules checked on annotated specimens, for the annotations that change
+     *                         a path they read
+     */
+    public Builder consistencyRules(@Nonnull ConsistencyRules consistencyRules) {
+      this.consistencyRules = Objects.requireNonNull(consistencyRules);
+      return this;
+    }
+
+    /**
+     * @param batchExecutor executor the specimens of a batch annotation are annotated on, for
+     *                      example a pool sized for the batch workload
+     */
+    public Builder batchExecutor(@Nonnull Executor batchExecutor) {
+      this.batchExecutor = Objects.requireNonNull(batchExecutor);
+      return this;
+    }
+
+    public AnnotationValidator build() {
+      return new AnnotationValidator(this);
     }
   }
 
@@ -22,7 +22,8 @@ public interface AnnotationValidatorInterface {
       throws InvalidAnnotationException, InvalidTargetException;
 
   /**
-   * Applies single annotation to a target digital specimen
+   * Applies single annotation to a target digital media. Only fragment selector annotations are
+   * supported, which are checked against the media's recorded dimensions.
    *
    * @param target     Digital Media being annotated
    * @param annotation annotation to apply
@@ -0,0 +1,103 @@
+package io.github.dissco.annotationlogic.validator;
+
+import io.github.dissco.annotationlogic.domain.BatchAnnotationResult;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.exception.InvalidTargetException;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Fans a batch annotation out to the specimens of its batch for the {@link AnnotationValidator}.
+ * The template is compiled once, after which it is applied to the specimens on the batch executor,
+ * each through the same steps as a single annotation.
+ * <p>
+ * The specimens of a batch are selected by the batch, not by the oa:hasTarget of the template,
+ * which only names the specimen the template was made on. The target identifier of the template is
+ * therefore replaced by the identifier of each specimen, and the target is checked against the
+ * batch instead: every specimen must have an identifier, and must be of the ods:fdoType the
+ * template targets.
+ */
+final class BatchAnnotationApplier {
+
+  private final AnnotationValidator annotationValidator;
+  private final Executor executor;
+
+  BatchAnnotationApplier(AnnotationValidator annotationValidator, Executor executor) {
+    this.annotationValidator = annotationValidator;
+    this.executor = executor;
+  }
+
+  /**
+   * @param template annotation shared by all specimens of the batch
+   * @param batch    specimens to annotate, keyed by their ods:placeInBatch
+   * @param reader   reads a specimen of the batch, a specimen that can not be read is rejected
+   *                 without a target identifier
+   * @return the outcome for each specimen, keyed by ods:placeInBatch
+   * @throws InvalidAnnotationException if the template annotation is invalid for any target
+   */
+  <T> SortedMap<Integer, BatchAnnotationResult> apply(Annotation template, Map<Integer, T> batch,
+      SpecimenReader<T> reader) throws InvalidAnnotationException {
+    if (template.getOdsBatchID() == null) {
+      throw new InvalidAnnotationException("Batch annotation must have an ods:batchID");
+    }
+    var compiledAnnotation = annotationValidator.compile(template);
+    var pending = new TreeMap<Integer, CompletableFuture<BatchAnnotationResult>>();
+    batch.forEach((placeInBatch, specimen) -> pending.put(placeInBatch,
+        CompletableFuture.supplyAsync(() -> apply(specimen, reader, compiledAnnotation),
+            executor)));
+    var results = new TreeMap<Integer, BatchAnnotationResult>();
+    try {
+      pending.forEach((placeInBatch, result) -> results.put(placeInBatch, result.join()));
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+    return results;
+  }
+
+  private <T> BatchAnnotationResult apply(T specimen, SpecimenReader<T> reader,
+      CompiledAnnotation compiledAnnotation) {
+    DigitalSpecimen digitalSpecimen;
+    try {
+      digitalSpecimen = reader.read(specimen);
+    } catch (InvalidTargetException e) {
+      return BatchAnnotationResult.rejected(null, e);
+    }
+    var targetId = digitalSpecimen.getDctermsIdentifier();
+    try {
+      specimenIsInBatch(compiledAnnotation, digitalSpecimen);
+      return BatchAnnotationResult.applied(targetId, annotationValidator.applyCompiledAnnotation(
+          digitalSpecimen, compiledAnnotation.forTarget(targetId)));
+    } catch (InvalidAnnotationException | InvalidTargetException e) {
+      return BatchAnnotationResult.rejected(targetId, e);
+    }
+  }
+
+  private static void specimenIsInBatch(CompiledAnnotation compiledAnnotation,
+      DigitalSpecimen digitalSpecimen) throws InvalidAnnotationException, InvalidTargetException {
+    if (digitalSpecimen.getDctermsIdentifier() == null) {
+      throw new InvalidTargetException("Specimen in a batch must have a dcterms:identifier");
+    }
+    var targetType = compiledAnnotation.annotation().getOaHasTarget().getOdsFdoType();
+    if (targetType != null && !Objects.equals(targetType, digitalSpecimen.getOdsFdoType())) {
+      throw new InvalidAnnotationException(
+          "Batch annotation does not target the ods:fdoType of the specimen");
+    }
+  }
+
+  @FunctionalInterface
+  interface SpecimenReader<T> {
+
+    DigitalSpecimen read(T specimen) throws InvalidTargetException;
+  }
+
+}
@@ -0,0 +1,241 @@
+package io.github.dissco.annotationlogic.validator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dissco.annotationlogic.utils.DateUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deterministic serialisation of specimens, annotations and other JSON, so equal documents are
+ * written to identical bytes. The canonical form has:
+ * <ul>
+ *   <li>object keys sorted by their UTF-16 code units, and no whitespace</li>
+ *   <li>numbers without trailing zeros or exponents, so {@code 1.50} and {@code 1.5E0} are both
+ *   written as {@code 1.5}, and {@code 2.0} as {@code 2}</li>
+ *   <li>values of date-time properties written in UTC with {@link DateUtils#FORMATTER}, as the
+ *   library's mapper writes them, e.g. {@code 2022-11-01T09:59:24.000Z}. Precision beyond
+ *   milliseconds is dropped, as the mapper drops it.</li>
+ * </ul>
+ * Only properties of a date-time type in the class of the document, such as
+ * {@code dcterms:created}, are treated as timestamps. Other strings are written as they are, even
+ * when they look like a timestamp, and JSON written without a class has no timestamps. The
+ * document is read into a JSON tree before it is written, because the keys of the root object can
+ * only be sorted once all of them are read. The canonical bytes are streamed into the output or
+ * the digest from that tree.
+ */
+public class CanonicalJson {
+
+  private static final JsonFactory FACTORY = JsonFactory.builder()
+      .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+      .build();
+  private final ObjectMapper mapper;
+  private final Map<Class<?>, Map<String, JavaType>> properties = new ConcurrentHashMap<>();
+
+  public CanonicalJson(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  /**
+   * @param value object to serialise, for example a DigitalSpecimen or Annotation
+   * @return the UTF-8 encoded canonical JSON of the object
+   * @throws IllegalArgumentException if the object can not be serialised
+   */
+  public byte[] write(Object value) {
+    var output = new ByteArrayOutputStream();
+    write(value, output);
+    return output.toByteArray();
+  }
+
+  /**
+   * @param json UTF-8 encoded JSON, of which no strings are treated as timestamps
+   * @return the UTF-8 encoded canonical form of the JSON
+   * @throws IllegalArgumentException if the bytes are not JSON
+   */
+  public byte[] write(byte[] json) {
+    return write(json, (Class<?>) null);
+  }
+
+  /**
+   * @param json UTF-8 encoded JSON
+   * @param type class the JSON is a serialisation of, for example DigitalSpecimen, which
+   *             determines the properties that are timestamps
+   * @return the UTF-8 encoded canonical form of the JSON
+   * @throws IllegalArgumentException if the bytes are not JSON
+   */
+  public byte[] write(byte[] json, Class<?> type) {
+    var output = new ByteArrayOutputStream();
+    writeTree(readTree(json), javaType(type), output);
+    return output.toByteArray();
+  }
+
+  /**
+   * Writes the canonical JSON of an object to a stream, the stream is not closed
+   *
+   * @throws IllegalArgumentException if the object can not be serialised
+   */
+  public void write(Object value, OutputStream output) {
+    writeTree(mapper.valueToTree(value), javaType(value.getClass()), output);
+  }
+
+  /**
+   * @param value object to hash, for example a DigitalSpecimen or Annotation
+   * @return hex encoded SHA-256 hash of the canonical JSON of the object
+   * @throws IllegalArgumentException if the object can not be serialised
+   */
+  public String hash(Object value) {
+    return hashTree(mapper.valueToTree(value), javaType(value.getClass()));
+  }
+
+  /**
+   * @param json UTF-8 encoded JSON, of which no strings are treated as timestamps
+   * @return hex encoded SHA-256 hash of the canonical form of the JSON
+   * @throws IllegalArgumentException if the bytes are not JSON
+   */
+  public String hash(byte[] json) {
+    return hash(json, (Class<?>) null);
+  }
+
+  /**
+   * @param json UTF-8 encoded JSON
+   * @param type class the JSON is a serialisation of, for example DigitalSpecimen, which
+   *             determines the properties that are timestamps
+   * @return hex encoded SHA-256 hash of the canonical form of the JSON
+   * @throws IllegalArgumentException if the bytes are not JSON
+   */
+  public String hash(byte[] json, Class<?> type) {
+    return hashTree(readTree(json), javaType(type));
+  }
+
+  private JavaType javaType(Class<?> type) {
+    return type == null ? null : mapper.constructType(type);
+  }
+
+  private JsonNode readTree(byte[] json) {
+    try {
+      return mapper.readTree(json);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Unable to read JSON", e);
+    }
+  }
+
+  private String hashTree(JsonNode tree, JavaType type) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      writeTree(tree, type, new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Unable to hash JSON", e);
+    }
+  }
+
+  private void writeTree(JsonNode tree, JavaType type, OutputStream output) {
+    try (var generator = FACTORY.createGenerator(output)) {
+      writeNode(tree, type, generator);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to write canonical JSON", e);
+    }
+  }
+
+  /*
+   * The type is the declared type of the node, or null if it is not known
+   */
+  private void writeNode(JsonNode node, JavaType type, JsonGenerator generator)
+      throws IOException {
+    switch (node.getNodeType()) {
+      case OBJECT -> {
+        var names = new ArrayList<String>(node.size());
+        node.fieldNames().forEachRemaining(names::add);
+        Collections.sort(names);
+        generator.writeStartObject();
+        for (var name : names) {
+          generator.writeFieldName(name);
+          writeNode(node.get(name), propertyType(type, name), generator);
+        }
+        generator.writeEndObject();
+      }
+      case ARRAY -> {
+        var elementType = type != null && type.isContainerType() ? type.getContentType() : null;
+        generator.writeStartArray();
+        for (var element : node) {
+          writeNode(element, elementType, generator);
+        }
+        generator.writeEndArray();
+      }
+      case STRING -> generator.writeString(
+          isDateTime(type) ? normaliseTimestamp(node.textValue()) : node.textValue());
+      case NUMBER -> generator.writeNumber(normaliseNumber(node));
+      case BOOLEAN -> generator.writeBoolean(node.booleanValue());
+      case NULL -> generator.writeNull();
+      default -> throw new IllegalArgumentException(
+          "Unable to write " + node.getNodeType() + " as canonical JSON");
+    }
+  }
+
+  private JavaType propertyType(JavaType type, String name) {
+    if (type == null) {
+      return null;
+    }
+    if (type.isMapLikeType()) {
+      return type.getContentType();
+    }
+    if (type.isContainerType() || type.isEnumType() || type.isJavaLangObject()
+        || type.getRawClass().getPackageName().startsWith("java")
+        || JsonNode.class.isAssignableFrom(type.getRawClass())) {
+      return null;
+    }
+    return properties.computeIfAbsent(type.getRawClass(), raw -> {
+      var description = mapper.getSerializationConfig().introspect(type);
+      var result = new HashMap<String, JavaType>();
+      description.findProperties()
+          .forEach(property -> result.put(property.getName(), property.getPrimaryType()));
+      return result;
+    }).get(name);
+  }
+
+  private static boolean isDateTime(JavaType type) {
+    return type != null && (Date.class.isAssignableFrom(type.getRawClass())
+        || Temporal.class.isAssignableFrom(type.getRawClass()));
+  }
+
+  private static String normaliseNumber(JsonNode node) {
+    if (node.isIntegralNumber()) {
+      return node.bigIntegerValue().toString();
+    }
+    var decimal = node.decimalValue().stripTrailingZeros();
+    return decimal.scale() <= 0 ? decimal.toBigIntegerExact().toString()
+        : decimal.toPlainString();
+  }
+
+  /*
+   * Date-time values with an offset are written as the instant they denote, values that do not
+   * parse are left as they are
+   */
+  private static String normaliseTimestamp(String value) {
+    try {
+      return DateUtils.FORMATTER.format(OffsetDateTime.parse(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+    } catch (DateTimeParseException e) {
+      return value;
+    }
+  }
+
+}
@@ -0,0 +1,34 @@
+package io.github.dissco.annotationlogic.validator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
+import io.github.dissco.annotationlogic.domain.SelectorType;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+
+/**
+ * An annotation that passed all checks that do not depend on its target, with its selector and
+ * body read. It can be applied to any number of targets without reading the annotation again.
+ *
+ * @param annotation   the annotation
+ * @param targetId     identifier of the target the annotation may be applied to
+ * @param path         selector path of the annotation
+ * @param selectorPath the parsed selector path
+ * @param selectorType type of the selector
+ * @param newValue     value to set at the path, bound to its class for class selectors, null for
+ *                     deleting annotations
+ */
+record CompiledAnnotation(Annotation annotation, String targetId, String path,
+                          SelectorPath selectorPath, SelectorType selectorType,
+                          JsonNode newValue) {
+
+  OaMotivation motivation() {
+    return annotation.getOaMotivation();
+  }
+
+  CompiledAnnotation forTarget(String targetId) {
+    return new CompiledAnnotation(annotation, targetId, path, selectorPath, selectorType,
+        newValue);
+  }
+
+}
@@ -0,0 +1,67 @@
+package io.github.dissco.annotationlogic.validator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A rule between terms of a specimen that the JSON schema can not express, for example that the
+ * verified identification agrees with the specimen name. A rule declares the paths it reads, and
+ * is only checked for annotations that change one of those paths. It is checked on the same parsed
+ * document that is validated against the schema, but each rule walks that document on its own,
+ * after schema validation.
+ */
+public interface ConsistencyRule {
+
+  /**
+   * @return name of the rule, used in error messages and in JFR events
+   */
+  String name();
+
+  /**
+   * @return path patterns of the elements the rule reads, in the syntax of protection rule paths,
+   * e.g. {@code $['ods:hasEvents'][*]['dwc:eventDate']}. Annotations on these elements, on an
+   * element above them or on an element below them cause the rule to be checked.
+   */
+  List<String> paths();
+
+  /**
+   * @param digitalSpecimen the annotated specimen
+   * @return descriptions of the inconsistencies, empty if the specimen is consistent
+   */
+  List<String> check(JsonNode digitalSpecimen);
+
+  /**
+   * Creates a rule from a function
+   *
+   * @param name    name of the rule
+   * @param paths   path patterns of the elements the rule reads
+   * @param checker returns the inconsistencies of a specimen, empty if it is consistent
+   */
+  static ConsistencyRule of(String name, List<String> paths,
+      Function<JsonNode, List<String>> checker) {
+    var rulePaths = List.copyOf(paths);
+    return new ConsistencyRule() {
+      @Override
+      public String name() {
+        return name;
+      }
+
+      @Override
+      public List<String> paths() {
+        return rulePaths;
+      }
+
+      @Override
+      public List<String> check(JsonNode digitalSpecimen) {
+        return checker.apply(digitalSpecimen);
+      }
+
+      @Override
+      public String toString() {
+        return name;
+      }
+    };
+  }
+
+}
@@ -0,0 +1,184 @@
+package io.github.dissco.annotationlogic.validator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
+import io.github.dissco.annotationlogic.jfr.ConsistencyRuleEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * The consistency rules checked on annotated specimens. The rules are compiled into a trie of the
+ * paths they read, so finding the rules an annotation affects takes a single walk of its selector
+ * path, and annotations that do not touch any of the paths check no rules at all.
+ */
+public class ConsistencyRules {
+
+  private static final ConsistencyRules NONE = new ConsistencyRules(List.of());
+  private static final Pattern ISO_DATE = Pattern.compile("\\d{4}(-\\d{2}(-\\d{2})?)?");
+  private final List<ConsistencyRule> rules;
+  // Holds the positions of the rules, so affected rules are checked in the order they were given
+  private final PathPatternTrie<Integer> trie = new PathPatternTrie<>("consistency rule path");
+
+  /**
+   * Compiles a set of rules
+   *
+   * @param rules the rules, checked in this order
+   * @throws IllegalArgumentException if a rule reads no paths or a path is not a valid path pattern
+   */
+  public ConsistencyRules(Collection<ConsistencyRule> rules) {
+    this.rules = List.copyOf(rules);
+    for (int i = 0; i < this.rules.size(); i++) {
+      var rule = this.rules.get(i);
+      if (rule.paths().isEmpty()) {
+        throw new IllegalArgumentException(
+            "Consistency rule " + rule.name() + " must declare the paths it reads");
+      }
+      for (var path : rule.paths()) {
+        trie.add(path, i);
+      }
+    }
+  }
+
+  /**
+   * No rules, annotated specimens are only validated against the schema
+   */
+  public static ConsistencyRules none() {
+    return NONE;
+  }
+
+  /**
+   * The rules provided by the library, see {@link #verifiedIdentificationMatchesSpecimenName()} and
+   * {@link #eventDatesAreOrdered()}
+   */
+  public static List<ConsistencyRule> builtInRules() {
+    return List.of(verifiedIdentificationMatchesSpecimenName(), eventDatesAreOrdered());
+  }
+
+  /**
+   * The scientific names of a verified identification must include the ods:specimenName of the
+   * specimen, if both are present
+   */
+  public static ConsistencyRule verifiedIdentificationMatchesSpecimenName() {
+    return ConsistencyRule.of("verified-identification-matches-specimen-name", List.of(
+        "$['ods:specimenName']",
+        "$['ods:hasIdentifications'][*]['ods:isVerified']",
+        "$['ods:hasIdentifications'][*]['ods:hasTaxonIdentifications'][*]['dwc:scientificName']"),
+        ConsistencyRules::specimenNameViolations);
+  }
+
+  /**
+   * An event date that is an interval must not end before it starts. Dates are compared at the
+   * precision of the less precise date, dates that are not in ISO 8601 format are not compared.
+   */
+  public static ConsistencyRule eventDatesAreOrdered() {
+    return ConsistencyRule.of("event-dates-are-ordered",
+        List.of("$['ods:hasEvents'][*]['dwc:eventDate']"), ConsistencyRules::eventDateViolations);
+  }
+
+  public int size() {
+    return rules.size();
+  }
+
+  /*
+   * Rules read their paths and everything below them, so a rule is affected by a change to its
+   * path, to a path above it or to a path below it. Returns the rules affected by any of the
+   * paths, in the order they were given.
+   */
+  List<ConsistencyRule> findRules(Collection<SelectorPath> selectorPaths) {
+    if (rules.isEmpty()) {
+      return List.of();
+    }
+    var positions = new TreeSet<Integer>();
+    selectorPaths.forEach(selectorPath -> positions.addAll(trie.findOverlapping(selectorPath)));
+    return positions.stream().map(rules::get).toList();
+  }
+
+  /*
+   * Checks the rules in order, each recorded as a JFR event when enabled. Violations are prefixed
+   * with the name of the rule.
+   */
+  static List<String> check(Collection<ConsistencyRule> rules, JsonNode digitalSpecimen,
+      boolean stopAtFirstViolation) {
+    var targetId = digitalSpecimen.path("dcterms:identifier").textValue();
+    var violations = new ArrayList<String>();
+    for (var rule : rules) {
+      var event = new ConsistencyRuleEvent(rule.name());
+      event.begin();
+      List<String> ruleViolations = List.of();
+      try {
+        ruleViolations = rule.check(digitalSpecimen);
+      } finally {
+        event.end(targetId, ruleViolations.size());
+      }
+      ruleViolations.forEach(violation -> violations.add(rule.name() + ": " + violation));
+      if (stopAtFirstViolation && !violations.isEmpty()) {
+        break;
+      }
+    }
+    return violations;
+  }
+
+  private static List<String> specimenNameViolations(JsonNode digitalSpecimen) {
+    var specimenName = digitalSpecimen.path("ods:specimenName").textValue();
+    if (specimenName == null) {
+      return List.of();
+    }
+    var violations = new ArrayList<String>();
+    var identifications = digitalSpecimen.path("ods:hasIdentifications");
+    for (int i = 0; i < identifications.size(); i++) {
+      var identification = identifications.get(i);
+      if (!identification.path("ods:isVerified").asBoolean(false)) {
+        continue;
+      }
+      var names = new ArrayList<String>();
+      for (var taxonIdentification : identification.path("ods:hasTaxonIdentifications")) {
+        var name = taxonIdentification.path("dwc:scientificName").textValue();
+        if (name != null) {
+          names.add(name);
+        }
+      }
+      if (!names.isEmpty() && !names.contains(specimenName)) {
+        violations.add("ods:specimenName " + specimenName + " does not match verified "
+            + "identification " + i + ", which names " + String.join(", ", names));
+      }
+    }
+    return violations;
+  }
+
+  private static List<String> eventDateViolations(JsonNode digitalSpecimen) {
+    var violations = new ArrayList<String>();
+    var events = digitalSpecimen.path("ods:hasEvents");
+    for (int i = 0; i < events.size(); i++) {
+      var eventDate = events.get(i).path("dwc:eventDate").textValue();
+      if (eventDate == null) {
+        continue;
+      }
+      var interval = eventDate.split("/", -1);
+      if (interval.length == 2 && endsBeforeStart(datePart(interval[0]), datePart(interval[1]))) {
+        violations.add("dwc:eventDate " + eventDate + " of event " + i + " ends before it starts");
+      }
+    }
+    return violations;
+  }
+
+  /*
+   * ISO 8601 dates of the same precision sort as text, so the dates are compared as text after
+   * cutting the more precise date to the precision of the other
+   */
+  private static boolean endsBeforeStart(String start, String end) {
+    if (!ISO_DATE.matcher(start).matches() || !ISO_DATE.matcher(end).matches()) {
+      return false;
+    }
+    var length = Math.min(start.length(), end.length());
+    return start.substring(0, length).compareTo(end.substring(0, length)) > 0;
+  }
+
+  private static String datePart(String dateTime) {
+    var time = dateTime.indexOf('T');
+    return time < 0 ? dateTime : dateTime.substring(0, time);
+  }
+
+}
@@ -0,0 +1,85 @@
+package io.github.dissco.annotationlogic.validator;
+
+import io.github.dissco.annotationlogic.domain.MediaFragment;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationMotivationException;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+import io.github.dissco.core.annotationlogic.schema.DigitalMedia;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Checks fragment selector annotations on digital media for the {@link AnnotationValidator}. The
+ * region is checked against the dimensions recorded in the media's metadata, the media content is
+ * never loaded.
+ */
+final class FragmentSelectorValidator {
+
+  private static final Pattern MEDIA_FRAGMENTS_PATTERN = Pattern.compile(
+      "^https?://www\\.w3\\.org/TR/media-frags/?$");
+
+  private FragmentSelectorValidator() {
+    // Utility class
+  }
+
+  static void fragmentSelectorIsValid(DigitalMedia digitalMedia, Annotation annotation)
+      throws InvalidAnnotationException {
+    if (!Objects.equals(digitalMedia.getDctermsIdentifier(),
+        annotation.getOaHasTarget().getDctermsIdentifier())) {
+      throw new InvalidAnnotationException("Annotation does not target provided target");
+    }
+    if (OaMotivation.OA_EDITING.equals(annotation.getOaMotivation())
+        || OaMotivation.ODS_DELETING.equals(annotation.getOaMotivation())
+        || OaMotivation.ODS_ADDING.equals(annotation.getOaMotivation())) {
+      throw new InvalidAnnotationMotivationException(
+          "Fragment selector annotations can not change the target: "
+              + annotation.getOaMotivation());
+    }
+    var fragment = getMediaFragment(annotation);
+    double maxX;
+    double maxY;
+    switch (fragment.unit()) {
+      case PIXEL -> {
+        if (digitalMedia.getExifPixelXDimension() == null
+            || digitalMedia.getExifPixelYDimension() == null) {
+          throw new InvalidAnnotationException(
+              "Media has no recorded pixel dimensions to check the fragment selector against");
+        }
+        maxX = digitalMedia.getExifPixelXDimension();
+        maxY = digitalMedia.getExifPixelYDimension();
+      }
+      case PERCENT -> {
+        maxX = 100;
+        maxY = 100;
+      }
+      default -> {
+        maxX = 1;
+        maxY = 1;
+      }
+    }
+    if (!fragment.fitsWithin(maxX, maxY)) {
+      throw new InvalidAnnotationException(
+          "Fragment selector " + fragment + " does not lie within the target media");
+    }
+  }
+
+  private static MediaFragment getMediaFragment(Annotation annotation)
+      throws InvalidAnnotationException {
+    var selector = annotation.getOaHasTarget().getOaHasSelector().getAdditionalProperties();
+    var conformsTo = selector.get("dcterms:conformsTo");
+    if (conformsTo != null && !MEDIA_FRAGMENTS_PATTERN.matcher(conformsTo.toString()).matches()) {
+      throw new InvalidAnnotationException(
+          "Unsupported fragment selector specification: " + conformsTo);
+    }
+    if (selector.get("ac:hasROI") instanceof Map<?, ?> regionOfInterest) {
+      return MediaFragment.fromRegionOfInterest(regionOfInterest);
+    } else if (selector.get("rdf:value") instanceof String value) {
+      return MediaFragment.parse(value);
+    }
+    throw new InvalidAnnotationException(
+        "Fragment selector must have either an ac:hasROI or an rdf:value");
+  }
+
+}
@@ -3,33 +3,378 @@ package io.github.dissco.annotationlogic.validator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaException;
+import com.networknt.schema.SchemaValidatorsConfig;
 import com.networknt.schema.ValidationMessage;
+import io.github.dissco.annotationlogic.domain.PathSegment;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
 import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.validator.SchemaRegistry.CompiledSchema;
+import io.github.dissco.annotationlogic.validator.SchemaRegistry.SchemaType;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Validates annotated specimens against the openDS specimen schema. By default validation stops at
+ * the first violation, which is all that is needed to reject an annotation. A validator that
+ * reports every violation is returned by {@link #withFullDiagnostics()}.
+ */
 public class JsonSchemaValidator {
 
-  private final JsonSchema specimenSchema;
+  private static final SchemaValidatorsConfig FAIL_FAST_CONFIG = failFastConfig();
+  private static final String FAIL_FAST = "#fail-fast";
+  private final SchemaRegistry schemaRegistry;
+  private final String schemaVersion;
   private final ObjectMapper mapper;
+  private final ValidationMemo validationMemo;
+  private final boolean failFast;
   private static final Logger LOGGER = LoggerFactory.getLogger(JsonSchemaValidator.class);
 
   public JsonSchemaValidator(JsonSchema specimenSchema, ObjectMapper mapper) {
-    this.specimenSchema = specimenSchema;
+    this(specimenSchema, mapper, null);
+  }
+
+  /**
+   * Creates a schema validator that skips elements of the specimen's ods:has* collections that
+   * have already been validated against the same schema
+   *
+   * @param validationMemo memo of validated elements, null to always validate the full specimen
+   */
+  public JsonSchemaValidator(JsonSchema specimenSchema, ObjectMapper mapper,
+      ValidationMemo validationMemo) {
+    this(SchemaRegistry.of(specimenSchema), mapper, validationMemo);
+  }
+
+  /**
+   * Creates a schema validator that validates each specimen against the schema version it
+   * declares, or the default version of the registry
+   *
+   * @param schemaRegistry registry holding the specimen schemas
+   * @param validationMemo memo of validated elements, null to always validate the full specimen
+   */
+  public JsonSchemaValidator(SchemaRegistry schemaRegistry, ObjectMapper mapper,
+      ValidationMemo validationMemo) {
+    this(schemaRegistry, null, mapper, validationMemo, true);
+  }
+
+  private JsonSchemaValidator(SchemaRegistry schemaRegistry, String schemaVersion,
+      ObjectMapper mapper, ValidationMemo validationMemo, boolean failFast) {
+    this.schemaRegistry = schemaRegistry;
+    this.schemaVersion = schemaVersion;
     this.mapper = mapper;
+    this.validationMemo = validationMemo;
+    this.failFast = failFast;
+  }
+
+  private static SchemaValidatorsConfig failFastConfig() {
+    var config = new SchemaValidatorsConfig();
+    config.setFailFast(true);
+    return config;
+  }
+
+  /**
+   * Returns a validator that validates all specimens against one version of the specimen schema,
+   * for example to check annotations against both the old and the new schema during a migration
+   *
+   * @param schemaVersion version of the specimen schema
+   * @throws IllegalArgumentException if the version is not known to the registry
+   */
+  public JsonSchemaValidator forSchemaVersion(String schemaVersion) {
+    schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, schemaVersion);
+    return new JsonSchemaValidator(schemaRegistry, schemaVersion, mapper, validationMemo,
+        failFast);
+  }
+
+  /**
+   * Returns a validator that collects every violation of the schema instead of stopping at the
+   * first one, for callers that need to report why an annotation was rejected
+   */
+  public JsonSchemaValidator withFullDiagnostics() {
+    return new JsonSchemaValidator(schemaRegistry, schemaVersion, mapper, validationMemo, false);
+  }
+
+  public boolean isFailFast() {
+    return failFast;
   }
 
   public void specimenIsValid(String digitalSpecimenString) throws InvalidAnnotationException {
-    JsonNode digitalSpecimen;
+    specimenIsValid(digitalSpecimenString, List.of());
+  }
+
+  /**
+   * Validates a specimen against the schema and checks consistency rules on the same parsed
+   * document, so the specimen is only read once. The rules are checked after schema validation,
+   * each in its own walk of the document. When validation stops at the first violation, the
+   * rules are only checked if the specimen is valid. Otherwise the violations of the schema and of
+   * the rules are reported together.
+   *
+   * @param digitalSpecimenString the serialised specimen
+   * @param rules                 the consistency rules to check
+   * @throws InvalidAnnotationException if the specimen is not valid or breaks a rule
+   */
+  public void specimenIsValid(String digitalSpecimenString, Collection<ConsistencyRule> rules)
+      throws InvalidAnnotationException {
+    specimenTreeIsValid(readSpecimen(digitalSpecimenString), rules);
+  }
+
+  /**
+   * Collects every violation of the schema by a specimen, regardless of the fail-fast setting
+   *
+   * @param digitalSpecimenString the serialised specimen
+   * @return the error messages, empty if the specimen is valid
+   * @throws InvalidAnnotationException if the specimen can not be read
+   */
+  public List<String> specimenErrors(String digitalSpecimenString)
+      throws InvalidAnnotationException {
+    return validateSpecimen(readSpecimen(digitalSpecimenString), false).stream()
+        .map(ValidationMessage::getMessage)
+        .toList();
+  }
+
+  /**
+   * Validates a specimen that is already held as a Jackson tree
+   *
+   * @param digitalSpecimen the specimen
+   * @throws InvalidAnnotationException if the specimen is not valid
+   */
+  public void specimenTreeIsValid(JsonNode digitalSpecimen) throws InvalidAnnotationException {
+    specimenTreeIsValid(digitalSpecimen, List.of());
+  }
+
+  /**
+   * Validates a specimen that is already held as a Jackson tree and checks consistency rules on it,
+   * see {@link #specimenIsValid(String, Collection)}
+   *
+   * @param digitalSpecimen the specimen
+   * @param rules           the consistency rules to check
+   * @throws InvalidAnnotationException if the specimen is not valid or breaks a rule
+   */
+  public void specimenTreeIsValid(JsonNode digitalSpecimen, Collection<ConsistencyRule> rules)
+      throws InvalidAnnotationException {
+    var errors = validateSpecimen(digitalSpecimen, failFast).stream()
+        .map(ValidationMessage::getMessage)
+        .collect(Collectors.toCollection(ArrayList::new));
+    if (!rules.isEmpty() && (errors.isEmpty() || !failFast)) {
+      errors.addAll(ConsistencyRules.check(rules, digitalSpecimen, failFast));
+    }
+    if (!errors.isEmpty()) {
+      var errorMessage = setErrorMessage(errors);
+      LOGGER.warn(errorMessage);
+      throw new InvalidAnnotationException(errorMessage);
+    }
+  }
+
+  /**
+   * Checks consistency rules on a specimen without validating it against the schema, for
+   * specimens of which only the changed element was validated with {@link #mutationIsValid}
+   *
+   * @param digitalSpecimen UTF-8 encoded JSON of the specimen
+   * @param rules           the consistency rules to check
+   * @throws InvalidAnnotationException if the specimen can not be read or breaks a rule
+   */
+  public void specimenIsConsistent(byte[] digitalSpecimen, Collection<ConsistencyRule> rules)
+      throws InvalidAnnotationException {
+    JsonNode specimen;
     try {
-      digitalSpecimen = mapper.readTree(digitalSpecimenString);
+      specimen = mapper.readTree(digitalSpecimen);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to read resulting digital specimen", e);
+      throw new InvalidAnnotationException("Unable to read resulting digital specimen");
+    }
+    specimenTreeIsConsistent(specimen, rules);
+  }
+
+  /**
+   * Checks consistency rules on a specimen that is already held as a Jackson tree, see
+   * {@link #specimenIsConsistent(byte[], Collection)}
+   *
+   * @param digitalSpecimen the specimen
+   * @param rules           the consistency rules to check
+   * @throws InvalidAnnotationException if the specimen breaks a rule
+   */
+  public void specimenTreeIsConsistent(JsonNode digitalSpecimen,
+      Collection<ConsistencyRule> rules) throws InvalidAnnotationException {
+    var errors = ConsistencyRules.check(rules, digitalSpecimen, failFast);
+    if (!errors.isEmpty()) {
+      var errorMessage = setErrorMessage(errors);
+      LOGGER.warn(errorMessage);
+      throw new InvalidAnnotationException(errorMessage);
+    }
+  }
+
+  private JsonNode readSpecimen(String digitalSpecimenString) throws InvalidAnnotationException {
+    try {
+      return mapper.readTree(digitalSpecimenString);
     } catch (JsonProcessingException e) {
       LOGGER.warn("Unable to read resulting digital specimen", e);
       throw new InvalidAnnotationException("Unable to read resulting digital specimen");
     }
-    var errors = specimenSchema.validate(digitalSpecimen);
+  }
+
+  private Set<ValidationMessage> validateSpecimen(JsonNode digitalSpecimen,
+      boolean stopAtFirstError) {
+    var specimenSchema = schemaVersion != null
+        ? schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, schemaVersion)
+        : schemaRegistry.selectSchema(SchemaType.DIGITAL_SPECIMEN, digitalSpecimen);
+    var document = withoutSchemaHint(digitalSpecimen);
+    // Full diagnostics report every violation at its position, so they never leave elements out
+    return validationMemo != null && stopAtFirstError && document instanceof ObjectNode specimenNode
+        ? validateWithMemo(specimenSchema, specimenNode)
+        : validate(specimenSchema, document, stopAtFirstError);
+  }
+
+  /*
+   * The schema hint only selects the schema, it is not a term of the specimen. The copy shares all
+   * values with the specimen.
+   */
+  private static JsonNode withoutSchemaHint(JsonNode digitalSpecimen) {
+    if (!(digitalSpecimen instanceof ObjectNode specimenNode)
+        || !specimenNode.has(SchemaRegistry.SCHEMA_HINT)) {
+      return digitalSpecimen;
+    }
+    var document = JsonNodeFactory.instance.objectNode();
+    for (var field : specimenNode.properties()) {
+      if (!SchemaRegistry.SCHEMA_HINT.equals(field.getKey())) {
+        document.set(field.getKey(), field.getValue());
+      }
+    }
+    return document;
+  }
+
+  /*
+   * Fail-fast validation throws at the first violation. The fail-fast schema is compiled from the
+   * same schema node on first use, and kept with the compiled schema.
+   */
+  private Set<ValidationMessage> validate(CompiledSchema specimenSchema, JsonNode document,
+      boolean stopAtFirstError) {
+    if (!stopAtFirstError) {
+      return specimenSchema.schema().validate(document);
+    }
+    var schema = specimenSchema.derivedSchema(FAIL_FAST,
+        k -> specimenSchema.compile(specimenSchema.schema().getCurrentUri(),
+            specimenSchema.schema().getSchemaNode(), FAIL_FAST_CONFIG));
+    return validateFailFast(schema, document);
+  }
+
+  private static Set<ValidationMessage> validateFailFast(JsonSchema schema, JsonNode document) {
+    try {
+      return schema.validate(document);
+    } catch (JsonSchemaException e) {
+      return e.getValidationMessages();
+    }
+  }
+
+  /*
+   * Elements of the ods:has* collections are validated independently of each other by the schema,
+   * so elements that passed validation before are left out of the validated document. If that
+   * document is invalid, the whole specimen is validated again, so array indices in the error
+   * refer to the specimen and not to the remaining elements.
+   */
+  private Set<ValidationMessage> validateWithMemo(CompiledSchema specimenSchema,
+      ObjectNode digitalSpecimen) {
+    // The fingerprint changes with the schema content, so reloaded schemas do not reuse results
+    var schemaId = specimenSchema.fingerprint();
+    var unvalidatedHashes = new ArrayList<String>();
+    var remainingSpecimen = JsonNodeFactory.instance.objectNode();
+    for (var field : digitalSpecimen.properties()) {
+      if (field.getKey().startsWith("ods:has") && field.getValue().isArray()) {
+        var remainingElements = remainingSpecimen.putArray(field.getKey());
+        for (var element : field.getValue()) {
+          var hash = hashSubtree(schemaId, element);
+          if (!validationMemo.isValid(hash)) {
+            remainingElements.add(element);
+            unvalidatedHashes.add(hash);
+          }
+        }
+      } else {
+        remainingSpecimen.set(field.getKey(), field.getValue());
+      }
+    }
+    var errors = validate(specimenSchema, remainingSpecimen, true);
+    if (errors.isEmpty()) {
+      unvalidatedHashes.forEach(validationMemo::markValid);
+      return errors;
+    }
+    return validate(specimenSchema, digitalSpecimen, true);
+  }
+
+  private String hashSubtree(String schemaId, JsonNode subtree) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      digest.update(schemaId.getBytes(StandardCharsets.UTF_8));
+      mapper.writeValue(new DigestOutputStream(OutputStream.nullOutputStream(), digest), subtree);
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException | IOException e) {
+      throw new IllegalStateException("Unable to hash specimen subtree", e);
+    }
+  }
+
+  /**
+   * Validates a single change to a specimen against the part of the specimen schema that describes
+   * the changed path, without requiring the rest of the document. Used for specimens that are too
+   * large to validate as a whole.
+   *
+   * @param path     path of the changed element
+   * @param newValue new value of the element, null if the element is deleted
+   * @throws InvalidAnnotationException if the change would produce an invalid specimen
+   */
+  public void mutationIsValid(SelectorPath path, JsonNode newValue)
+      throws InvalidAnnotationException {
+    mutationIsValid(path, newValue, null);
+  }
+
+  /**
+   * Validates a single change to a specimen that declares its schema, see
+   * {@link #mutationIsValid(SelectorPath, JsonNode)}
+   *
+   * @param path           path of the changed element
+   * @param newValue       new value of the element, null if the element is deleted
+   * @param declaredSchema the $id the specimen declares in its $schema property, null if it does
+   *                       not declare one
+   * @throws InvalidAnnotationException if the change would produce an invalid specimen
+   */
+  public void mutationIsValid(SelectorPath path, JsonNode newValue, String declaredSchema)
+      throws InvalidAnnotationException {
+    var specimenSchema = schemaVersion != null
+        ? schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, schemaVersion)
+        : schemaRegistry.selectSchema(SchemaType.DIGITAL_SPECIMEN, declaredSchema);
+    var parentSchema = resolveSubSchema(specimenSchema, path.parent().segments());
+    if (parentSchema == null) {
+      throw invalidMutation("path " + path + " is not described by the specimen schema");
+    }
+    var lastSegment = path.last();
+    if (newValue == null) {
+      if (!lastSegment.isIndex() && parentSchema.isRequired(lastSegment.key())) {
+        throw invalidMutation("required property " + lastSegment.key() + " can not be deleted");
+      }
+      return;
+    }
+    var targetSchema = parentSchema.child(lastSegment);
+    if (targetSchema == null) {
+      if (parentSchema.allowsAdditionalProperties()) {
+        return;
+      }
+      throw invalidMutation("property " + lastSegment + " is not defined in the specimen schema");
+    }
+    var subSchema = compileSubSchema(specimenSchema, path,
+        dereference(specimenSchema, targetSchema));
+    var errors = failFast ? validateFailFast(subSchema, newValue) : subSchema.validate(newValue);
     if (!errors.isEmpty()) {
       var errorMessage = setErrorMessage(errors);
       LOGGER.warn(errorMessage);
@@ -37,11 +382,91 @@ public class JsonSchemaValidator {
     }
   }
 
+  private SubSchema resolveSubSchema(CompiledSchema specimenSchema, List<PathSegment> segments) {
+    var rootSchema = specimenSchema.schema();
+    var current = dereference(specimenSchema,
+        new SubSchema(rootSchema, rootSchema.getSchemaNode()));
+    for (var segment : segments) {
+      var next = current.child(segment);
+      if (next == null) {
+        return null;
+      }
+      current = dereference(specimenSchema, next);
+    }
+    return current;
+  }
+
+  /*
+   * Schemas in other documents are resolved through the registry version the specimen schema was
+   * loaded with, which serves the schemas it holds without fetching them and keeps the resolved
+   * schemas until it is reloaded
+   */
+  private static SubSchema dereference(CompiledSchema specimenSchema, SubSchema subSchema) {
+    var ref = subSchema.node().get("$ref");
+    if (ref == null) {
+      return subSchema;
+    }
+    if (ref.asText().startsWith("#")) {
+      return new SubSchema(subSchema.schema(),
+          subSchema.schema().getRefSchemaNode(ref.asText()));
+    }
+    var baseUri = subSchema.schema().getCurrentUri();
+    var refUri = baseUri == null ? URI.create(ref.asText()) : baseUri.resolve(ref.asText());
+    var refSchema = specimenSchema.referencedSchema(refUri);
+    return new SubSchema(refSchema, refSchema.getSchemaNode());
+  }
+
+  private JsonSchema compileSubSchema(CompiledSchema specimenSchema, SelectorPath path,
+      SubSchema subSchema) {
+    // Array indices do not change the schema, so all elements share the same compiled sub schema
+    var key = path.toString().replaceAll("\\[(\\d+|\\*)]", "[]") + (failFast ? FAIL_FAST : "");
+    return specimenSchema.derivedSchema(key, k -> specimenSchema.compile(
+        subSchema.schema().getCurrentUri(), subSchema.node(), failFast ? FAIL_FAST_CONFIG : null));
+  }
+
+  private static InvalidAnnotationException invalidMutation(String error) {
+    var errorMessage = "Annotation produces invalid target. Errors: " + error;
+    LOGGER.warn(errorMessage);
+    return new InvalidAnnotationException(errorMessage);
+  }
+
   private static String setErrorMessage(Set<ValidationMessage> validationErrors) {
+    return setErrorMessage(validationErrors.stream().map(ValidationMessage::getMessage).toList());
+  }
+
+  private static String setErrorMessage(List<String> errors) {
     var errorBuilder = new StringBuilder()
         .append("Annotation produces invalid target. Errors: ");
-    validationErrors.forEach(error -> errorBuilder.append(error.getMessage()).append(", "));
+    errors.forEach(error -> errorBuilder.append(error).append(", "));
     return errorBuilder.toString();
   }
 
+  /**
+   * A node within a (possibly referenced) schema, together with the schema it belongs to so that
+   * relative references can be resolved.
+   */
+  private record SubSchema(JsonSchema schema, JsonNode node) {
+
+    SubSchema child(PathSegment segment) {
+      var child = segment.isIndex() ? node.get("items")
+          : node.path("properties").get(segment.key());
+      return child == null ? null : new SubSchema(schema, child);
+    }
+
+    boolean isRequired(String key) {
+      for (var required : node.path("required")) {
+        if (required.asText().equals(key)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    boolean allowsAdditionalProperties() {
+      var additionalProperties = node.get("additionalProperties");
+      return additionalProperties == null || !additionalProperties.isBoolean()
+          || additionalProperties.asBoolean();
+    }
+  }
+
 }
@@ -0,0 +1,197 @@
+package io.github.dissco.annotationlogic.validator;
+
+import io.github.dissco.annotationlogic.domain.PathSegment;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Trie of path patterns in block notation, which may use {@code [*]} for any array element and
+ * {@code ..} for any number of segments. Finding the patterns that match a path takes a single walk
+ * of the path, however many patterns there are.
+ *
+ * @param <V> type of the values stored for each pattern
+ */
+final class PathPatternTrie<V> {
+
+  private final String patternName;
+  private final Node<V> root = new Node<>(false);
+
+  /**
+   * @param patternName name of the patterns, used in error messages
+   */
+  PathPatternTrie(String patternName) {
+    this.patternName = patternName;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the pattern is not a valid path pattern
+   */
+  void add(String pattern, V value) {
+    var node = root;
+    for (var segment : parsePattern(pattern)) {
+      node = segment == null ? node.descendants() : node.child(segment);
+    }
+    node.values.add(value);
+  }
+
+  /**
+   * @return the values of the patterns that match the path or one of its prefixes
+   */
+  Set<V> findPrefixes(SelectorPath path) {
+    var matched = new LinkedHashSet<V>();
+    walk(path, matched);
+    return matched;
+  }
+
+  /**
+   * @return the values of the patterns that match the path, one of its prefixes or a path below it
+   */
+  Set<V> findOverlapping(SelectorPath path) {
+    var matched = new LinkedHashSet<V>();
+    for (var node : walk(path, matched)) {
+      collectBelow(node, matched);
+    }
+    return matched;
+  }
+
+  /*
+   * Walks the trie along the path. Every prefix of the path is checked, so the values of all
+   * patterns matching a prefix are collected. Descendant nodes stay active for the rest of the
+   * walk. Returns the nodes that are active at the end of the path.
+   */
+  private Set<Node<V>> walk(SelectorPath path, Set<V> matched) {
+    var active = new LinkedHashSet<Node<V>>();
+    activate(root, active, matched);
+    for (var segment : path.segments()) {
+      var next = new LinkedHashSet<Node<V>>();
+      for (var node : active) {
+        if (node.descendant) {
+          next.add(node);
+        }
+        node.forEachChild(segment, child -> activate(child, next, matched));
+      }
+      active = next;
+      if (active.isEmpty()) {
+        break;
+      }
+    }
+    return active;
+  }
+
+  private static <V> void activate(Node<V> node, Set<Node<V>> active, Set<V> matched) {
+    active.add(node);
+    matched.addAll(node.values);
+    if (node.descendants != null) {
+      active.add(node.descendants);
+      matched.addAll(node.descendants.values);
+    }
+  }
+
+  private static <V> void collectBelow(Node<V> node, Set<V> matched) {
+    matched.addAll(node.values);
+    node.keys.values().forEach(child -> collectBelow(child, matched));
+    node.indices.values().forEach(child -> collectBelow(child, matched));
+    if (node.anyIndex != null) {
+      collectBelow(node.anyIndex, matched);
+    }
+    if (node.descendants != null) {
+      collectBelow(node.descendants, matched);
+    }
+  }
+
+  /*
+   * Parses a path pattern into its segments, with null for a descendant wildcard
+   */
+  private List<PathSegment> parsePattern(String pattern) {
+    if (pattern == null || !pattern.startsWith("$") || pattern.contains("...")) {
+      throw new IllegalArgumentException("Invalid " + patternName + ": " + pattern);
+    }
+    var segments = new ArrayList<PathSegment>();
+    var parts = pattern.substring(1).split("\\.\\.", -1);
+    for (int i = 0; i < parts.length; i++) {
+      if (i > 0) {
+        segments.add(null);
+      }
+      if (!parts[i].isEmpty()) {
+        try {
+          segments.addAll(SelectorPath.parse("$" + parts[i]).segments());
+        } catch (InvalidAnnotationException e) {
+          throw new IllegalArgumentException("Invalid " + patternName + ": " + pattern, e);
+        }
+      }
+    }
+    if (segments.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Invalid " + patternName + ", it must not be empty: " + pattern);
+    }
+    return segments;
+  }
+
+  private static final class Node<V> {
+
+    private final boolean descendant;
+    private final Map<String, Node<V>> keys = new HashMap<>();
+    private final Map<Integer, Node<V>> indices = new HashMap<>();
+    private final List<V> values = new ArrayList<>();
+    private Node<V> anyIndex;
+    private Node<V> descendants;
+
+    private Node(boolean descendant) {
+      this.descendant = descendant;
+    }
+
+    private Node<V> descendants() {
+      if (descendant) {
+        return this;
+      }
+      if (descendants == null) {
+        descendants = new Node<>(true);
+      }
+      return descendants;
+    }
+
+    private Node<V> child(PathSegment segment) {
+      if (!segment.isIndex()) {
+        return keys.computeIfAbsent(segment.key(), key -> new Node<>(false));
+      } else if (segment.isWildcard()) {
+        if (anyIndex == null) {
+          anyIndex = new Node<>(false);
+        }
+        return anyIndex;
+      }
+      return indices.computeIfAbsent(segment.index(), index -> new Node<>(false));
+    }
+
+    /*
+     * A wildcard in the path can select any element, so it matches every index pattern
+     */
+    private void forEachChild(PathSegment segment, Consumer<Node<V>> action) {
+      if (!segment.isIndex()) {
+        var child = keys.get(segment.key());
+        if (child != null) {
+          action.accept(child);
+        }
+        return;
+      }
+      if (anyIndex != null) {
+        action.accept(anyIndex);
+      }
+      if (segment.isWildcard()) {
+        indices.values().forEach(action);
+      } else {
+        var child = indices.get(segment.index());
+        if (child != null) {
+          action.accept(child);
+        }
+      }
+    }
+  }
+
+}
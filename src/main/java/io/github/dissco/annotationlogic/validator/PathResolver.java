@@ -0,0 +1,138 @@
+package io.github.dissco.annotationlogic.validator;
+
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import io.github.dissco.annotationlogic.domain.PathSegment;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resolves a selector path against a parsed specimen in a single walk from the root. Each target
+ * of the path is returned as a {@link TargetHandle}, which holds the containers along the path, so
+ * checking the target and changing it do not need to walk the document again.
+ */
+class PathResolver {
+
+  private final JsonProvider provider;
+
+  PathResolver(JsonProvider provider) {
+    this.provider = provider;
+  }
+
+  /**
+   * Resolves a selector path. Wildcards are expanded to every element of the arrays they select.
+   * Segments after the last wildcard do not need to exist, their targets are returned as handles
+   * that do not exist.
+   *
+   * @param root the parsed specimen
+   * @param path the selector path
+   * @return a handle for each target, in document order, empty if a wildcard matches nothing
+   */
+  List<TargetHandle> resolve(Object root, SelectorPath path) {
+    var walk = new Walk(path.segments());
+    walk(root, 0, walk);
+    return walk.handles;
+  }
+
+  private void walk(Object container, int depth, Walk walk) {
+    walk.containers[depth] = container;
+    var segment = walk.segments.get(depth);
+    if (segment.isWildcard()) {
+      if (provider.isArray(container)) {
+        for (int i = 0; i < provider.length(container); i++) {
+          walk.resolved[depth] = PathSegment.ofIndex(i);
+          descend(provider.getArrayIndex(container, i), depth, walk);
+        }
+      }
+      return;
+    }
+    walk.resolved[depth] = segment;
+    descend(child(container, segment), depth, walk);
+  }
+
+  private void descend(Object child, int depth, Walk walk) {
+    if (depth == walk.segments.size() - 1) {
+      walk.addHandle(depth + 1, child);
+    } else if (child != null && (provider.isMap(child) || provider.isArray(child))) {
+      walk(child, depth + 1, walk);
+    } else if (depth >= walk.lastWildcard) {
+      // The path is broken before its last segment, the target and its parent do not exist
+      walk.addHandle(depth + 1, null);
+    }
+  }
+
+  private Object child(Object container, PathSegment segment) {
+    if (!segment.isIndex() && provider.isMap(container)) {
+      var child = provider.getMapValue(container, segment.key());
+      return child == JsonProvider.UNDEFINED ? null : child;
+    } else if (segment.isIndex() && provider.isArray(container)
+        && segment.index() < provider.length(container)) {
+      return provider.getArrayIndex(container, segment.index());
+    }
+    return null;
+  }
+
+  /**
+   * A single target of a selector path
+   *
+   * @param containers the containers along the path, starting with the root. Holds one container
+   *                   per segment if the parent of the target exists, fewer if the path is broken.
+   * @param segments   the segments of the path to the target, with wildcards replaced by indices
+   * @param value      the current value of the target, null if it does not exist
+   */
+  record TargetHandle(List<Object> containers, List<PathSegment> segments, Object value) {
+
+    boolean exists() {
+      return value != null;
+    }
+
+    boolean parentExists() {
+      return containers.size() == segments.size();
+    }
+
+    Object parent() {
+      return parentExists() ? containers.getLast() : null;
+    }
+
+    PathSegment last() {
+      return segments.getLast();
+    }
+  }
+
+  private static final class Walk {
+
+    private final List<PathSegment> segments;
+    private final int lastWildcard;
+    private final Object[] containers;
+    private final PathSegment[] resolved;
+    private final List<TargetHandle> handles = new ArrayList<>();
+
+    private Walk(List<PathSegment> segments) {
+      this.segments = segments;
+      var wildcard = -1;
+      for (int i = 0; i < segments.size(); i++) {
+        if (segments.get(i).isWildcard()) {
+          wildcard = i;
+        }
+      }
+      this.lastWildcard = wildcard;
+      this.containers = new Object[segments.size()];
+      this.resolved = new PathSegment[segments.size()];
+    }
+
+    /*
+     * Segments that were not reached keep their form from the selector path, they do not contain
+     * wildcards as a walk only breaks off after the last wildcard
+     */
+    private void addHandle(int reached, Object value) {
+      var handleSegments = new ArrayList<PathSegment>(segments.size());
+      for (int i = 0; i < segments.size(); i++) {
+        handleSegments.add(i < reached ? resolved[i] : segments.get(i));
+      }
+      handles.add(new TargetHandle(List.copyOf(Arrays.asList(containers).subList(0, reached)),
+          handleSegments, value));
+    }
+  }
+
+}
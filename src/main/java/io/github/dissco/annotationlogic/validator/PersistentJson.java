@@ -0,0 +1,87 @@
+package io.github.dissco.annotationlogic.validator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.dissco.annotationlogic.domain.PathSegment;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads JSON into persistent objects and arrays, and changes them by copying the path to the
+ * change
+ */
+final class PersistentJson {
+
+  private PersistentJson() {
+    // Utility class
+  }
+
+  /**
+   * Reads the next value of the parser, objects and arrays are read into persistent objects and
+   * arrays
+   */
+  static Object read(JsonParser parser) throws IOException {
+    var token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+    if (token == null) {
+      throw new IOException("No JSON value to read");
+    }
+    return switch (token) {
+      case START_OBJECT -> {
+        var object = PersistentJsonObject.EMPTY;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          var key = parser.currentName();
+          parser.nextToken();
+          object = object.with(key, read(parser));
+        }
+        yield object;
+      }
+      case START_ARRAY -> {
+        var array = PersistentJsonArray.EMPTY;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          array = array.append(read(parser));
+        }
+        yield array;
+      }
+      case VALUE_STRING -> parser.getText();
+      case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+      case VALUE_TRUE -> Boolean.TRUE;
+      case VALUE_FALSE -> Boolean.FALSE;
+      case VALUE_NULL -> null;
+      default -> throw new IOException("Unexpected token " + token);
+    };
+  }
+
+  /**
+   * Copies the containers on the path to the last segment, and sets, appends or removes the
+   * element at the last segment
+   *
+   * @param container the container the path starts at
+   * @param segments  the resolved segments of the path, without wildcards
+   * @param depth     the segment to start at
+   * @param change    the change to the parent of the last segment
+   * @return the copy of the container
+   */
+  static Object updateIn(Object container, List<PathSegment> segments, int depth,
+      Change change) {
+    var segment = segments.get(depth);
+    if (depth == segments.size() - 1) {
+      return change.apply(container, segment);
+    }
+    if (segment.isIndex()) {
+      var array = (PersistentJsonArray) container;
+      return array.with(segment.index(),
+          updateIn(array.get(segment.index()), segments, depth + 1, change));
+    }
+    var object = (PersistentJsonObject) container;
+    return object.with(segment.key(),
+        updateIn(object.get(segment.key()), segments, depth + 1, change));
+  }
+
+  @FunctionalInterface
+  interface Change {
+
+    Object apply(Object parent, PathSegment last);
+
+  }
+
+}
@@ -0,0 +1,101 @@
+package io.github.dissco.annotationlogic.validator;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Immutable JSON array, stored as a trie of nodes of up to 32 elements. Setting or appending an
+ * element copies only the nodes on the path to it, one per five bits of its index, and shares all
+ * other nodes and elements with the original array. Removing an element shifts the elements after
+ * it, so it copies the array.
+ * <p>
+ * It can be read as a {@link java.util.List}, so the JsonPath provider, the path resolver and
+ * Jackson read it as any other array. It can not be changed through the list methods.
+ */
+final class PersistentJsonArray extends AbstractList<Object> implements RandomAccess {
+
+  static final PersistentJsonArray EMPTY = new PersistentJsonArray(new Object[0], 0, 0);
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private final Object[] root;
+  private final int shift;
+  private final int size;
+
+  private PersistentJsonArray(Object[] root, int shift, int size) {
+    this.root = root;
+    this.shift = shift;
+    this.size = size;
+  }
+
+  @Override
+  public Object get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    var node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = (Object[]) node[(index >>> level) & MASK];
+    }
+    return node[index & MASK];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return an array with the element at the index set to the value, the value is appended if the
+   * index is the size of the array
+   */
+  PersistentJsonArray with(int index, Object value) {
+    if (index == size) {
+      return append(value);
+    }
+    if (get(index) == value) {
+      return this;
+    }
+    return new PersistentJsonArray(set(root, shift, index, value), shift, size);
+  }
+
+  PersistentJsonArray append(Object value) {
+    var newRoot = root;
+    var newShift = shift;
+    if (size == 1 << (shift + BITS)) {
+      // The trie is full, the current root becomes the first child of a new root
+      newRoot = new Object[]{root};
+      newShift += BITS;
+    }
+    return new PersistentJsonArray(set(newRoot, newShift, size, value), newShift, size + 1);
+  }
+
+  PersistentJsonArray without(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    var result = EMPTY;
+    for (int i = 0; i < size; i++) {
+      if (i != index) {
+        result = result.append(get(i));
+      }
+    }
+    return result;
+  }
+
+  /*
+   * Copies the nodes on the path to the index, nodes are only as long as the elements they hold
+   */
+  private static Object[] set(Object[] node, int level, int index, Object value) {
+    var slot = (index >>> level) & MASK;
+    var copy = slot < node.length ? node.clone() : Arrays.copyOf(node, slot + 1);
+    if (level == 0) {
+      copy[slot] = value;
+    } else {
+      var child = copy[slot] == null ? new Object[0] : (Object[]) copy[slot];
+      copy[slot] = set(child, level - BITS, index, value);
+    }
+    return copy;
+  }
+
+}
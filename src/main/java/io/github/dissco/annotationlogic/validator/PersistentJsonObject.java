@@ -0,0 +1,285 @@
+package io.github.dissco.annotationlogic.validator;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable JSON object, stored as a hash array mapped trie. Changing a key copies only the trie
+ * nodes on the path to that key, at most one node of up to 32 entries per five bits of its hash,
+ * and shares all other nodes and values with the original object. Keys are iterated in the order
+ * of their hashes, not in the order they were added.
+ * <p>
+ * It can be read as a {@link Map}, so the JsonPath provider, the path resolver and Jackson read it
+ * as any other object. It can not be changed through the {@link Map} methods.
+ */
+final class PersistentJsonObject extends AbstractMap<String, Object> {
+
+  static final PersistentJsonObject EMPTY = new PersistentJsonObject(BitmapNode.EMPTY, 0);
+  private static final Object NOT_FOUND = new Object();
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private final Node root;
+  private final int size;
+
+  private PersistentJsonObject(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String name && root.find(0, name.hashCode(), name) != NOT_FOUND;
+  }
+
+  @Override
+  public Object get(Object key) {
+    if (!(key instanceof String name)) {
+      return null;
+    }
+    var value = root.find(0, name.hashCode(), name);
+    return value == NOT_FOUND ? null : value;
+  }
+
+  /**
+   * @return an object with the key set to the value, or this object if it already holds the value
+   */
+  PersistentJsonObject with(String key, Object value) {
+    var added = new boolean[1];
+    var newRoot = root.with(0, key.hashCode(), key, value, added);
+    return newRoot == root ? this : new PersistentJsonObject(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * @return an object without the key, or this object if it does not hold the key
+   */
+  PersistentJsonObject without(String key) {
+    var newRoot = root.without(0, key.hashCode(), key);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? EMPTY : new PersistentJsonObject(newRoot, size - 1);
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        var entries = new ArrayList<Entry<String, Object>>(size);
+        root.collect(entries);
+        return entries.iterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private interface Node {
+
+    Object find(int shift, int hash, String key);
+
+    Node with(int shift, int hash, String key, Object value, boolean[] added);
+
+    /*
+     * Returns null if the node is left empty
+     */
+    Node without(int shift, int hash, String key);
+
+    void collect(List<Entry<String, Object>> entries);
+
+  }
+
+  /*
+   * Holds an entry or a child node for each bit set in the bitmap. An entry is stored as its key
+   * and value, a child node as null and the node.
+   */
+  private record BitmapNode(int bitmap, Object[] array) implements Node {
+
+    private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    @Override
+    public Object find(int shift, int hash, String key) {
+      var bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      var i = 2 * Integer.bitCount(bitmap & (bit - 1));
+      var entryKey = array[i];
+      if (entryKey == null) {
+        return ((Node) array[i + 1]).find(shift + BITS, hash, key);
+      }
+      return key.equals(entryKey) ? array[i + 1] : NOT_FOUND;
+    }
+
+    @Override
+    public Node with(int shift, int hash, String key, Object value, boolean[] added) {
+      var bit = bit(hash, shift);
+      var i = 2 * Integer.bitCount(bitmap & (bit - 1));
+      if ((bitmap & bit) == 0) {
+        var copy = new Object[array.length + 2];
+        System.arraycopy(array, 0, copy, 0, i);
+        copy[i] = key;
+        copy[i + 1] = value;
+        System.arraycopy(array, i, copy, i + 2, array.length - i);
+        added[0] = true;
+        return new BitmapNode(bitmap | bit, copy);
+      }
+      var entryKey = array[i];
+      var entryValue = array[i + 1];
+      if (entryKey == null) {
+        var child = ((Node) entryValue).with(shift + BITS, hash, key, value, added);
+        return child == entryValue ? this : replace(i, null, child);
+      }
+      if (key.equals(entryKey)) {
+        return entryValue == value ? this : replace(i, key, value);
+      }
+      added[0] = true;
+      return replace(i, null, node(shift + BITS, (String) entryKey, entryValue, hash, key, value));
+    }
+
+    @Override
+    public Node without(int shift, int hash, String key) {
+      var bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      var i = 2 * Integer.bitCount(bitmap & (bit - 1));
+      var entryKey = array[i];
+      if (entryKey == null) {
+        var child = (Node) array[i + 1];
+        var newChild = child.without(shift + BITS, hash, key);
+        if (newChild == child) {
+          return this;
+        }
+        if (newChild != null) {
+          return replace(i, null, newChild);
+        }
+      } else if (!key.equals(entryKey)) {
+        return this;
+      }
+      if (bitmap == bit) {
+        return null;
+      }
+      var copy = new Object[array.length - 2];
+      System.arraycopy(array, 0, copy, 0, i);
+      System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+      return new BitmapNode(bitmap ^ bit, copy);
+    }
+
+    @Override
+    public void collect(List<Entry<String, Object>> entries) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (array[i] == null) {
+          ((Node) array[i + 1]).collect(entries);
+        } else {
+          entries.add(new SimpleImmutableEntry<>((String) array[i], array[i + 1]));
+        }
+      }
+    }
+
+    private BitmapNode replace(int i, Object key, Object value) {
+      var copy = array.clone();
+      copy[i] = key;
+      copy[i + 1] = value;
+      return new BitmapNode(bitmap, copy);
+    }
+
+    private static Node node(int shift, String firstKey, Object firstValue, int hash, String key,
+        Object value) {
+      var firstHash = firstKey.hashCode();
+      if (firstHash == hash) {
+        return new CollisionNode(hash, new Object[]{firstKey, firstValue, key, value});
+      }
+      var ignored = new boolean[1];
+      return EMPTY.with(shift, firstHash, firstKey, firstValue, ignored)
+          .with(shift, hash, key, value, ignored);
+    }
+
+  }
+
+  /*
+   * Holds the keys and values of the keys that share a hash
+   */
+  private record CollisionNode(int hash, Object[] array) implements Node {
+
+    @Override
+    public Object find(int shift, int hash, String key) {
+      var i = indexOf(key);
+      return i < 0 ? NOT_FOUND : array[i + 1];
+    }
+
+    @Override
+    public Node with(int shift, int hash, String key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        // Nest this node in a bitmap node, which can hold keys with other hashes
+        return new BitmapNode(bit(this.hash, shift), new Object[]{null, this})
+            .with(shift, hash, key, value, added);
+      }
+      var i = indexOf(key);
+      if (i >= 0) {
+        if (array[i + 1] == value) {
+          return this;
+        }
+        var copy = array.clone();
+        copy[i + 1] = value;
+        return new CollisionNode(hash, copy);
+      }
+      var copy = Arrays.copyOf(array, array.length + 2);
+      copy[array.length] = key;
+      copy[array.length + 1] = value;
+      added[0] = true;
+      return new CollisionNode(hash, copy);
+    }
+
+    @Override
+    public Node without(int shift, int hash, String key) {
+      var i = indexOf(key);
+      if (i < 0) {
+        return this;
+      }
+      if (array.length == 2) {
+        return null;
+      }
+      var copy = new Object[array.length - 2];
+      System.arraycopy(array, 0, copy, 0, i);
+      System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+      return new CollisionNode(hash, copy);
+    }
+
+    @Override
+    public void collect(List<Entry<String, Object>> entries) {
+      for (int i = 0; i < array.length; i += 2) {
+        entries.add(new SimpleImmutableEntry<>((String) array[i], array[i + 1]));
+      }
+    }
+
+    private int indexOf(String key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+  }
+
+}
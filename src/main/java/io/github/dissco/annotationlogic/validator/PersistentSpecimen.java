@@ -0,0 +1,54 @@
+package io.github.dissco.annotationlogic.validator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+
+/**
+ * A version of a digital specimen held as an immutable, persistent tree. Created with
+ * {@link AnnotationValidator#persist(DigitalSpecimen)}, and annotated with
+ * {@link AnnotationValidator#apply(PersistentSpecimen, Annotation)}, which copies only the path to
+ * each change. Every version shares all elements the annotation did not change with the version it
+ * was created from, so keeping many versions, for history views, undo or previews, costs memory in
+ * proportion to the changes rather than to the size of the specimen.
+ */
+public final class PersistentSpecimen {
+
+  private final ObjectMapper mapper;
+  private final PersistentJsonObject tree;
+
+  PersistentSpecimen(ObjectMapper mapper, PersistentJsonObject tree) {
+    this.mapper = mapper;
+    this.tree = tree;
+  }
+
+  public String getTargetId() {
+    return tree.get("dcterms:identifier") instanceof String id ? id : null;
+  }
+
+  /**
+   * @return the specimen bound to a new {@link DigitalSpecimen}
+   * @throws InvalidAnnotationException if the specimen can not be bound
+   */
+  public DigitalSpecimen toDigitalSpecimen() throws InvalidAnnotationException {
+    try {
+      return mapper.convertValue(tree, DigitalSpecimen.class);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidAnnotationException("Unable to bind annotated target");
+    }
+  }
+
+  /**
+   * @return the specimen as a new Jackson tree, for example to validate it against a schema
+   */
+  public JsonNode toJsonNode() {
+    return mapper.valueToTree(tree);
+  }
+
+  PersistentJsonObject tree() {
+    return tree;
+  }
+
+}
@@ -0,0 +1,54 @@
+package io.github.dissco.annotationlogic.validator;
+
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+
+/**
+ * A digital specimen that has been serialised and parsed once, so that any number of annotations
+ * can be evaluated against it independently. Created with
+ * {@link AnnotationValidator#prepare(DigitalSpecimen)}.
+ * Applying an annotation never changes the prepared specimen, so it can be shared between threads.
+ */
+public final class PreparedSpecimen {
+
+  private final DigitalSpecimen digitalSpecimen;
+  private final String serialised;
+  private final Object tree;
+
+  PreparedSpecimen(DigitalSpecimen digitalSpecimen, String serialised, Object tree) {
+    this.digitalSpecimen = digitalSpecimen;
+    this.serialised = serialised;
+    this.tree = tree;
+  }
+
+  public String getTargetId() {
+    return digitalSpecimen != null ? digitalSpecimen.getDctermsIdentifier() : null;
+  }
+
+  /**
+   * @return size of the serialised specimen, in characters
+   */
+  public int getDocumentSize() {
+    return serialised.length();
+  }
+
+  /*
+   * The specimen the prepared specimen was created from, returned for annotations that do not
+   * change it. Null for specimens prepared from their JSON.
+   */
+  DigitalSpecimen digitalSpecimen() {
+    return digitalSpecimen;
+  }
+
+  String serialised() {
+    return serialised;
+  }
+
+  /*
+   * The parsed specimen, or null for specimens above the streaming threshold, which are only held
+   * in serialised form
+   */
+  Object tree() {
+    return tree;
+  }
+
+}
@@ -0,0 +1,105 @@
+package io.github.dissco.annotationlogic.validator;
+
+import io.github.dissco.annotationlogic.domain.ProtectionRule;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
+import io.github.dissco.annotationlogic.domain.SelectorType;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.utils.ValidationUtils;
+import io.github.dissco.core.annotationlogic.schema.Agent;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Protects parts of a specimen from annotations. The rules are compiled into a trie of their path
+ * patterns, so checking an annotation takes a single walk of its selector path, however many rules
+ * there are.
+ */
+public class ProtectionPolicy {
+
+  private static final ProtectionPolicy DEFAULTS = new ProtectionPolicy(defaultRules());
+  private final PathPatternTrie<ProtectionRule> trie = new PathPatternTrie<>(
+      "protection rule path");
+  private final int size;
+
+  /**
+   * Compiles a policy
+   *
+   * @param rules the rules of the policy
+   * @throws IllegalArgumentException if the path of a rule is not a valid path pattern
+   */
+  public ProtectionPolicy(Collection<ProtectionRule> rules) {
+    rules.forEach(rule -> trie.add(rule.path(), rule));
+    this.size = rules.size();
+  }
+
+  /**
+   * The system-managed terms and classes DiSSCo protects from all annotations
+   */
+  public static ProtectionPolicy defaults() {
+    return DEFAULTS;
+  }
+
+  /**
+   * The rules of the default policy. The system-managed terms are protected from term selectors,
+   * the system-managed classes from class selectors.
+   */
+  public static List<ProtectionRule> defaultRules() {
+    return Stream.concat(
+            ValidationUtils.FORBIDDEN_FIELDS.stream().sorted()
+                .map(key -> ProtectionRule.forbidden(pathPattern(key), SelectorType.TERM_SELECTOR)),
+            ValidationUtils.FORBIDDEN_CLASSES.stream().sorted()
+                .map(key -> ProtectionRule.forbidden(pathPattern(key), SelectorType.CLASS_SELECTOR)))
+        .toList();
+  }
+
+  private static String pathPattern(String key) {
+    return "$..['" + key + "']";
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks an annotation against the rules protecting its selector path
+   *
+   * @param annotation   the annotation
+   * @param selectorPath parsed selector path of the annotation
+   * @param selectorType type of the selector of the annotation
+   * @throws InvalidAnnotationException if a rule forbids the annotation
+   */
+  public void check(Annotation annotation, SelectorPath selectorPath, SelectorType selectorType)
+      throws InvalidAnnotationException {
+    var agents = getAgents(annotation);
+    for (var rule : findRules(selectorPath)) {
+      if (rule.forbids(annotation.getOaMotivation(), selectorType, agents)) {
+        throw new InvalidAnnotationException(
+            "Annotation is attempting to annotate " + selectorPath + ", which is protected by "
+                + rule.path());
+      }
+    }
+  }
+
+  /*
+   * Every prefix of the path is checked, as rules protect everything below their path
+   */
+  Set<ProtectionRule> findRules(SelectorPath selectorPath) {
+    return trie.findPrefixes(selectorPath);
+  }
+
+  private static Set<String> getAgents(Annotation annotation) {
+    var agents = new HashSet<String>();
+    Stream.of(annotation.getAsGenerator(), annotation.getDctermsCreator())
+        .filter(Objects::nonNull)
+        .map(Agent::getId)
+        .filter(Objects::nonNull)
+        .forEach(agents::add);
+    return agents;
+  }
+
+}
@@ -0,0 +1,408 @@
+package io.github.dissco.annotationlogic.validator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SchemaValidatorsConfig;
+import com.networknt.schema.SpecVersion.VersionFlag;
+import com.networknt.schema.uri.URIFetcher;
+import com.networknt.schema.uri.URLFetcher;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds all known versions of the openDS schemas. The schemas bundled with the library are always
+ * available, additional versions are read from a local directory laid out as
+ * {@code <directory>/<version>/digital-specimen.json}. Other schema files in a version directory,
+ * such as {@code event.json}, are served by their $id to the $refs of the schemas, which are only
+ * fetched from their URI when the registry does not hold them. Schemas are compiled on first use.
+ * Reloading the directory replaces all schemas at once, together with the referenced schemas
+ * resolved for them. Validations that are already running finish with the schemas they started
+ * with.
+ */
+public class SchemaRegistry implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SchemaRegistry.class);
+  private static final JsonSchemaFactory FACTORY = JsonSchemaFactory.getInstance(
+      VersionFlag.V202012);
+  private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+\\.\\d+\\.\\d+)");
+  private static final String BUNDLED_SCHEMAS = "json-schema/";
+  /**
+   * Top-level property with which a document declares the $id of its schema
+   */
+  public static final String SCHEMA_HINT = "$schema";
+  private final ObjectMapper mapper;
+  private final Path directory;
+  private final String defaultVersion;
+  private final AtomicReference<Schemas> schemas = new AtomicReference<>();
+  private final ScheduledExecutorService reloader;
+
+  public enum SchemaType {
+    DIGITAL_SPECIMEN("digital-specimen.json"), DIGITAL_MEDIA("digital-media.json"), ANNOTATION(
+        "annotation.json");
+
+    private final String fileName;
+
+    SchemaType(String fileName) {
+      this.fileName = fileName;
+    }
+  }
+
+  /**
+   * A compiled schema, together with the schemas the validator compiles from it, such as its
+   * fail-fast variant and the schemas its $refs point to. Those are released with the compiled
+   * schema when the registry is reloaded.
+   */
+  public static final class CompiledSchema {
+
+    private static final String REFERENCE = "$ref:";
+    private final String version;
+    private final String fingerprint;
+    private final JsonSchema schema;
+    private final JsonSchemaFactory factory;
+    private final Map<String, JsonSchema> derivedSchemas = new ConcurrentHashMap<>();
+
+    /**
+     * @param version     version of the schema
+     * @param fingerprint hash of the schema content, changes whenever the schema is changed
+     * @param schema      the compiled schema
+     */
+    public CompiledSchema(String version, String fingerprint, JsonSchema schema) {
+      this(version, fingerprint, schema, FACTORY);
+    }
+
+    private CompiledSchema(String version, String fingerprint, JsonSchema schema,
+        JsonSchemaFactory factory) {
+      this.version = version;
+      this.fingerprint = fingerprint;
+      this.schema = schema;
+      this.factory = factory;
+    }
+
+    public String version() {
+      return version;
+    }
+
+    public String fingerprint() {
+      return fingerprint;
+    }
+
+    public JsonSchema schema() {
+      return schema;
+    }
+
+    /*
+     * Returns a schema compiled from this schema, compiling it on first use
+     */
+    JsonSchema derivedSchema(String key, Function<String, JsonSchema> compiler) {
+      return derivedSchemas.computeIfAbsent(key, compiler);
+    }
+
+    /*
+     * Compiles part of this schema, resolving its $refs like the schema itself
+     */
+    JsonSchema compile(URI uri, JsonNode schemaNode, SchemaValidatorsConfig config) {
+      return uri == null ? factory.getSchema(schemaNode, config)
+          : factory.getSchema(uri, schemaNode, config);
+    }
+
+    /*
+     * Returns the schema a $ref of this schema points to, resolving it on first use
+     */
+    JsonSchema referencedSchema(URI uri) {
+      return derivedSchema(REFERENCE + uri, key -> factory.getSchema(uri));
+    }
+  }
+
+  /**
+   * Creates a registry with the bundled schemas and the schemas in the directory
+   *
+   * @param directory      directory with additional schema versions, null for only the bundled
+   *                       schemas
+   * @param defaultVersion version used when a document does not declare its schema, null for the
+   *                       version of the bundled schemas
+   * @param reloadInterval interval at which the directory is checked for changes, null or zero to
+   *                       only reload on {@link #reload()}
+   * @throws IOException if the schemas can not be read
+   */
+  public SchemaRegistry(ObjectMapper mapper, Path directory, String defaultVersion,
+      Duration reloadInterval) throws IOException {
+    this.mapper = mapper;
+    this.directory = directory;
+    this.schemas.set(loadSchemas());
+    this.defaultVersion = defaultVersion != null ? defaultVersion
+        : schemas.get().bundledVersion();
+    if (directory != null && reloadInterval != null && reloadInterval.isPositive()) {
+      reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "schema-registry-reloader");
+        thread.setDaemon(true);
+        return thread;
+      });
+      reloader.scheduleWithFixedDelay(this::reloadIfChanged, reloadInterval.toMillis(),
+          reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+    } else {
+      reloader = null;
+    }
+  }
+
+  /**
+   * Creates a registry that only holds an already compiled specimen schema
+   */
+  public static SchemaRegistry of(JsonSchema specimenSchema) {
+    return new SchemaRegistry(specimenSchema);
+  }
+
+  private SchemaRegistry(JsonSchema specimenSchema) {
+    this.mapper = null;
+    this.directory = null;
+    this.reloader = null;
+    var schemaId = specimenSchema.getSchemaNode().path("$id").asText();
+    var version = findVersion(specimenSchema.getSchemaNode());
+    var key = new SchemaKey(SchemaType.DIGITAL_SPECIMEN, version);
+    var source = new SchemaSource(specimenSchema.getSchemaNode(), schemaId);
+    var loaded = new Schemas(Map.of(key, source), Map.of(schemaId, key), version, Map.of(),
+        FACTORY);
+    loaded.compiled().put(key, new CompiledSchema(version, schemaId, specimenSchema));
+    this.schemas.set(loaded);
+    this.defaultVersion = version;
+  }
+
+  public String getDefaultVersion() {
+    return defaultVersion;
+  }
+
+  public Set<String> getVersions(SchemaType type) {
+    var versions = new TreeSet<String>();
+    schemas.get().sources().keySet().stream()
+        .filter(key -> key.type().equals(type))
+        .forEach(key -> versions.add(key.version()));
+    return versions;
+  }
+
+  /**
+   * Returns a version of a schema, compiling it if it has not been used before
+   *
+   * @throws IllegalArgumentException if the version is not known
+   */
+  public CompiledSchema getSchema(SchemaType type, String version) {
+    var current = schemas.get();
+    var key = new SchemaKey(type, version);
+    var source = current.sources().get(key);
+    if (source == null) {
+      throw new IllegalArgumentException("Unknown " + type + " schema version: " + version);
+    }
+    return current.compiled().computeIfAbsent(key, k -> {
+      LOGGER.info("Compiling {} schema version {}", type, version);
+      return new CompiledSchema(version, source.fingerprint(),
+          current.factory().getSchema(source.node()), current.factory());
+    });
+  }
+
+  /**
+   * Selects the schema a document should be validated against. A document can declare its schema
+   * with a top-level $schema property holding the $id of a known schema. All other documents are
+   * validated against the default version. The openDS schemas do not define $schema as a property
+   * of the document, so it has to be left out when the document is validated, see
+   * {@link #SCHEMA_HINT}.
+   */
+  public CompiledSchema selectSchema(SchemaType type, JsonNode document) {
+    return selectSchema(type, document.path(SCHEMA_HINT).asText(null));
+  }
+
+  /**
+   * Selects a schema by the $id a document declares, see {@link #selectSchema(SchemaType,
+   * JsonNode)}
+   *
+   * @param declaredSchema the $id of the schema, null for the default version
+   */
+  public CompiledSchema selectSchema(SchemaType type, String declaredSchema) {
+    if (declaredSchema != null) {
+      var key = schemas.get().keysById().get(declaredSchema);
+      if (key != null && key.type().equals(type)) {
+        return getSchema(type, key.version());
+      }
+      LOGGER.debug("Unknown schema {}, using default version {}", declaredSchema,
+          defaultVersion);
+    }
+    return getSchema(type, defaultVersion);
+  }
+
+  /**
+   * Reads all schemas again and replaces the current schemas once all of them are read. The
+   * replaced schemas are compiled again on first use.
+   *
+   * @throws IOException if the schemas can not be read, in which case the current schemas are kept
+   */
+  public void reload() throws IOException {
+    if (mapper == null) {
+      // Registries of a single compiled schema have nothing to reload
+      return;
+    }
+    schemas.set(loadSchemas());
+    LOGGER.info("Reloaded schemas from {}", directory);
+  }
+
+  private void reloadIfChanged() {
+    try {
+      if (!schemas.get().lastModified().equals(readLastModified())) {
+        reload();
+      }
+    } catch (IOException | RuntimeException e) {
+      LOGGER.error("Unable to reload schemas from {}, keeping current schemas", directory, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (reloader != null) {
+      reloader.shutdownNow();
+    }
+  }
+
+  private Schemas loadSchemas() throws IOException {
+    var sources = new HashMap<SchemaKey, SchemaSource>();
+    String bundledVersion = null;
+    for (var type : SchemaType.values()) {
+      var resource = BUNDLED_SCHEMAS + type.fileName;
+      try (var input = Thread.currentThread().getContextClassLoader()
+          .getResourceAsStream(resource)) {
+        if (input == null) {
+          continue;
+        }
+        var bytes = input.readAllBytes();
+        var node = mapper.readTree(bytes);
+        var version = findVersion(node);
+        if (SchemaType.DIGITAL_SPECIMEN.equals(type)) {
+          bundledVersion = version;
+        }
+        sources.put(new SchemaKey(type, version), new SchemaSource(node, fingerprint(bytes)));
+      }
+    }
+    var referencedSchemas = new HashMap<String, byte[]>();
+    var lastModified = readLastModified();
+    for (var file : lastModified.keySet()) {
+      var type = Stream.of(SchemaType.values())
+          .filter(schemaType -> schemaType.fileName.equals(file.getFileName().toString()))
+          .findFirst();
+      var bytes = Files.readAllBytes(file);
+      var node = mapper.readTree(bytes);
+      if (type.isPresent()) {
+        sources.put(new SchemaKey(type.get(), file.getParent().getFileName().toString()),
+            new SchemaSource(node, fingerprint(bytes)));
+      } else if (node.hasNonNull("$id")) {
+        referencedSchemas.put(node.get("$id").asText(), bytes);
+      }
+    }
+    var keysById = new HashMap<String, SchemaKey>();
+    sources.forEach((key, source) -> {
+      var schemaId = source.node().path("$id").asText(null);
+      if (schemaId != null) {
+        keysById.put(schemaId, key);
+      }
+    });
+    return new Schemas(Map.copyOf(sources), Map.copyOf(keysById), bundledVersion, lastModified,
+        schemaFactory(Map.copyOf(referencedSchemas)));
+  }
+
+  /*
+   * A schema factory for one set of loaded schemas, so the schemas it fetches and caches for $refs
+   * are replaced on reload. Referenced schemas read from the directory are served without fetching
+   * them.
+   */
+  private static JsonSchemaFactory schemaFactory(Map<String, byte[]> referencedSchemas) {
+    var urlFetcher = new URLFetcher();
+    URIFetcher fetcher = uri -> {
+      var content = referencedSchemas.get(uri.toString());
+      return content != null ? new ByteArrayInputStream(content) : urlFetcher.fetch(uri);
+    };
+    return JsonSchemaFactory.builder(JsonSchemaFactory.getInstance(VersionFlag.V202012))
+        .uriFetcher(fetcher, URLFetcher.SUPPORTED_SCHEMES)
+        .build();
+  }
+
+  private Map<Path, Long> readLastModified() throws IOException {
+    var lastModified = new HashMap<Path, Long>();
+    if (directory == null) {
+      return lastModified;
+    }
+    try (var versionDirectories = Files.list(directory)) {
+      for (var versionDirectory : versionDirectories.filter(Files::isDirectory).toList()) {
+        try (var files = Files.list(versionDirectory)) {
+          for (var file : files.filter(SchemaRegistry::isSchemaFile).toList()) {
+            lastModified.put(file, Files.getLastModifiedTime(file).toMillis());
+          }
+        }
+      }
+    }
+    return lastModified;
+  }
+
+  private static boolean isSchemaFile(Path file) {
+    return Files.isRegularFile(file) && file.getFileName().toString().endsWith(".json");
+  }
+
+  /*
+   * The version is part of the $id of all openDS schemas, and also mentioned in their $comment
+   */
+  private static String findVersion(JsonNode schemaNode) {
+    for (var field : new String[]{"$id", "$comment"}) {
+      var matcher = VERSION_PATTERN.matcher(schemaNode.path(field).asText());
+      if (matcher.find()) {
+        return matcher.group(1);
+      }
+    }
+    return "unversioned";
+  }
+
+  private static String fingerprint(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Unable to fingerprint schema", e);
+    }
+  }
+
+  private record SchemaKey(SchemaType type, String version) {
+
+  }
+
+  private record SchemaSource(JsonNode node, String fingerprint) {
+
+  }
+
+  /*
+   * All schemas known at one point in time, swapped as a whole on reload
+   */
+  private record Schemas(Map<SchemaKey, SchemaSource> sources, Map<String, SchemaKey> keysById,
+                         String bundledVersion, Map<Path, Long> lastModified,
+                         JsonSchemaFactory factory, Map<SchemaKey, CompiledSchema> compiled) {
+
+    private Schemas(Map<SchemaKey, SchemaSource> sources, Map<String, SchemaKey> keysById,
+        String bundledVersion, Map<Path, Long> lastModified, JsonSchemaFactory factory) {
+      this(sources, keysById, bundledVersion, lastModified, factory, new ConcurrentHashMap<>());
+    }
+  }
+
+}
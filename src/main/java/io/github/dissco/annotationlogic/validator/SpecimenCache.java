@@ -0,0 +1,141 @@
+package io.github.dissco.annotationlogic.validator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of prepared specimens, keyed by their identifier, version and serialised content,
+ * so a specimen that receives many annotations is only parsed once. Annotated specimens keep the
+ * {@code ods:version} of the specimen they were created from, so the content is part of the key: an
+ * annotated specimen is cached next to the original one and is never served the original's tree. A
+ * lookup compares the serialised content, so differing specimens never share an entry. Prepared
+ * specimens are never changed by annotations, so cached entries can be shared between threads. The
+ * cache is bounded by the total serialised size of the cached specimens, which the size of their
+ * parsed trees is proportional to. When it is full, the least recently used specimen is evicted
+ * first.
+ */
+public class SpecimenCache {
+
+  private final long maxSize;
+  private final Map<Key, PreparedSpecimen> specimens = new LinkedHashMap<>(16, 0.75f, true);
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private long size;
+
+  /**
+   * @param maxSize maximum total size of the cached specimens, in characters of their serialised
+   *                form
+   */
+  public SpecimenCache(long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  private record Key(String targetId, int version, int contentHash) {
+
+  }
+
+  /*
+   * Returns the cached specimen with the same serialised content, null if it is not cached or has
+   * no identifier or version
+   */
+  PreparedSpecimen get(String targetId, Integer version, String serialised) {
+    if (targetId == null || version == null) {
+      return null;
+    }
+    PreparedSpecimen preparedSpecimen;
+    synchronized (specimens) {
+      preparedSpecimen = specimens.get(new Key(targetId, version, serialised.hashCode()));
+    }
+    if (preparedSpecimen != null && !preparedSpecimen.serialised().equals(serialised)) {
+      // Another specimen with the same hash, this one is not cached
+      preparedSpecimen = null;
+    }
+    if (preparedSpecimen != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return preparedSpecimen;
+  }
+
+  /*
+   * Caches a prepared specimen, unless it has no identifier or version or is larger than the cache
+   */
+  void put(String targetId, Integer version, PreparedSpecimen preparedSpecimen) {
+    var specimenSize = preparedSpecimen.getDocumentSize();
+    if (targetId == null || version == null || specimenSize > maxSize) {
+      return;
+    }
+    synchronized (specimens) {
+      var key = new Key(targetId, version, preparedSpecimen.serialised().hashCode());
+      var previous = specimens.put(key, preparedSpecimen);
+      size += specimenSize - (previous != null ? previous.getDocumentSize() : 0);
+      var eldest = specimens.entrySet().iterator();
+      while (size > maxSize) {
+        size -= eldest.next().getValue().getDocumentSize();
+        eldest.remove();
+        evictions.increment();
+      }
+    }
+  }
+
+  /**
+   * Removes all cached versions and contents of a specimen
+   *
+   * @param targetId identifier of the specimen
+   */
+  public void invalidate(String targetId) {
+    synchronized (specimens) {
+      var entries = specimens.entrySet().iterator();
+      while (entries.hasNext()) {
+        var entry = entries.next();
+        if (entry.getKey().targetId().equals(targetId)) {
+          size -= entry.getValue().getDocumentSize();
+          entries.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * @return number of cached specimens
+   */
+  public int size() {
+    synchronized (specimens) {
+      return specimens.size();
+    }
+  }
+
+  /**
+   * @return total size of the cached specimens, in characters of their serialised form
+   */
+  public long getCachedSize() {
+    synchronized (specimens) {
+      return size;
+    }
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return fraction of lookups that found a cached specimen, 0 if there were none
+   */
+  public double getHitRate() {
+    var hitCount = getHits();
+    var total = hitCount + getMisses();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+}
@@ -0,0 +1,183 @@
+package io.github.dissco.annotationlogic.validator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.github.dissco.annotationlogic.domain.BinaryFormat;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.exception.InvalidTargetException;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads and writes specimens and annotations for the {@link AnnotationValidator}, as JSON with the
+ * library's mapper and in the binary formats with copies of it, which share its configuration
+ */
+final class SpecimenCodec {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpecimenCodec.class);
+  private final ObjectMapper mapper;
+  private final Map<BinaryFormat, ObjectMapper> binaryMappers = new EnumMap<>(BinaryFormat.class);
+
+  SpecimenCodec(ObjectMapper mapper) {
+    this.mapper = mapper;
+    for (var format : BinaryFormat.values()) {
+      binaryMappers.put(format, mapper.copyWith(format.createFactory()));
+    }
+  }
+
+  ObjectMapper mapper() {
+    return mapper;
+  }
+
+  ObjectMapper binaryMapper(BinaryFormat format) {
+    return binaryMappers.get(format);
+  }
+
+  String serialise(Object target) throws InvalidTargetException {
+    try {
+      return mapper.writeValueAsString(target);
+    } catch (JsonProcessingException e) {
+      throw new InvalidTargetException(e.getMessage());
+    }
+  }
+
+  DigitalSpecimen bind(String annotatedTarget) throws InvalidAnnotationException {
+    try {
+      return mapper.readValue(annotatedTarget, DigitalSpecimen.class);
+    } catch (JsonProcessingException e) {
+      LOGGER.warn("Unable to parse annotated target", e);
+      throw new InvalidAnnotationException("Unable to parse annotated target");
+    }
+  }
+
+  /*
+   * Binds a result straight from the tokens it was written to, without serialising it
+   */
+  DigitalSpecimen bind(TokenBuffer annotatedTarget) throws InvalidAnnotationException {
+    try (var parser = annotatedTarget.asParser()) {
+      return mapper.readValue(parser, DigitalSpecimen.class);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to parse annotated target", e);
+      throw new InvalidAnnotationException("Unable to parse annotated target");
+    }
+  }
+
+  /*
+   * Reads a specimen into a persistent tree, through a token buffer so it is never serialised
+   */
+  PersistentJsonObject persist(DigitalSpecimen digitalSpecimen) throws InvalidTargetException {
+    try (var buffer = new TokenBuffer(mapper, false)) {
+      mapper.writeValue(buffer, digitalSpecimen);
+      try (var parser = buffer.asParser()) {
+        return (PersistentJsonObject) PersistentJson.read(parser);
+      }
+    } catch (IOException e) {
+      throw new InvalidTargetException(e.getMessage());
+    }
+  }
+
+  DigitalSpecimen readSpecimen(BinaryFormat format, byte[] digitalSpecimen)
+      throws InvalidTargetException {
+    try {
+      return binaryMapper(format).readValue(digitalSpecimen, DigitalSpecimen.class);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to decode digital specimen", e);
+      throw new InvalidTargetException("Unable to decode digital specimen");
+    }
+  }
+
+  Annotation readAnnotation(BinaryFormat format, byte[] annotation)
+      throws InvalidAnnotationException {
+    try {
+      return binaryMapper(format).readValue(annotation, Annotation.class);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to decode annotation", e);
+      throw new InvalidAnnotationException("Unable to decode annotation");
+    }
+  }
+
+  byte[] writeSpecimen(BinaryFormat format, DigitalSpecimen digitalSpecimen)
+      throws InvalidTargetException {
+    try {
+      return binaryMapper(format).writeValueAsBytes(digitalSpecimen);
+    } catch (JsonProcessingException e) {
+      throw new InvalidTargetException(e.getMessage());
+    }
+  }
+
+  /*
+   * Decodes a specimen into a tree of maps and lists, which the JsonPath provider reads as any
+   * parsed specimen
+   */
+  Object decodeTree(BinaryFormat format, byte[] digitalSpecimen) throws InvalidTargetException {
+    Object tree;
+    try {
+      tree = binaryMapper(format).readValue(digitalSpecimen, Object.class);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to decode digital specimen", e);
+      throw new InvalidTargetException("Unable to decode digital specimen");
+    }
+    if (!(tree instanceof Map<?, ?>)) {
+      throw new InvalidTargetException("Digital specimen must be an object");
+    }
+    return tree;
+  }
+
+  byte[] encodeTree(BinaryFormat format, Object tree) throws InvalidAnnotationException {
+    try {
+      return binaryMapper(format).writeValueAsBytes(tree);
+    } catch (JsonProcessingException e) {
+      LOGGER.warn("Unable to encode annotated target", e);
+      throw new InvalidAnnotationException("Unable to encode annotated target");
+    }
+  }
+
+  /*
+   * Writes a buffered result as UTF-8 encoded JSON
+   */
+  static byte[] writeBytes(TokenBuffer annotatedTarget) throws InvalidAnnotationException {
+    var output = new ByteArrayOutputStream();
+    try (var generator = annotatedTarget.getCodec().getFactory().createGenerator(output)) {
+      annotatedTarget.serialize(generator);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to write annotated target", e);
+      throw new InvalidAnnotationException("Unable to write annotated target");
+    }
+    return output.toByteArray();
+  }
+
+  /*
+   * Reads a buffered result into a Jackson tree
+   */
+  static JsonNode readTree(ObjectMapper mapper, TokenBuffer annotatedTarget)
+      throws InvalidAnnotationException {
+    try (var parser = annotatedTarget.asParser()) {
+      return mapper.readTree(parser);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to read resulting digital specimen", e);
+      throw new InvalidAnnotationException("Unable to read resulting digital specimen");
+    }
+  }
+
+  /*
+   * Reads a serialised result into a Jackson tree, with the mapper of the format it is in
+   */
+  static JsonNode readTree(ObjectMapper formatMapper, byte[] digitalSpecimen)
+      throws InvalidAnnotationException {
+    try {
+      return formatMapper.readTree(digitalSpecimen);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to read resulting digital specimen", e);
+      throw new InvalidAnnotationException("Unable to read resulting digital specimen");
+    }
+  }
+
+}
@@ -0,0 +1,274 @@
+package io.github.dissco.annotationlogic.validator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dissco.annotationlogic.domain.PathSegment;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies a single change to a serialised specimen in one pass over its JSON tokens. Everything
+ * outside the selector path is copied token by token from the source to the caller's generator, so
+ * the specimen is never parsed into a tree, only the changed element is read as one. Apart from
+ * that element, the memory used is that of the source and the generator the caller passes in: a
+ * stream read from and written to holds nothing of the specimen. Used by the
+ * {@link AnnotationValidator} for specimens above the streaming threshold, and for specimens it
+ * streams from an input to an output.
+ */
+class StreamingAnnotationApplier {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamingAnnotationApplier.class);
+  private static final String IDENTIFIER = "dcterms:identifier";
+  private final ObjectMapper mapper;
+
+  StreamingAnnotationApplier(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  /**
+   * Applies a change to the target, writing the annotated specimen to the output. The output is
+   * flushed, but not closed.
+   *
+   * @param target     serialised digital specimen
+   * @param output     generator the annotated specimen is written to, for example a token buffer
+   * @param targetId   identifier the annotation targets
+   * @param path       selector path of the annotation
+   * @param motivation motivation of the annotation
+   * @param newValue   value to set at the path, null for deleting annotations
+   * @return whether the annotation changed the specimen
+   * @throws InvalidAnnotationException if the annotation does not target this specimen or the path
+   *                                    is not valid for the motivation
+   */
+  PatchedTarget applyAnnotation(String target, JsonGenerator output, String targetId,
+      SelectorPath path, OaMotivation motivation, JsonNode newValue)
+      throws InvalidAnnotationException {
+    return applyAnnotation(() -> mapper.getFactory().createParser(target), output, targetId, path,
+        motivation, newValue);
+  }
+
+  /**
+   * Applies a change to a target encoded in the format of the factory, for example Smile or CBOR.
+   * The output should write the same format.
+   *
+   * @param target  encoded digital specimen
+   * @param factory factory of the format the target is encoded in
+   * @see #applyAnnotation(String, JsonGenerator, String, SelectorPath, OaMotivation, JsonNode)
+   */
+  PatchedTarget applyAnnotation(byte[] target, JsonFactory factory, JsonGenerator output,
+      String targetId, SelectorPath path, OaMotivation motivation, JsonNode newValue)
+      throws InvalidAnnotationException {
+    return applyAnnotation(() -> factory.createParser(target), output, targetId, path, motivation,
+        newValue);
+  }
+
+  /**
+   * Applies a change to a target read from a stream, which is read up to the end of the specimen
+   * but not closed. Nothing of the specimen is held apart from the changed element.
+   *
+   * @param target  stream of the encoded digital specimen
+   * @param factory factory of the format the target is encoded in
+   * @see #applyAnnotation(String, JsonGenerator, String, SelectorPath, OaMotivation, JsonNode)
+   */
+  PatchedTarget applyAnnotation(InputStream target, JsonFactory factory, JsonGenerator output,
+      String targetId, SelectorPath path, OaMotivation motivation, JsonNode newValue)
+      throws InvalidAnnotationException {
+    return applyAnnotation(
+        () -> factory.createParser(target).disable(JsonParser.Feature.AUTO_CLOSE_SOURCE), output,
+        targetId, path, motivation, newValue);
+  }
+
+  private PatchedTarget applyAnnotation(ParserSource source, JsonGenerator output,
+      String targetId, SelectorPath path, OaMotivation motivation, JsonNode newValue)
+      throws InvalidAnnotationException {
+    var state = new PatchState(path, motivation, newValue);
+    try (var parser = source.createParser()) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new InvalidAnnotationException("Unable to read target as a digital specimen");
+      }
+      copyOnPath(parser, output, 0, state);
+      output.flush();
+    } catch (IOException e) {
+      LOGGER.warn("Unable to stream annotated target", e);
+      throw new InvalidAnnotationException("Unable to parse annotated target");
+    }
+    if (!Objects.equals(targetId, state.identifier)) {
+      throw new InvalidAnnotationException("Annotation does not target provided target");
+    }
+    if (OaMotivation.ODS_ADDING.equals(motivation)) {
+      if (state.targetsFound > 0 || state.pathBroken || state.parentsFound == 0) {
+        throw new InvalidAnnotationException(
+            "Invalid path. Target path must NOT exist for ods:adding annotation, but parent path must exist. Use a class selector instead.");
+      }
+    } else if (state.targetsMissing > 0 || state.pathBroken || state.parentsFound == 0) {
+      throw new InvalidAnnotationException(
+          "Invalid path. Target path must exist for ods:editing annotation");
+    }
+    return new PatchedTarget(state.changed, state.declaredSchema);
+  }
+
+  @FunctionalInterface
+  private interface ParserSource {
+
+    JsonParser createParser() throws IOException;
+  }
+
+  /**
+   * The outcome of applying an annotation to a serialised specimen, which is written to the output
+   *
+   * @param changed        false if the annotation did not change the specimen
+   * @param declaredSchema the $id of the schema the specimen declares, null if it declares none
+   */
+  record PatchedTarget(boolean changed, String declaredSchema) {
+
+  }
+
+  /*
+   * Copies the value the parser is positioned on. The location of the value matches the first
+   * depth segments of the selector path, so its children are checked against the next segment.
+   * With wildcard segments, the path can match several containers. Every one of them is patched.
+   */
+  private void copyOnPath(JsonParser parser, JsonGenerator generator, int depth, PatchState state)
+      throws IOException {
+    var segment = state.path.get(depth);
+    var isParent = depth == state.path.size() - 1;
+    var segmentFound = false;
+    if (parser.currentToken() == JsonToken.START_OBJECT && !segment.isIndex()) {
+      generator.writeStartObject();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        var fieldName = parser.currentName();
+        var token = parser.nextToken();
+        if (depth == 0 && token == JsonToken.VALUE_STRING) {
+          if (IDENTIFIER.equals(fieldName)) {
+            state.identifier = parser.getText();
+          } else if (SchemaRegistry.SCHEMA_HINT.equals(fieldName)) {
+            state.declaredSchema = parser.getText();
+          }
+        }
+        if (segment.key().equals(fieldName)) {
+          segmentFound = true;
+          if (isParent) {
+            patchTarget(parser, generator, segment, state);
+          } else {
+            generator.writeFieldName(fieldName);
+            copyOnPath(parser, generator, depth + 1, state);
+          }
+        } else {
+          generator.writeFieldName(fieldName);
+          generator.copyCurrentStructure(parser);
+        }
+      }
+      if (isParent) {
+        addMissingTarget(generator, segment, segmentFound, false, state);
+      }
+      generator.writeEndObject();
+    } else if (parser.currentToken() == JsonToken.START_ARRAY && segment.isIndex()) {
+      generator.writeStartArray();
+      // An element added to an array is a no-op if the array already holds an identical element
+      var compareElements = isParent && OaMotivation.ODS_ADDING.equals(state.motivation);
+      var duplicateFound = false;
+      var index = 0;
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (compareElements && !segment.matchesIndex(index)) {
+          var element = mapper.readTree(parser);
+          duplicateFound |= element.equals(state.newValue);
+          mapper.writeTree(generator, element);
+        } else if (segment.matchesIndex(index)) {
+          segmentFound = true;
+          if (isParent) {
+            patchTarget(parser, generator, segment, state);
+          } else {
+            copyOnPath(parser, generator, depth + 1, state);
+          }
+        } else {
+          generator.copyCurrentStructure(parser);
+        }
+        index++;
+      }
+      if (isParent) {
+        addMissingTarget(generator, segment, segmentFound, duplicateFound, state);
+      }
+      generator.writeEndArray();
+    } else {
+      // The path continues into a value of the wrong type, it does not exist in this document
+      generator.copyCurrentStructure(parser);
+      state.pathBroken = true;
+      return;
+    }
+    if (!isParent && !segmentFound) {
+      state.pathBroken = true;
+    }
+  }
+
+  private void patchTarget(JsonParser parser, JsonGenerator generator, PathSegment segment,
+      PatchState state) throws IOException {
+    state.targetsFound++;
+    if (OaMotivation.ODS_ADDING.equals(state.motivation)) {
+      // Existing targets are left untouched, the annotation is rejected once the stream completes
+      writeFieldName(generator, segment);
+      generator.copyCurrentStructure(parser);
+      return;
+    }
+    if (OaMotivation.OA_EDITING.equals(state.motivation)) {
+      // Only the edited element is read, to find out if the edit changes it
+      var currentValue = mapper.readTree(parser);
+      state.changed |= !currentValue.equals(state.newValue);
+      writeFieldName(generator, segment);
+      mapper.writeTree(generator, state.newValue);
+    } else {
+      parser.skipChildren();
+      state.changed = true;
+    }
+  }
+
+  private void addMissingTarget(JsonGenerator generator, PathSegment segment,
+      boolean targetFound, boolean duplicateFound, PatchState state) throws IOException {
+    state.parentsFound++;
+    if (targetFound) {
+      return;
+    }
+    state.targetsMissing++;
+    if (OaMotivation.ODS_ADDING.equals(state.motivation) && !duplicateFound) {
+      state.changed = true;
+      writeFieldName(generator, segment);
+      mapper.writeTree(generator, state.newValue);
+    }
+  }
+
+  private static void writeFieldName(JsonGenerator generator, PathSegment segment)
+      throws IOException {
+    if (!segment.isIndex()) {
+      generator.writeFieldName(segment.key());
+    }
+  }
+
+  private static final class PatchState {
+
+    private final SelectorPath path;
+    private final OaMotivation motivation;
+    private final JsonNode newValue;
+    private String identifier;
+    private String declaredSchema;
+    private boolean pathBroken;
+    private int parentsFound;
+    private int targetsFound;
+    private int targetsMissing;
+    private boolean changed;
+
+    private PatchState(SelectorPath path, OaMotivation motivation, JsonNode newValue) {
+      this.path = path;
+      this.motivation = motivation;
+      this.newValue = newValue;
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+package io.github.dissco.annotationlogic.validator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded memo of specimen subtrees that have already passed schema validation, keyed by a hash of
+ * their content and of the schema they were validated against. When the memo is full, the least
+ * recently used entry is evicted.
+ */
+public class ValidationMemo {
+
+  private final int maxEntries;
+  private final Map<String, Boolean> validHashes;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public ValidationMemo(int maxEntries) {
+    this.maxEntries = maxEntries;
+    this.validHashes = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+        var evict = size() > ValidationMemo.this.maxEntries;
+        if (evict) {
+          evictions.increment();
+        }
+        return evict;
+      }
+    };
+  }
+
+  /**
+   * Checks whether a subtree has already been validated
+   *
+   * @param hash content hash of the subtree
+   * @return true if the subtree has been validated before
+   */
+  public boolean isValid(String hash) {
+    boolean valid;
+    synchronized (validHashes) {
+      valid = validHashes.get(hash) != null;
+    }
+    if (valid) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return valid;
+  }
+
+  /**
+   * Records that a subtree passed schema validation
+   *
+   * @param hash content hash of the subtree
+   */
+  public void markValid(String hash) {
+    synchronized (validHashes) {
+      validHashes.put(hash, Boolean.TRUE);
+    }
+  }
+
+  public int size() {
+    synchronized (validHashes) {
+      return validHashes.size();
+    }
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return fraction of lookups that found an already validated subtree, 0 if there were none
+   */
+  public double getHitRate() {
+    var hitCount = getHits();
+    var total = hitCount + getMisses();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+}
@@ -0,0 +1,318 @@
+package io.github.dissco.annotationlogic.validator;
+
+import io.github.dissco.annotationlogic.domain.AnnotationLane;
+import io.github.dissco.annotationlogic.domain.ScheduledAnnotationResult;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.exception.InvalidTargetException;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import jakarta.annotation.Nonnull;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission control in front of the {@link AnnotationValidator}. Annotations are queued in a lane
+ * by their creator, see {@link AnnotationLane#of(Annotation)}, and taken up by a fixed number of
+ * workers. Human annotations are served first, but after every {@code humanWeight} human
+ * annotations a waiting machine annotation is taken up, so bursts of curator requests do not starve
+ * machine annotations. Lanes are bounded: annotations submitted to a full lane are not queued but
+ * reported as overloaded. Annotations whose deadline has passed are dropped before they are
+ * processed. The workers are started with {@link #start()}.
+ */
+public class ValidationScheduler implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ValidationScheduler.class);
+  private final AnnotationValidator annotationValidator;
+  private final Clock clock;
+  private final int humanWeight;
+  private final int workerCount;
+  private final Map<AnnotationLane, Lane> lanes = new EnumMap<>(AnnotationLane.class);
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition queued = lock.newCondition();
+  private final List<Thread> workers = new ArrayList<>();
+  private int humanStreak;
+  private boolean started;
+  private boolean closed;
+
+  /**
+   * Statistics of a lane since the scheduler was created
+   *
+   * @param queued        annotations currently waiting in the lane
+   * @param admitted      annotations accepted into the lane
+   * @param shed          annotations not accepted because the lane was full
+   * @param expired       annotations dropped because their deadline passed
+   * @param processed     annotations applied or rejected by the validator
+   * @param meanQueueWait mean time annotations waited before they were taken up
+   * @param maxQueueWait  longest time an annotation waited before it was taken up
+   */
+  public record LaneStatistics(int queued, long admitted, long shed, long expired, long processed,
+                               Duration meanQueueWait, Duration maxQueueWait) {
+
+  }
+
+  /**
+   * Creates a scheduler. Annotations can be submitted right away, but are only taken up once the
+   * workers are started with {@link #start()}.
+   *
+   * @param annotationValidator    validator the annotations are applied with
+   * @param workers                number of annotations processed at the same time
+   * @param humanQueueCapacity     maximum number of waiting human annotations
+   * @param machineQueueCapacity   maximum number of waiting machine annotations
+   * @param humanWeight            number of human annotations taken up before a waiting machine
+   *                               annotation
+   * @throws IllegalArgumentException if any of the numbers is smaller than 1
+   */
+  public ValidationScheduler(AnnotationValidator annotationValidator, int workers,
+      int humanQueueCapacity, int machineQueueCapacity, int humanWeight) {
+    this(annotationValidator, workers, humanQueueCapacity, machineQueueCapacity, humanWeight,
+        Clock.systemUTC());
+  }
+
+  ValidationScheduler(AnnotationValidator annotationValidator, int workers, int humanQueueCapacity,
+      int machineQueueCapacity, int humanWeight, Clock clock) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("A validation scheduler needs at least one worker");
+    }
+    if (humanQueueCapacity < 1 || machineQueueCapacity < 1 || humanWeight < 1) {
+      throw new IllegalArgumentException("Queue capacities and human weight must be at least 1");
+    }
+    this.annotationValidator = annotationValidator;
+    this.clock = clock;
+    this.workerCount = workers;
+    this.humanWeight = humanWeight;
+    lanes.put(AnnotationLane.HUMAN, new Lane(humanQueueCapacity));
+    lanes.put(AnnotationLane.MACHINE, new Lane(machineQueueCapacity));
+  }
+
+  /**
+   * Starts the workers, which take up the queued annotations
+   *
+   * @throws IllegalStateException if the scheduler was already started or is closed
+   */
+  public void start() {
+    lock.lock();
+    try {
+      if (started || closed) {
+        throw new IllegalStateException("Validation scheduler was already started or is closed");
+      }
+      started = true;
+      for (int i = 0; i < workerCount; i++) {
+        var worker = new Thread(this::work, "annotation-validation-" + i);
+        worker.setDaemon(true);
+        worker.start();
+        workers.add(worker);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Submits an annotation without a deadline, see
+   * {@link #submit(DigitalSpecimen, Annotation, Instant)}
+   */
+  public CompletableFuture<ScheduledAnnotationResult> submit(
+      @Nonnull DigitalSpecimen digitalSpecimen, @Nonnull Annotation annotation) {
+    return submit(digitalSpecimen, annotation, null);
+  }
+
+  /**
+   * Queues an annotation to be applied to a specimen. The returned future completes with an
+   * overloaded result right away if the lane of the annotation is full, and with an expired result
+   * if the deadline passes before the annotation is taken up. Otherwise it completes with the
+   * result of {@link AnnotationValidator#applyAnnotationWithResult(DigitalSpecimen, Annotation)}.
+   *
+   * @param digitalSpecimen digital specimen being annotated
+   * @param annotation      annotation to apply
+   * @param deadline        moment after which the caller no longer needs the result, for example
+   *                        the deadline of the request that submitted it, null for no deadline
+   * @return the outcome of the annotation
+   * @throws IllegalStateException if the scheduler is closed
+   */
+  public CompletableFuture<ScheduledAnnotationResult> submit(
+      @Nonnull DigitalSpecimen digitalSpecimen, @Nonnull Annotation annotation, Instant deadline) {
+    var laneType = AnnotationLane.of(annotation);
+    var lane = lanes.get(laneType);
+    var now = clock.instant();
+    if (deadline != null && !now.isBefore(deadline)) {
+      lane.expired.increment();
+      return CompletableFuture.completedFuture(ScheduledAnnotationResult.expired(Duration.ZERO));
+    }
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("Validation scheduler is closed");
+      }
+      if (lane.queue.size() >= lane.capacity) {
+        lane.shed.increment();
+        return CompletableFuture.completedFuture(ScheduledAnnotationResult.overloaded());
+      }
+      var task = new Task(laneType, digitalSpecimen, annotation, deadline, now,
+          new CompletableFuture<>());
+      lane.queue.add(task);
+      lane.admitted.increment();
+      queued.signal();
+      return task.future();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public LaneStatistics getStatistics(@Nonnull AnnotationLane laneType) {
+    var lane = lanes.get(laneType);
+    int queueSize;
+    lock.lock();
+    try {
+      queueSize = lane.queue.size();
+    } finally {
+      lock.unlock();
+    }
+    var waits = lane.waits.sum();
+    return new LaneStatistics(queueSize, lane.admitted.sum(), lane.shed.sum(),
+        lane.expired.sum(), lane.processed.sum(),
+        Duration.ofNanos(waits == 0 ? 0 : lane.waitNanos.sum() / waits),
+        Duration.ofNanos(lane.maxWaitNanos.get()));
+  }
+
+  /**
+   * Stops accepting annotations. The workers process the annotations that are already queued and
+   * then stop.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      queued.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /*
+   * Takes up the next queued annotation on the calling thread, returns false if none was queued
+   */
+  boolean runNext() {
+    Task task;
+    lock.lock();
+    try {
+      task = poll();
+    } finally {
+      lock.unlock();
+    }
+    if (task == null) {
+      return false;
+    }
+    run(task);
+    return true;
+  }
+
+  private void work() {
+    try {
+      Task task;
+      while ((task = take()) != null) {
+        run(task);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Task take() throws InterruptedException {
+    lock.lock();
+    try {
+      var task = poll();
+      while (task == null && !closed) {
+        queued.await();
+        task = poll();
+      }
+      return task;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /*
+   * Must be called while holding the lock
+   */
+  private Task poll() {
+    var human = lanes.get(AnnotationLane.HUMAN).queue;
+    var machine = lanes.get(AnnotationLane.MACHINE).queue;
+    if (!human.isEmpty() && (machine.isEmpty() || humanStreak < humanWeight)) {
+      humanStreak++;
+      return human.poll();
+    }
+    humanStreak = 0;
+    return machine.poll();
+  }
+
+  private void run(Task task) {
+    var lane = lanes.get(task.lane());
+    var now = clock.instant();
+    var queueWait = Duration.between(task.enqueued(), now);
+    lane.recordWait(queueWait);
+    if (task.deadline() != null && !now.isBefore(task.deadline())) {
+      lane.expired.increment();
+      task.future().complete(ScheduledAnnotationResult.expired(queueWait));
+      return;
+    }
+    try {
+      var result = annotationValidator.applyAnnotationWithResult(task.digitalSpecimen(),
+          task.annotation());
+      task.future().complete(ScheduledAnnotationResult.applied(result, queueWait));
+    } catch (InvalidAnnotationException | InvalidTargetException e) {
+      task.future().complete(ScheduledAnnotationResult.rejected(e, queueWait));
+    } catch (RuntimeException e) {
+      LOGGER.error("Unable to apply annotation to {}",
+          task.digitalSpecimen().getDctermsIdentifier(), e);
+      task.future().completeExceptionally(e);
+    } finally {
+      lane.processed.increment();
+    }
+  }
+
+  private record Task(AnnotationLane lane, DigitalSpecimen digitalSpecimen,
+                      Annotation annotation, Instant deadline, Instant enqueued,
+                      CompletableFuture<ScheduledAnnotationResult> future) {
+
+  }
+
+  private static final class Lane {
+
+    private final int capacity;
+    private final ArrayDeque<Task> queue = new ArrayDeque<>();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    private Lane(int capacity) {
+      this.capacity = capacity;
+    }
+
+    private void recordWait(Duration queueWait) {
+      var nanos = queueWait.toNanos();
+      waits.increment();
+      waitNanos.add(nanos);
+      maxWaitNanos.accumulate(nanos);
+    }
+
+  }
+
+}
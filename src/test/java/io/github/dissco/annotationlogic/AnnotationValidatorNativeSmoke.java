@@ -0,0 +1,57 @@
+package io.github.dissco.annotationlogic;
+
+import static io.github.dissco.annotationlogic.TestUtils.NEW_VALUE;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotationTarget;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static io.github.dissco.annotationlogic.TestUtils.givenEvent;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.dissco.annotationlogic.configuration.AnnotationLogicLibraryConfiguration;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.validator.AnnotationValidator;
+import io.github.dissco.core.annotationlogic.schema.Location;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Smoke test of the auto-configured validator, run in a native image with
+ * {@code mvn test -Pnative-smoke} on a GraalVM JDK. It does not use mocks, which are not supported
+ * in native images.
+ */
+@Tag("native")
+@SpringBootTest(classes = {AnnotationLogicLibraryConfiguration.class})
+class AnnotationValidatorNativeSmoke {
+
+  @Autowired
+  private AnnotationValidator annotationValidator;
+
+  @Test
+  void testApplyAnnotation() throws Exception {
+    // Given
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var result = annotationValidator.applyAnnotation(givenDigitalSpecimen(), givenAnnotation());
+
+    // Then
+    assertThat(result).isEqualTo(expected);
+  }
+
+  @Test
+  void testInvalidAnnotation() {
+    // Given
+    var annotation = givenAnnotation()
+        .withOaHasTarget(givenAnnotationTarget("$['dwc:pathDoesNotExist']"));
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyAnnotation(givenDigitalSpecimen(), annotation));
+  }
+
+}
@@ -0,0 +1,205 @@
+package io.github.dissco.annotationlogic;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.REFLECTIVE_MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import io.github.dissco.annotationlogic.corpus.CorpusGenerator;
+import io.github.dissco.annotationlogic.corpus.CorpusSize;
+import io.github.dissco.annotationlogic.utils.SerializerUtils;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.DigitalMedia;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import io.github.dissco.core.annotationlogic.schema.OaHasSelector;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class GeneratedModelTest {
+
+  private static final String SCHEMA_PACKAGE = "io.github.dissco.core.annotationlogic.schema";
+  private static final String ADDITIONAL_PROPERTIES = "additionalProperties";
+
+  @Test
+  void testAdditionalPropertiesAllocatedLazily() throws Exception {
+    // Given
+    var selector = new OaHasSelector();
+
+    // When
+    var empty = selector.getAdditionalProperties();
+    var extended = new OaHasSelector().withAdditionalProperty("ods:extra", "value");
+
+    // Then
+    assertThat(empty).isEmpty();
+    assertThat(additionalProperties(selector)).isNull();
+    assertThat(extended.getAdditionalProperties()).containsEntry("ods:extra", "value");
+    assertThat(selector).isEqualTo(new OaHasSelector()).hasSameHashCodeAs(new OaHasSelector());
+    assertThat(extended).isNotEqualTo(selector);
+  }
+
+  @Test
+  void testLargeSpecimenAllocatesNoAdditionalProperties() throws Exception {
+    // Given
+    var json = MAPPER.writeValueAsBytes(
+        new CorpusGenerator(42).givenSpecimen(CorpusSize.LARGE));
+
+    // When
+    var specimen = MAPPER.readValue(json, DigitalSpecimen.class);
+
+    // Then
+    var footprint = footprint(specimen);
+    assertThat(footprint.objects()).isGreaterThan(5_000);
+    assertThat(footprint.allocatedMaps()).isZero();
+  }
+
+  @Test
+  void testAdditionalPropertyNamesCanonicalized() throws Exception {
+    // Given
+    var json = """
+        {"@type": "ods:TermSelector", "ods:term": "$['dwc:country']"}
+        """;
+
+    // When
+    var first = MAPPER.readValue(json, OaHasSelector.class);
+    var second = MAPPER.readValue(json, OaHasSelector.class);
+
+    // Then
+    assertThat(first.getAdditionalProperties().keySet())
+        .zipSatisfy(second.getAdditionalProperties().keySet(),
+            (firstKey, secondKey) -> assertThat(firstKey).isSameAs(secondKey));
+  }
+
+  @Test
+  void testGeneratedSerializersRegistered() throws Exception {
+    // When
+    var serializer = MAPPER.getSerializerProviderInstance()
+        .findValueSerializer(DigitalSpecimen.class);
+
+    // Then
+    assertThat(serializer).isNotInstanceOf(BeanSerializer.class);
+    assertThat(serializer.getClass().getPackageName())
+        .isEqualTo("io.github.dissco.core.annotationlogic.serialization");
+    assertThat(REFLECTIVE_MAPPER.getSerializerProviderInstance()
+        .findValueSerializer(DigitalSpecimen.class)).isInstanceOf(BeanSerializer.class);
+  }
+
+  @Test
+  void testGeneratedSerializersNotDiscovered() throws Exception {
+    // Given
+    var mapper = new ObjectMapper().findAndRegisterModules();
+
+    // When
+    var serializer = mapper.getSerializerProviderInstance()
+        .findValueSerializer(DigitalSpecimen.class);
+
+    // Then
+    assertThat(serializer).isInstanceOf(BeanSerializer.class);
+    assertThat(SerializerUtils.registerSchemaModule(mapper).getRegisteredModuleIds())
+        .contains(SerializerUtils.SCHEMA_MODULE);
+  }
+
+  @Test
+  void testGeneratedSerializersMatchReflective() throws Exception {
+    // Given
+    var generator = new CorpusGenerator(42);
+    var specimen = generator.givenSpecimen(CorpusSize.TYPICAL);
+    var annotations = generator.givenAnnotations(specimen);
+    var media = new DigitalMedia().withId("https://doi.org/10.3535/AAA-BBB-CCC")
+        .withAdditionalProperty("ods:note", "note")
+        .withAdditionalProperty("ods:empty", "");
+
+    // When / Then
+    for (var value : List.of(specimen, media, givenAnnotation())) {
+      var json = REFLECTIVE_MAPPER.writeValueAsString(value);
+      assertThat(MAPPER.writeValueAsString(value)).isEqualTo(json);
+      assertThat(MAPPER.readValue(json, value.getClass()))
+          .isEqualTo(REFLECTIVE_MAPPER.readValue(json, value.getClass()));
+    }
+    for (var generated : annotations) {
+      var json = REFLECTIVE_MAPPER.writeValueAsString(generated.annotation());
+      assertThat(MAPPER.writeValueAsString(generated.annotation())).isEqualTo(json);
+      assertThat(MAPPER.readValue(json, Annotation.class)).isEqualTo(generated.annotation());
+    }
+  }
+
+  @Test
+  void testGeneratedDeserializerRejectsInvalidJson() throws Exception {
+    // Given
+    var unknownMotivation = MAPPER.writeValueAsString(givenAnnotation())
+        .replace("\"oa:editing\"", "\"oa:unknown\"");
+    var unknownProperty = "{\"ods:unknown\": 1}";
+
+    // When / Then
+    assertThrows(JsonMappingException.class,
+        () -> MAPPER.readValue(unknownMotivation, Annotation.class));
+    assertThrows(JsonMappingException.class,
+        () -> MAPPER.readValue(unknownProperty, Annotation.class));
+    assertThrows(JsonMappingException.class, () -> MAPPER.readValue("[]", Annotation.class));
+  }
+
+  private static Object additionalProperties(Object model) throws ReflectiveOperationException {
+    var field = model.getClass().getDeclaredField(ADDITIONAL_PROPERTIES);
+    field.setAccessible(true);
+    return field.get(model);
+  }
+
+  /*
+   * Walks the object graph of a deserialized model, counting the generated objects and the
+   * additional properties maps they hold
+   */
+  private static Footprint footprint(Object root) throws ReflectiveOperationException {
+    Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    var queue = new ArrayDeque<Object>();
+    queue.add(root);
+    var objects = 0;
+    var allocatedMaps = 0;
+    while (!queue.isEmpty()) {
+      var current = queue.poll();
+      if (!visited.add(current)) {
+        continue;
+      }
+      if (current instanceof Iterable<?> iterable) {
+        iterable.forEach(element -> enqueue(queue, element));
+      } else if (current instanceof Map<?, ?> map) {
+        map.values().forEach(value -> enqueue(queue, value));
+      } else if (current.getClass().getPackageName().equals(SCHEMA_PACKAGE)
+          && !current.getClass().isEnum()) {
+        objects++;
+        for (var field : current.getClass().getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers())) {
+            continue;
+          }
+          field.setAccessible(true);
+          var value = field.get(current);
+          if (field.getName().equals(ADDITIONAL_PROPERTIES)) {
+            allocatedMaps += value == null ? 0 : 1;
+          } else {
+            enqueue(queue, value);
+          }
+        }
+      }
+    }
+    return new Footprint(objects, allocatedMaps);
+  }
+
+  private static void enqueue(ArrayDeque<Object> queue, Object value) {
+    if (value != null) {
+      queue.add(value);
+    }
+  }
+
+  private record Footprint(int objects, int allocatedMaps) {
+
+  }
+
+}
@@ -7,6 +7,7 @@ import io.github.dissco.annotationlogic.configuration.DateDeserializerLib;
 import io.github.dissco.annotationlogic.configuration.DateSerializerLib;
 import io.github.dissco.annotationlogic.configuration.InstantDeserializerLib;
 import io.github.dissco.annotationlogic.configuration.InstantSerializerLib;
+import io.github.dissco.annotationlogic.utils.SerializerUtils;
 import io.github.dissco.core.annotationlogic.schema.Agent;
 import io.github.dissco.core.annotationlogic.schema.Agent.Type;
 import io.github.dissco.core.annotationlogic.schema.Annotation;
@@ -41,10 +42,17 @@ public class TestUtils {
   public static final String SPECIMEN_ID = DOI_PROXY + "10.3535/AAA-BBB-CCC";
   public static final String FDO_TYPE = "https://doi.org/21.T11148/cf458ca9ee1d44a5608f";
   public static final ObjectMapper MAPPER;
+  // Binds the openDS classes through Jackson's reflective bean introspection
+  public static final ObjectMapper REFLECTIVE_MAPPER;
   public static final String NEW_VALUE = "Some new value!";
 
   static {
-    var mapper = new ObjectMapper().findAndRegisterModules();
+    MAPPER = givenMapper(
+        SerializerUtils.registerSchemaModule(new ObjectMapper().findAndRegisterModules()));
+    REFLECTIVE_MAPPER = givenMapper(new ObjectMapper());
+  }
+
+  private static ObjectMapper givenMapper(ObjectMapper mapper) {
     SimpleModule dateModule = new SimpleModule();
     dateModule.addSerializer(Instant.class, new InstantSerializerLib());
     dateModule.addDeserializer(Instant.class, new InstantDeserializerLib());
@@ -52,7 +60,7 @@ public class TestUtils {
     dateModule.addDeserializer(Date.class, new DateDeserializerLib());
     mapper.registerModule(dateModule);
     mapper.setSerializationInclusion(Include.NON_NULL);
-    MAPPER = mapper.copy();
+    return mapper.copy();
   }
 
 
@@ -1,10 +1,13 @@
 package io.github.dissco.annotationlogic;
 
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.dissco.annotationlogic.configuration.AnnotationLogicLibraryConfiguration;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
 import io.github.dissco.annotationlogic.validator.AnnotationValidator;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
@@ -12,7 +15,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
 
-@SpringBootTest(classes = {AnnotationLogicLibraryConfiguration.class})
+@SpringBootTest(classes = {AnnotationLogicLibraryConfiguration.class}, properties = {
+    "annotation-logic.protection.rules[0].path=$..['dwc:country']",
+    "annotation-logic.protection.rules[0].motivations=oa:editing"})
 class ValidatorBeanIT {
 
   @Autowired
@@ -28,4 +33,14 @@ class ValidatorBeanIT {
     assertThrows(NoSuchBeanDefinitionException.class, () -> context.getBean(ObjectMapper.class));
   }
 
+  @Test
+  void testConfiguredProtectionRule() {
+    // Given
+    var validator = context.getBean(AnnotationValidator.class);
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> validator.applyAnnotation(givenDigitalSpecimen(), givenAnnotation()));
+  }
+
 }
@@ -0,0 +1,191 @@
+package io.github.dissco.annotationlogic.benchmark;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jayway.jsonpath.Option;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.github.dissco.annotationlogic.corpus.CorpusGenerator;
+import io.github.dissco.annotationlogic.corpus.CorpusGenerator.GeneratedAnnotation;
+import io.github.dissco.annotationlogic.corpus.CorpusSize;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.validator.AnnotationValidator;
+import io.github.dissco.annotationlogic.validator.JsonSchemaValidator;
+import io.github.dissco.annotationlogic.validator.SchemaRegistry;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Applies a generated corpus of annotations at a fixed rate for a sustained period, and reports
+ * throughput, latency percentiles, GC pauses and heap growth. Run with {@code mvn test -Psoak}, the
+ * load can be tuned with {@code -Dsoak.duration=PT5M}, {@code -Dsoak.rate=200} (annotations per
+ * second), {@code -Dsoak.threads} and {@code -Dsoak.large-specimens}.
+ */
+@Tag("soak")
+class AnnotationValidatorSoak {
+
+  private static final long SEED = 20_240_101;
+  private static final int SPECIMENS = 50;
+
+  @Test
+  void soak() throws Exception {
+    // Given
+    var duration = Duration.parse(System.getProperty("soak.duration", "PT5M"));
+    var rate = Integer.getInteger("soak.rate", 200);
+    var threads = Integer.getInteger("soak.threads", Runtime.getRuntime().availableProcessors());
+    var largeSpecimens = Integer.getInteger("soak.large-specimens", 2);
+    var maxHeapGrowth = Long.getLong("soak.max-heap-growth-mb", 64) * 1024 * 1024;
+    var workload = givenWorkload(largeSpecimens);
+    var annotationValidator = givenAnnotationValidator();
+    var expected = (int) (duration.toSeconds() * rate);
+    var latencies = new long[expected];
+    var unexpectedOutcomes = new AtomicInteger();
+    var completed = new AtomicInteger();
+    var gcPauses = new GcPauseRecorder();
+
+    // Warm up
+    workload.forEach(work -> work.apply(annotationValidator));
+    var heapBefore = usedHeapAfterGc();
+    gcPauses.start();
+
+    // When
+    var executor = Executors.newFixedThreadPool(threads);
+    var start = System.nanoTime();
+    var interval = TimeUnit.SECONDS.toNanos(1) / rate;
+    for (int i = 0; i < expected; i++) {
+      // Latency is measured from the scheduled start, so a stalled validator is not hidden
+      var scheduled = start + i * interval;
+      LockSupport.parkNanos(scheduled - System.nanoTime());
+      var work = workload.get(i % workload.size());
+      var index = i;
+      executor.execute(() -> {
+        if (!work.apply(annotationValidator)) {
+          unexpectedOutcomes.incrementAndGet();
+        }
+        latencies[index] = System.nanoTime() - scheduled;
+        completed.incrementAndGet();
+      });
+    }
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+    var elapsed = System.nanoTime() - start;
+    gcPauses.stop();
+    var heapGrowth = usedHeapAfterGc() - heapBefore;
+
+    // Then
+    Arrays.sort(latencies);
+    System.out.printf("Soak of %s at %d annotations/s on %d threads%n", duration, rate, threads);
+    System.out.printf("Throughput: %.1f annotations/s%n",
+        completed.get() / (elapsed / 1_000_000_000.0));
+    System.out.printf("Latency p50: %.2f ms, p90: %.2f ms, p99: %.2f ms, p99.9: %.2f ms, "
+            + "max: %.2f ms%n", percentile(latencies, 50), percentile(latencies, 90),
+        percentile(latencies, 99), percentile(latencies, 99.9), percentile(latencies, 100));
+    System.out.printf("GC pauses: %d, total: %d ms, max: %d ms%n", gcPauses.count.get(),
+        gcPauses.total.get(), gcPauses.max.get());
+    System.out.printf("Heap growth: %d KiB%n", heapGrowth / 1024);
+    assertThat(completed.get()).isEqualTo(expected);
+    assertThat(unexpectedOutcomes.get()).isZero();
+    assertThat(heapGrowth).isLessThan(maxHeapGrowth);
+  }
+
+  private static List<Work> givenWorkload(int largeSpecimens) {
+    var generator = new CorpusGenerator(SEED);
+    var workload = new ArrayList<Work>();
+    for (int i = 0; i < SPECIMENS; i++) {
+      var specimen = generator.givenSpecimen(
+          i < largeSpecimens ? CorpusSize.LARGE : CorpusSize.TYPICAL);
+      generator.givenAnnotations(specimen)
+          .forEach(annotation -> workload.add(new Work(specimen, annotation)));
+    }
+    return workload;
+  }
+
+  private static AnnotationValidator givenAnnotationValidator() throws Exception {
+    var jsonSchemaValidator = new JsonSchemaValidator(
+        new SchemaRegistry(MAPPER, null, null, null), MAPPER, null);
+    return AnnotationValidator.builder(MAPPER, com.jayway.jsonpath.Configuration.builder()
+            .options(Option.SUPPRESS_EXCEPTIONS)
+            .build(), jsonSchemaValidator)
+        .streamingThreshold(1024 * 1024)
+        .build();
+  }
+
+  private static long usedHeapAfterGc() {
+    System.gc();
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  private static double percentile(long[] sortedLatencies, double percentile) {
+    var index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+    return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+  }
+
+  private record Work(DigitalSpecimen specimen, GeneratedAnnotation annotation) {
+
+    /*
+     * Returns whether the annotation was applied or rejected as expected
+     */
+    boolean apply(AnnotationValidator annotationValidator) {
+      try {
+        annotationValidator.applyAnnotation(specimen, annotation.annotation());
+        return annotation.valid();
+      } catch (InvalidAnnotationException e) {
+        return !annotation.valid();
+      } catch (Exception e) {
+        return false;
+      }
+    }
+  }
+
+  /*
+   * Records stop-the-world pauses. Concurrent collector cycles run alongside the application and
+   * are not counted as pauses.
+   */
+  private static final class GcPauseRecorder {
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private final NotificationListener listener = (notification, handback) -> {
+      if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(
+          notification.getType())) {
+        return;
+      }
+      var info = GarbageCollectionNotificationInfo.from(
+          (CompositeData) notification.getUserData());
+      if (info.getGcAction().contains("concurrent")) {
+        return;
+      }
+      var pause = info.getGcInfo().getDuration();
+      count.incrementAndGet();
+      total.addAndGet(pause);
+      max.accumulateAndGet(pause, Math::max);
+    };
+
+    void start() {
+      ManagementFactory.getGarbageCollectorMXBeans().forEach(
+          bean -> ((NotificationEmitter) bean).addNotificationListener(listener, null, null));
+    }
+
+    void stop() throws Exception {
+      for (var bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+        ((NotificationEmitter) bean).removeNotificationListener(listener);
+      }
+    }
+  }
+
+}
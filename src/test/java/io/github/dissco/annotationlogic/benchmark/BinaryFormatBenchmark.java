@@ -0,0 +1,101 @@
+package io.github.dissco.annotationlogic.benchmark;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static io.github.dissco.annotationlogic.TestUtils.givenIdentification;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jayway.jsonpath.Option;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion.VersionFlag;
+import io.github.dissco.annotationlogic.domain.BinaryFormat;
+import io.github.dissco.annotationlogic.validator.AnnotationValidator;
+import io.github.dissco.annotationlogic.validator.JsonSchemaValidator;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import java.io.IOException;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the payload size and the time taken to decode, annotate and encode a specimen exchanged
+ * as JSON, Smile and CBOR. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BinaryFormatBenchmark {
+
+  private static final int IDENTIFICATIONS = 500;
+  private static final int WARM_UP = 50;
+  private static final int ITERATIONS = 200;
+  private AnnotationValidator annotationValidator;
+
+  @BeforeEach
+  void setup() throws IOException {
+    var factory = JsonSchemaFactory.getInstance(VersionFlag.V202012);
+    try (var input = Thread.currentThread().getContextClassLoader()
+        .getResourceAsStream("json-schema/digital-specimen.json")) {
+      var jsonSchemaValidator = new JsonSchemaValidator(factory.getSchema(input), MAPPER);
+      var jsonPathConfig = com.jayway.jsonpath.Configuration.builder()
+          .options(Option.SUPPRESS_EXCEPTIONS)
+          .build();
+      annotationValidator = new AnnotationValidator(MAPPER, jsonPathConfig, jsonSchemaValidator);
+    }
+  }
+
+  @Test
+  void benchmarkBinaryFormats() throws Exception {
+    // Given
+    var specimen = givenLargeSpecimen();
+    var annotation = givenAnnotation(OaMotivation.OA_EDITING, true);
+    var jsonSpecimen = MAPPER.writeValueAsBytes(specimen);
+    var jsonAnnotation = MAPPER.writeValueAsBytes(annotation);
+
+    // When
+    var jsonNanos = measureNanos(() -> MAPPER.writeValueAsBytes(annotationValidator.applyAnnotation(
+        MAPPER.readValue(jsonSpecimen, DigitalSpecimen.class),
+        MAPPER.readValue(jsonAnnotation, Annotation.class))));
+    System.out.printf("JSON: %d KiB, %d us per annotation%n", jsonSpecimen.length / 1024,
+        jsonNanos / 1000);
+    for (var format : BinaryFormat.values()) {
+      var binarySpecimen = annotationValidator.writeSpecimen(specimen, format);
+      var binaryAnnotation = MAPPER.copyWith(format.createFactory()).writeValueAsBytes(annotation);
+      var binaryNanos = measureNanos(
+          () -> annotationValidator.applyAnnotation(binarySpecimen, binaryAnnotation, format));
+      System.out.printf("%s: %d KiB, %d us per annotation%n", format,
+          binarySpecimen.length / 1024, binaryNanos / 1000);
+
+      // Then
+      assertThat(binarySpecimen.length).isLessThan(jsonSpecimen.length);
+    }
+  }
+
+  private static long measureNanos(Run run) throws Exception {
+    for (int i = 0; i < WARM_UP; i++) {
+      run.run();
+    }
+    var start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      run.run();
+    }
+    return (System.nanoTime() - start) / ITERATIONS;
+  }
+
+  @FunctionalInterface
+  private interface Run {
+
+    byte[] run() throws Exception;
+  }
+
+  private static DigitalSpecimen givenLargeSpecimen() {
+    var identifications = IntStream.range(0, IDENTIFICATIONS)
+        .mapToObj(i -> givenIdentification()
+            .withDwcIdentificationID("identification-" + i))
+        .toList();
+    return givenDigitalSpecimen().withOdsHasIdentifications(identifications);
+  }
+
+}
@@ -0,0 +1,133 @@
+package io.github.dissco.annotationlogic.benchmark;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotationTarget;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static io.github.dissco.annotationlogic.TestUtils.givenIdentification;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jayway.jsonpath.Option;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion.VersionFlag;
+import io.github.dissco.annotationlogic.validator.AnnotationValidator;
+import io.github.dissco.annotationlogic.validator.JsonSchemaValidator;
+import io.github.dissco.annotationlogic.validator.PersistentSpecimen;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the memory retained per version when keeping a history of annotated versions of a
+ * specimen, as persistent trees and as bound specimens. Each annotation edits a single term, so
+ * the memory of a persistent version should not grow with the size of the specimen. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class PersistentSpecimenBenchmark {
+
+  private static final int BOUND_VERSIONS = 50;
+  private static final int PERSISTENT_VERSIONS = 1_000;
+  private AnnotationValidator annotationValidator;
+
+  @BeforeEach
+  void setup() throws IOException {
+    var factory = JsonSchemaFactory.getInstance(VersionFlag.V202012);
+    try (var input = Thread.currentThread().getContextClassLoader()
+        .getResourceAsStream("json-schema/digital-specimen.json")) {
+      var jsonSchemaValidator = new JsonSchemaValidator(factory.getSchema(input), MAPPER);
+      var jsonPathConfig = com.jayway.jsonpath.Configuration.builder()
+          .options(Option.SUPPRESS_EXCEPTIONS)
+          .build();
+      annotationValidator = new AnnotationValidator(MAPPER, jsonPathConfig, jsonSchemaValidator);
+    }
+  }
+
+  @Test
+  void benchmarkRetainedMemoryPerVersion() throws Exception {
+    for (var identifications : new int[]{1_000, 10_000}) {
+      // Given
+      var specimen = givenSpecimen(identifications);
+      var annotations = IntStream.range(0, PERSISTENT_VERSIONS)
+          .mapToObj(i -> givenEditAnnotation(i % identifications))
+          .toList();
+      var size = MAPPER.writeValueAsBytes(specimen).length;
+
+      // When
+      var first = annotationValidator.persist(specimen);
+      Callable<List<?>> persistentHistory = () -> {
+        var versions = new ArrayList<PersistentSpecimen>(List.of(first));
+        for (var annotation : annotations) {
+          versions.add(annotationValidator.apply(versions.getLast(), annotation));
+        }
+        return versions;
+      };
+      Callable<List<?>> boundHistory = () -> {
+        var versions = new ArrayList<DigitalSpecimen>(List.of(specimen));
+        for (var annotation : annotations.subList(0, BOUND_VERSIONS)) {
+          versions.add(annotationValidator.applyAnnotation(versions.getLast(), annotation));
+        }
+        return versions;
+      };
+      persistentHistory.call();
+      boundHistory.call();
+      var persistent = measureRetainedBytes(persistentHistory);
+      var bound = measureRetainedBytes(boundHistory);
+
+      // Then
+      System.out.printf("%d KiB specimen, retained per version: persistent %d bytes, "
+          + "bound %d bytes%n", size / 1024, persistent, bound);
+      assertThat(persistent).isLessThan(bound);
+    }
+  }
+
+  /*
+   * The first version of a history is created before measuring, so only the versions added on top
+   * of it are counted
+   */
+  private static long measureRetainedBytes(Callable<List<?>> history) throws Exception {
+    var before = usedHeap();
+    var versions = history.call();
+    var after = usedHeap();
+    Reference.reachabilityFence(versions);
+    return (after - before) / (versions.size() - 1);
+  }
+
+  /*
+   * Collects until the used heap stops shrinking
+   */
+  private static long usedHeap() {
+    var memory = ManagementFactory.getMemoryMXBean();
+    var used = Long.MAX_VALUE;
+    for (int i = 0; i < 10; i++) {
+      System.gc();
+      var collected = memory.getHeapMemoryUsage().getUsed();
+      if (collected >= used) {
+        break;
+      }
+      used = collected;
+    }
+    return used;
+  }
+
+  private static Annotation givenEditAnnotation(int index) {
+    return givenAnnotation().withOaHasTarget(givenAnnotationTarget(
+        "$['ods:hasIdentifications'][" + index + "]['dwc:identificationID']"));
+  }
+
+  private static DigitalSpecimen givenSpecimen(int identifications) {
+    return givenDigitalSpecimen().withOdsHasIdentifications(IntStream.range(0, identifications)
+        .mapToObj(i -> givenIdentification().withDwcIdentificationID("identification-" + i))
+        .toList());
+  }
+
+}
@@ -0,0 +1,74 @@
+package io.github.dissco.annotationlogic.benchmark;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.REFLECTIVE_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dissco.annotationlogic.corpus.CorpusGenerator;
+import io.github.dissco.annotationlogic.corpus.CorpusSize;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares binding a large specimen with the generated serializers against Jackson's reflective
+ * bean introspection, both for the first call on a new mapper and once warmed up. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SerializerBenchmark {
+
+  private static final int ROUNDS = 10;
+  private static final int ITERATIONS = 50;
+
+  @Test
+  void benchmarkSerializers() throws Exception {
+    // Given
+    var specimen = new CorpusGenerator(42).givenSpecimen(CorpusSize.LARGE);
+    var json = MAPPER.writeValueAsBytes(specimen);
+
+    // When
+    var reflectiveFirst = measureFirstNanos(REFLECTIVE_MAPPER.copy(), specimen, json);
+    var generatedFirst = measureFirstNanos(MAPPER.copy(), specimen, json);
+    var reflective = Long.MAX_VALUE;
+    var generated = Long.MAX_VALUE;
+    // Alternate between the mappers, so both are measured with the same JIT state
+    for (int i = 0; i < ROUNDS; i++) {
+      reflective = Math.min(reflective, measureNanos(REFLECTIVE_MAPPER, specimen, json));
+      generated = Math.min(generated, measureNanos(MAPPER, specimen, json));
+    }
+    System.out.printf("%d KiB specimen, first call on a new mapper: reflective %d us, "
+            + "generated %d us%n", json.length / 1024, reflectiveFirst / 1000,
+        generatedFirst / 1000);
+    System.out.printf("Warmed up, best round per read and write: reflective %d us, "
+        + "generated %d us%n", reflective / 1000, generated / 1000);
+
+    // Then
+    assertThat(MAPPER.writeValueAsBytes(specimen)).isEqualTo(
+        REFLECTIVE_MAPPER.writeValueAsBytes(specimen));
+  }
+
+  private static long measureFirstNanos(ObjectMapper mapper, DigitalSpecimen specimen,
+      byte[] json) throws Exception {
+    var start = System.nanoTime();
+    bind(mapper, specimen, json);
+    return System.nanoTime() - start;
+  }
+
+  private static long measureNanos(ObjectMapper mapper, DigitalSpecimen specimen, byte[] json)
+      throws Exception {
+    var start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      bind(mapper, specimen, json);
+    }
+    return (System.nanoTime() - start) / ITERATIONS;
+  }
+
+  private static void bind(ObjectMapper mapper, DigitalSpecimen specimen, byte[] json)
+      throws Exception {
+    mapper.readValue(json, DigitalSpecimen.class);
+    mapper.writeValueAsBytes(specimen);
+  }
+
+}
@@ -0,0 +1,121 @@
+package io.github.dissco.annotationlogic.benchmark;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static io.github.dissco.annotationlogic.TestUtils.givenIdentification;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jayway.jsonpath.Option;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion.VersionFlag;
+import io.github.dissco.annotationlogic.validator.AnnotationValidator;
+import io.github.dissco.annotationlogic.validator.JsonSchemaValidator;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the memory allocated by applying an annotation to a multi-megabyte specimen in the
+ * default and in the streaming mode, and checks that streaming a specimen from an input to an
+ * output allocates memory for the changed element only. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class StreamingMemoryBenchmark {
+
+  private static final int IDENTIFICATIONS = 20_000;
+  private static final int ITERATIONS = 5;
+  // Compiling and validating an annotation, independent of the specimen it is applied to
+  private static final long ANNOTATION_BUDGET = 64 * 1024;
+  private static final int CHANGED_ELEMENT_FACTOR = 16;
+  private AnnotationValidator defaultValidator;
+  private AnnotationValidator streamingValidator;
+
+  @BeforeEach
+  void setup() throws IOException {
+    var factory = JsonSchemaFactory.getInstance(VersionFlag.V202012);
+    try (var input = Thread.currentThread().getContextClassLoader()
+        .getResourceAsStream("json-schema/digital-specimen.json")) {
+      var jsonSchemaValidator = new JsonSchemaValidator(factory.getSchema(input), MAPPER);
+      var jsonPathConfig = com.jayway.jsonpath.Configuration.builder()
+          .options(Option.SUPPRESS_EXCEPTIONS)
+          .build();
+      defaultValidator = new AnnotationValidator(MAPPER, jsonPathConfig, jsonSchemaValidator);
+      streamingValidator = AnnotationValidator.builder(MAPPER, jsonPathConfig, jsonSchemaValidator)
+          .streamingThreshold(0)
+          .build();
+    }
+  }
+
+  @Test
+  void benchmarkAllocatedMemory() throws Exception {
+    // Given
+    var specimen = givenLargeSpecimen();
+    var annotation = givenAnnotation(OaMotivation.OA_EDITING, true);
+    var size = MAPPER.writeValueAsBytes(specimen).length;
+
+    // When
+    var defaultAllocated = measureAllocatedBytes(defaultValidator, specimen, annotation);
+    var streamingAllocated = measureAllocatedBytes(streamingValidator, specimen, annotation);
+
+    // Then
+    System.out.printf("Specimen size: %d KiB%n", size / 1024);
+    System.out.printf("Default mode: %d KiB allocated per annotation%n", defaultAllocated / 1024);
+    System.out.printf("Streaming mode: %d KiB allocated per annotation%n",
+        streamingAllocated / 1024);
+    assertThat(streamingAllocated).isLessThan(defaultAllocated);
+  }
+
+  @Test
+  void benchmarkStreamedMemory() throws Exception {
+    // Given
+    var specimen = MAPPER.writeValueAsBytes(givenLargeSpecimen());
+    var annotation = givenAnnotation(OaMotivation.OA_EDITING, true);
+    var changedElement = MAPPER.writeValueAsBytes(annotation.getOaHasBody().getOaValue()).length;
+
+    // When
+    var streamedAllocated = measureAllocatedBytes(() -> streamingValidator.applyAnnotation(
+        new ByteArrayInputStream(specimen), annotation, OutputStream.nullOutputStream()));
+
+    // Then
+    System.out.printf("Specimen size: %d KiB%n", specimen.length / 1024);
+    System.out.printf("Streamed: %d KiB allocated per annotation%n", streamedAllocated / 1024);
+    assertThat(streamedAllocated).isLessThan(
+        ANNOTATION_BUDGET + (long) CHANGED_ELEMENT_FACTOR * changedElement);
+  }
+
+  private static long measureAllocatedBytes(AnnotationValidator validator,
+      DigitalSpecimen specimen, Annotation annotation) throws Exception {
+    return measureAllocatedBytes(() -> validator.applyAnnotation(specimen, annotation));
+  }
+
+  private static long measureAllocatedBytes(Callable<?> application) throws Exception {
+    var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    var threadId = Thread.currentThread().threadId();
+    // Warm up
+    application.call();
+    var before = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < ITERATIONS; i++) {
+      application.call();
+    }
+    return (threadBean.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+  }
+
+  private static DigitalSpecimen givenLargeSpecimen() {
+    var identifications = IntStream.range(0, IDENTIFICATIONS)
+        .mapToObj(i -> givenIdentification()
+            .withDwcIdentificationID("identification-" + i))
+        .toList();
+    return givenDigitalSpecimen().withOdsHasIdentifications(identifications);
+  }
+
+}
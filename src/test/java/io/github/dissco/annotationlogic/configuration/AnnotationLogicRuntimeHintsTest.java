@@ -0,0 +1,95 @@
+package io.github.dissco.annotationlogic.configuration;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.networknt.schema.RequiredValidator;
+import io.github.dissco.annotationlogic.utils.SerializerUtils;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import io.github.dissco.core.annotationlogic.schema.Identification;
+import java.util.HashSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.GeneratedFiles.Kind;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.aot.ApplicationContextAotGenerator;
+import org.springframework.javapoet.ClassName;
+
+class AnnotationLogicRuntimeHintsTest {
+
+  private static final String REFLECT_CONFIG =
+      "META-INF/native-image/io.github.dissco/annotation-logic/reflect-config.json";
+
+  @Test
+  void testRegisterHints() {
+    // Given
+    var hints = new RuntimeHints();
+
+    // When
+    new AnnotationLogicRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+    // Then
+    assertThat(RuntimeHintsPredicates.resource().forResource("json-schema/digital-specimen.json"))
+        .accepts(hints);
+    assertThat(RuntimeHintsPredicates.resource().forBundle("jsv-messages")).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(DigitalSpecimen.class)
+        .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(Identification.class)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(OaMotivation.class)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onType(RequiredValidator.class)
+        .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection()
+        .onType(TypeReference.of(SerializerUtils.SCHEMA_MODULE))
+        .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+  }
+
+  @Test
+  void testReflectConfigMatchesHints() throws Exception {
+    // Given
+    var hints = new RuntimeHints();
+    new AnnotationLogicRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    var expected = hints.reflection().typeHints()
+        .map(typeHint -> typeHint.getType().getName())
+        .filter(name -> name.startsWith(AnnotationLogicRuntimeHints.SCHEMA_PACKAGE)
+            || name.startsWith(AnnotationLogicRuntimeHints.VALIDATOR_PACKAGE)
+            || name.equals(SerializerUtils.SCHEMA_MODULE))
+        .toList();
+
+    // When
+    var reflectConfig = new HashSet<String>();
+    try (var input = getClass().getClassLoader().getResourceAsStream(REFLECT_CONFIG)) {
+      MAPPER.readTree(input).forEach(entry -> reflectConfig.add(entry.get("name").asText()));
+    }
+
+    // Then
+    assertThat(reflectConfig).containsAll(expected);
+  }
+
+  @Test
+  void testAotProcessing() {
+    // Given
+    var context = new AnnotationConfigApplicationContext();
+    context.register(AnnotationLogicLibraryConfiguration.class);
+    var generatedFiles = new InMemoryGeneratedFiles();
+    var generationContext = new DefaultGenerationContext(
+        new ClassNameGenerator(ClassName.get(AnnotationLogicRuntimeHintsTest.class)),
+        generatedFiles);
+
+    // When
+    new ApplicationContextAotGenerator().processAheadOfTime(context, generationContext);
+    generationContext.writeGeneratedContent();
+
+    // Then
+    assertThat(generatedFiles.getGeneratedFiles(Kind.SOURCE)).isNotEmpty();
+    assertThat(RuntimeHintsPredicates.resource().forResource("json-schema/digital-specimen.json"))
+        .accepts(generationContext.getRuntimeHints());
+  }
+
+}
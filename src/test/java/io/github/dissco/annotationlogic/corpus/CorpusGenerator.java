@@ -0,0 +1,261 @@
+package io.github.dissco.annotationlogic.corpus;
+
+import static io.github.dissco.annotationlogic.TestUtils.DOI_PROXY;
+import static io.github.dissco.annotationlogic.TestUtils.HANDLE_PROXY;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+
+import io.github.dissco.core.annotationlogic.schema.Agent;
+import io.github.dissco.core.annotationlogic.schema.Agent.Type;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+import io.github.dissco.core.annotationlogic.schema.AnnotationBody;
+import io.github.dissco.core.annotationlogic.schema.AnnotationTarget;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import io.github.dissco.core.annotationlogic.schema.EntityRelationship;
+import io.github.dissco.core.annotationlogic.schema.Event;
+import io.github.dissco.core.annotationlogic.schema.Identification;
+import io.github.dissco.core.annotationlogic.schema.Identifier;
+import io.github.dissco.core.annotationlogic.schema.Location;
+import io.github.dissco.core.annotationlogic.schema.OaHasSelector;
+import io.github.dissco.core.annotationlogic.schema.OdsHasRole;
+import io.github.dissco.core.annotationlogic.schema.SpecimenPart;
+import io.github.dissco.core.annotationlogic.schema.TaxonIdentification;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Generates realistic specimens and annotations on them. The same seed always produces the same
+ * corpus, so failures found with a generated corpus can be reproduced.
+ */
+public class CorpusGenerator {
+
+  private static final List<String> COUNTRIES = List.of("Netherlands", "Belgium", "Germany",
+      "France", "United Kingdom", "Spain", "Indonesia", "Suriname", "Brazil", "Kenya");
+  private static final List<String> GENERA = List.of("Bombus", "Quercus", "Parus", "Rana",
+      "Carabus", "Fagus", "Salix", "Lycaena", "Corvus", "Ammonites");
+  private static final List<String> EPITHETS = List.of("terrestris", "robur", "major",
+      "temporaria", "auratus", "sylvatica", "alba", "dispar", "corone", "bisulcatus");
+  private static final List<String> PREPARATIONS = List.of("pinned", "alcohol", "herbarium sheet",
+      "skin", "skeleton", "slide");
+  private static final List<String> ROLES = List.of("collector", "identifier", "preparator",
+      "georeferencer");
+  private static final List<String> RELATIONSHIPS = List.of("hasMedia", "hasCollectingEvent",
+      "hasDuplicate", "isPartOf");
+  private final Random random;
+
+  public CorpusGenerator(long seed) {
+    this.random = new Random(seed);
+  }
+
+  public DigitalSpecimen givenSpecimen(CorpusSize size) {
+    var specimenId = DOI_PROXY + "10.3535/" + randomCode();
+    return givenDigitalSpecimen()
+        .withId(specimenId)
+        .withDctermsIdentifier(specimenId)
+        .withOdsHasIdentifications(IntStream.range(0, size.identifications())
+            .mapToObj(i -> givenIdentification(i)).toList())
+        .withOdsHasEvents(IntStream.range(0, size.events())
+            .mapToObj(i -> givenEvent()).toList())
+        .withOdsHasSpecimenParts(IntStream.range(0, size.parts())
+            .mapToObj(i -> givenSpecimenPart(specimenId, i)).toList())
+        .withOdsHasAgents(IntStream.range(0, size.agents())
+            .mapToObj(i -> givenAgent()).toList())
+        .withOdsHasEntityRelationships(IntStream.range(0, size.relationships())
+            .mapToObj(i -> givenEntityRelationship()).toList())
+        .withOdsHasIdentifiers(List.of(new Identifier()
+            .withType("ods:Identifier")
+            .withDctermsTitle("catalogNumber")
+            .withDctermsIdentifier("RMNH." + random.nextInt(1_000_000))));
+  }
+
+  /**
+   * Generates an annotation on the specimen for every selector and motivation, and invalid
+   * annotations for each rule the annotation logic checks
+   */
+  public List<GeneratedAnnotation> givenAnnotations(DigitalSpecimen specimen) {
+    var specimenId = specimen.getDctermsIdentifier();
+    var events = specimen.getOdsHasEvents().size();
+    var identifications = specimen.getOdsHasIdentifications().size();
+    var event = "$['ods:hasEvents'][" + random.nextInt(events) + "]";
+    var identification = "$['ods:hasIdentifications'][" + random.nextInt(identifications) + "]";
+    var annotations = new ArrayList<GeneratedAnnotation>();
+    annotations.add(valid("edit term", term(specimenId, OaMotivation.OA_EDITING,
+        event + "['ods:hasLocation']['dwc:country']", randomElement(COUNTRIES))));
+    annotations.add(valid("add term", term(specimenId, OaMotivation.ODS_ADDING,
+        event + "['ods:hasLocation']['dwc:locality']", "Near the " + randomCode())));
+    annotations.add(valid("delete term", term(specimenId, OaMotivation.ODS_DELETING,
+        event + "['ods:hasLocation']['dwc:country']", null)));
+    annotations.add(valid("edit term of all elements", term(specimenId, OaMotivation.OA_EDITING,
+        "$['ods:hasEvents'][*]['ods:hasLocation']['dwc:country']", randomElement(COUNTRIES))));
+    annotations.add(valid("edit class", clazz(specimenId, OaMotivation.OA_EDITING,
+        identification, givenIdentificationBody())));
+    annotations.add(valid("add class", clazz(specimenId, OaMotivation.ODS_ADDING,
+        "$['ods:hasIdentifications'][" + identifications + "]", givenIdentificationBody())));
+    annotations.add(valid("delete class", clazz(specimenId, OaMotivation.ODS_DELETING,
+        identification, null)));
+    annotations.add(invalid("edit missing term", term(specimenId, OaMotivation.OA_EDITING,
+        "$['ods:hasEvents'][" + (events + 1) + "]['ods:hasLocation']['dwc:country']",
+        randomElement(COUNTRIES))));
+    annotations.add(invalid("add existing term", term(specimenId, OaMotivation.ODS_ADDING,
+        event + "['ods:hasLocation']['dwc:country']", randomElement(COUNTRIES))));
+    annotations.add(invalid("edit forbidden term", term(specimenId, OaMotivation.OA_EDITING,
+        "$['ods:midsLevel']", "2")));
+    annotations.add(invalid("delete term with value", term(specimenId,
+        OaMotivation.ODS_DELETING, event + "['ods:hasLocation']['dwc:country']",
+        randomElement(COUNTRIES))));
+    annotations.add(invalid("edit term of other specimen", term(DOI_PROXY + "10.3535/"
+        + randomCode(), OaMotivation.OA_EDITING, event + "['ods:hasLocation']['dwc:country']",
+        randomElement(COUNTRIES))));
+    annotations.add(invalid("comment on term", term(specimenId, OaMotivation.OA_COMMENTING,
+        event + "['ods:hasLocation']['dwc:country']", "Looks wrong")));
+    annotations.add(invalid("add existing class", clazz(specimenId, OaMotivation.ODS_ADDING,
+        identification, givenIdentificationBody())));
+    annotations.add(invalid("edit class with unreadable body", clazz(specimenId,
+        OaMotivation.OA_EDITING, identification, "{\"dwc:identificationID\": ")));
+    annotations.add(invalid("edit forbidden class", clazz(specimenId, OaMotivation.OA_EDITING,
+        "$['ods:hasTombstoneMetadata']", "{}")));
+    return annotations;
+  }
+
+  private Identification givenIdentification(int index) {
+    return new Identification()
+        .withType("ods:Identification")
+        .withDwcIdentificationID("identification-" + index)
+        .withDwcVerbatimIdentification(randomElement(GENERA) + " " + randomElement(EPITHETS))
+        .withOdsIsVerified(random.nextBoolean())
+        .withOdsHasTaxonIdentifications(List.of(givenTaxonIdentification()));
+  }
+
+  private TaxonIdentification givenTaxonIdentification() {
+    var genus = randomElement(GENERA);
+    return new TaxonIdentification()
+        .withType("ods:TaxonIdentification")
+        .withDwcScientificName(genus + " " + randomElement(EPITHETS))
+        .withDwcGenus(genus)
+        .withDwcTaxonRank("species");
+  }
+
+  private Event givenEvent() {
+    return new Event()
+        .withType("ods:Event")
+        .withDwcEventType("Collecting")
+        .withDwcEventDate((1850 + random.nextInt(170)) + "-0" + (1 + random.nextInt(9)) + "-1"
+            + random.nextInt(10))
+        .withOdsHasLocation(new Location()
+            .withType("ods:Location")
+            .withDwcCountry(randomElement(COUNTRIES)));
+  }
+
+  private SpecimenPart givenSpecimenPart(String specimenId, int index) {
+    return new SpecimenPart()
+        .withType("ods:SpecimenPart")
+        .withDwcMaterialEntityID(specimenId + "/part-" + index)
+        .withDwcPreparations(randomElement(PREPARATIONS));
+  }
+
+  private Agent givenAgent() {
+    return new Agent()
+        .withType(Type.PROV_PERSON)
+        .withId(HANDLE_PROXY + "20.5000.1025/" + randomCode())
+        .withSchemaName(randomElement(GENERA) + " " + randomCode())
+        .withOdsHasRoles(List.of(new OdsHasRole()
+            .withType("schema:Role")
+            .withSchemaRoleName(randomElement(ROLES))));
+  }
+
+  private EntityRelationship givenEntityRelationship() {
+    var relatedResource = DOI_PROXY + "10.3535/" + randomCode();
+    return new EntityRelationship()
+        .withType("ods:EntityRelationship")
+        .withDwcRelationshipOfResource(randomElement(RELATIONSHIPS))
+        .withDwcRelatedResourceID(relatedResource)
+        .withOdsRelatedResourceURI(URI.create(relatedResource));
+  }
+
+  private String givenIdentificationBody() {
+    var genus = randomElement(GENERA);
+    return """
+        {
+          "@type": "ods:Identification",
+          "dwc:verbatimIdentification": "%s %s",
+          "ods:hasTaxonIdentifications": [
+            {
+              "@type": "ods:TaxonIdentification",
+              "dwc:scientificName": "%s %s",
+              "dwc:genus": "%s"
+            }
+          ]
+        }
+        """.formatted(genus, randomElement(EPITHETS), genus, randomElement(EPITHETS), genus);
+  }
+
+  private static Annotation term(String targetId, OaMotivation motivation, String path,
+      String value) {
+    return givenAnnotation(motivation, true)
+        .withOaHasBody(body(value))
+        .withOaHasTarget(target(targetId, "ods:TermSelector", "ods:term", path));
+  }
+
+  private static Annotation clazz(String targetId, OaMotivation motivation, String path,
+      String value) {
+    return givenAnnotation(motivation, false)
+        .withOaHasBody(body(value))
+        .withOaHasTarget(target(targetId, "ods:ClassSelector", "ods:class", path));
+  }
+
+  private static AnnotationBody body(String value) {
+    return new AnnotationBody()
+        .withType("oa:TextualBody")
+        .withOaValue(value == null ? new ArrayList<>() : new ArrayList<>(List.of(value)));
+  }
+
+  private static AnnotationTarget target(String targetId, String selectorType,
+      String selectorKey, String path) {
+    return new AnnotationTarget()
+        .withId(targetId)
+        .withType("ods:DigitalSpecimen")
+        .withDctermsIdentifier(targetId)
+        .withOaHasSelector(new OaHasSelector()
+            .withAdditionalProperty("@type", selectorType)
+            .withAdditionalProperty(selectorKey, path));
+  }
+
+  private static GeneratedAnnotation valid(String description, Annotation annotation) {
+    return new GeneratedAnnotation(description, annotation, true);
+  }
+
+  private static GeneratedAnnotation invalid(String description, Annotation annotation) {
+    return new GeneratedAnnotation(description, annotation, false);
+  }
+
+  private String randomCode() {
+    var code = new StringBuilder();
+    for (int i = 0; i < 9; i++) {
+      if (i > 0 && i % 3 == 0) {
+        code.append('-');
+      }
+      code.append((char) ('A' + random.nextInt(26)));
+    }
+    return code.toString();
+  }
+
+  private <T> T randomElement(List<T> elements) {
+    return elements.get(random.nextInt(elements.size()));
+  }
+
+  /**
+   * A generated annotation
+   *
+   * @param description what the annotation does
+   * @param annotation  the annotation
+   * @param valid       whether the annotation should be applied or rejected
+   */
+  public record GeneratedAnnotation(String description, Annotation annotation, boolean valid) {
+
+  }
+
+}
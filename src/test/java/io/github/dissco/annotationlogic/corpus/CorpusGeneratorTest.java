@@ -0,0 +1,82 @@
+package io.github.dissco.annotationlogic.corpus;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.jayway.jsonpath.Option;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.validator.AnnotationValidator;
+import io.github.dissco.annotationlogic.validator.JsonSchemaValidator;
+import io.github.dissco.annotationlogic.validator.SchemaRegistry;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CorpusGeneratorTest {
+
+  private static final long SEED = 42;
+  private AnnotationValidator annotationValidator;
+  private AnnotationValidator streamingAnnotationValidator;
+  private JsonSchemaValidator jsonSchemaValidator;
+
+  @BeforeEach
+  void setup() throws IOException {
+    jsonSchemaValidator = new JsonSchemaValidator(
+        new SchemaRegistry(MAPPER, null, null, null), MAPPER, null);
+    var jsonPathConfig = com.jayway.jsonpath.Configuration.builder()
+        .options(Option.SUPPRESS_EXCEPTIONS)
+        .build();
+    annotationValidator = new AnnotationValidator(MAPPER, jsonPathConfig, jsonSchemaValidator);
+    streamingAnnotationValidator = AnnotationValidator.builder(MAPPER, jsonPathConfig,
+        jsonSchemaValidator).streamingThreshold(0).build();
+  }
+
+  @Test
+  void testDeterministic() {
+    // When
+    var first = new CorpusGenerator(SEED);
+    var second = new CorpusGenerator(SEED);
+
+    // Then
+    var specimen = first.givenSpecimen(CorpusSize.TYPICAL);
+    assertThat(second.givenSpecimen(CorpusSize.TYPICAL)).isEqualTo(specimen);
+    assertThat(second.givenAnnotations(specimen)).isEqualTo(first.givenAnnotations(specimen));
+  }
+
+  @Test
+  void testSpecimenIsValid() throws Exception {
+    // Given
+    var specimen = new CorpusGenerator(SEED).givenSpecimen(CorpusSize.TYPICAL);
+
+    // When / Then
+    assertThat(specimen.getOdsHasIdentifications()).hasSize(3);
+    assertThat(specimen.getOdsHasSpecimenParts()).hasSize(2);
+    assertDoesNotThrow(
+        () -> jsonSchemaValidator.specimenIsValid(MAPPER.writeValueAsString(specimen)));
+  }
+
+  @Test
+  void testAnnotationsMatchExpectedOutcome() {
+    // Given
+    var generator = new CorpusGenerator(SEED);
+    var specimen = generator.givenSpecimen(CorpusSize.TYPICAL);
+
+    // When / Then
+    for (var generated : generator.givenAnnotations(specimen)) {
+      for (var validator : new AnnotationValidator[]{annotationValidator,
+          streamingAnnotationValidator}) {
+        if (generated.valid()) {
+          assertDoesNotThrow(() -> validator.applyAnnotation(specimen, generated.annotation()),
+              generated.description());
+        } else {
+          assertThrows(InvalidAnnotationException.class,
+              () -> validator.applyAnnotation(specimen, generated.annotation()),
+              generated.description());
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,19 @@
+package io.github.dissco.annotationlogic.corpus;
+
+/**
+ * Number of elements in each of the collections of a generated specimen
+ */
+public record CorpusSize(int identifications, int events, int parts, int agents,
+                         int relationships) {
+
+  /**
+   * A specimen in the order of a few kilobytes, as most specimens in production are
+   */
+  public static final CorpusSize TYPICAL = new CorpusSize(3, 2, 2, 3, 3);
+
+  /**
+   * A specimen in the order of a megabyte, as the largest specimens in production are
+   */
+  public static final CorpusSize LARGE = new CorpusSize(2_000, 500, 500, 200, 1_000);
+
+}
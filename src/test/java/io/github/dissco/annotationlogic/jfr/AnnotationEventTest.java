@@ -0,0 +1,138 @@
+package io.github.dissco.annotationlogic.jfr;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.SPECIMEN_ID;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.jayway.jsonpath.Option;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion.VersionFlag;
+import io.github.dissco.annotationlogic.validator.AnnotationValidator;
+import io.github.dissco.annotationlogic.validator.ConsistencyRule;
+import io.github.dissco.annotationlogic.validator.JsonSchemaValidator;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AnnotationEventTest {
+
+  private static final String ANNOTATION_EVENT = "io.github.dissco.annotationlogic.Annotation";
+  private static final String PHASE_EVENT = "io.github.dissco.annotationlogic.AnnotationPhase";
+  private static final String RULE_EVENT = "io.github.dissco.annotationlogic.ConsistencyRule";
+  private AnnotationValidator annotationValidator;
+  @Mock
+  private JsonSchemaValidator jsonSchemaValidator;
+  @TempDir
+  private Path tempDir;
+
+  @BeforeEach
+  void setUp() {
+    annotationValidator = new AnnotationValidator(MAPPER,
+        com.jayway.jsonpath.Configuration.builder()
+            .options(Option.SUPPRESS_EXCEPTIONS)
+            .build(), jsonSchemaValidator);
+  }
+
+  @Test
+  void testRecordsAnnotationEvents() throws Exception {
+    // Given
+    var recordingFile = tempDir.resolve("annotation.jfr");
+
+    // When
+    try (var recording = new Recording()) {
+      recording.enable(ANNOTATION_EVENT);
+      recording.enable(PHASE_EVENT);
+      recording.start();
+      annotationValidator.applyAnnotation(givenDigitalSpecimen(), givenAnnotation());
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    // Then
+    var events = RecordingFile.readAllEvents(recordingFile);
+    var annotationEvent = getEvents(events, ANNOTATION_EVENT).getFirst();
+    assertThat(annotationEvent.getString("targetId")).isEqualTo(SPECIMEN_ID);
+    assertThat(annotationEvent.getString("selectorType")).isEqualTo("ods:TermSelector");
+    assertThat(annotationEvent.getString("motivation")).isEqualTo("oa:editing");
+    assertThat(annotationEvent.getString("path")).isEqualTo(
+        "$['ods:hasEvents'][0]['ods:hasLocation']['dwc:country']");
+    assertThat(annotationEvent.getLong("documentSize")).isPositive();
+    assertThat(annotationEvent.getString("outcome")).isEqualTo("applied");
+    assertThat(getEvents(events, PHASE_EVENT)).extracting(event -> event.getString("phase"))
+        .containsExactly("serialize", "preapplication checks", "mutation", "schema validation",
+            "binding");
+  }
+
+  @Test
+  void testRecordsRejectedAnnotation() throws Exception {
+    // Given
+    var recordingFile = tempDir.resolve("annotation.jfr");
+
+    // When
+    try (var recording = new Recording()) {
+      recording.enable(ANNOTATION_EVENT);
+      recording.start();
+      assertThrows(InvalidAnnotationException.class,
+          () -> annotationValidator.applyAnnotation(givenDigitalSpecimen(),
+              givenAnnotation(OaMotivation.OA_COMMENTING, true)));
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    // Then
+    var events = RecordingFile.readAllEvents(recordingFile);
+    assertThat(getEvents(events, ANNOTATION_EVENT)).extracting(
+        event -> event.getString("outcome")).containsExactly("InvalidAnnotationMotivationException");
+    assertThat(getEvents(events, PHASE_EVENT)).isEmpty();
+  }
+
+  @Test
+  void testRecordsConsistencyRuleEvents() throws Exception {
+    // Given
+    var recordingFile = tempDir.resolve("annotation.jfr");
+    var rule = ConsistencyRule.of("inconsistent", List.of("$['ods:hasEvents']"),
+        specimen -> List.of("first", "second"));
+    var specimen = MAPPER.writeValueAsBytes(givenDigitalSpecimen());
+    JsonSchemaValidator schemaValidator;
+    try (var input = Thread.currentThread().getContextClassLoader()
+        .getResourceAsStream("json-schema/digital-specimen.json")) {
+      schemaValidator = new JsonSchemaValidator(
+          JsonSchemaFactory.getInstance(VersionFlag.V202012).getSchema(input), MAPPER);
+    }
+
+    // When
+    try (var recording = new Recording()) {
+      recording.enable(RULE_EVENT);
+      recording.start();
+      assertThrows(InvalidAnnotationException.class,
+          () -> schemaValidator.specimenIsConsistent(specimen, List.of(rule)));
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    // Then
+    var ruleEvent = getEvents(RecordingFile.readAllEvents(recordingFile), RULE_EVENT).getFirst();
+    assertThat(ruleEvent.getString("rule")).isEqualTo("inconsistent");
+    assertThat(ruleEvent.getString("targetId")).isEqualTo(SPECIMEN_ID);
+    assertThat(ruleEvent.getInt("violations")).isEqualTo(2);
+  }
+
+  private static List<RecordedEvent> getEvents(List<RecordedEvent> events, String name) {
+    return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+  }
+
+}
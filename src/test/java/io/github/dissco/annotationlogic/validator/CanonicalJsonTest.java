@@ -0,0 +1,147 @@
+package io.github.dissco.annotationlogic.validator;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static io.github.dissco.annotationlogic.TestUtils.givenEvent;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.dissco.core.annotationlogic.schema.DigitalSpecimen;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CanonicalJsonTest {
+
+  private final CanonicalJson canonicalJson = new CanonicalJson(MAPPER);
+
+  @Test
+  void testWriteSortsKeys() {
+    // Given
+    var json = """
+        {
+          "b": {"d": [3, {"f": true, "e": null}], "c": "value"},
+          "a": 1
+        }
+        """;
+
+    // When
+    var result = canonicalJson.write(json.getBytes(StandardCharsets.UTF_8));
+
+    // Then
+    assertThat(new String(result, StandardCharsets.UTF_8)).isEqualTo(
+        "{\"a\":1,\"b\":{\"c\":\"value\",\"d\":[3,{\"e\":null,\"f\":true}]}}");
+  }
+
+  @Test
+  void testWriteNormalisesNumbers() {
+    // Given
+    var json = """
+        {"integral": 2.0, "decimal": 1.50, "exponent": 1.5E2, "negative": -0.010,
+         "date": "2022-11-01T10:59:24+01:00"}
+        """;
+
+    // When
+    var result = canonicalJson.write(json.getBytes(StandardCharsets.UTF_8));
+
+    // Then
+    assertThat(new String(result, StandardCharsets.UTF_8)).isEqualTo(
+        "{\"date\":\"2022-11-01T10:59:24+01:00\",\"decimal\":1.5,\"exponent\":150,"
+            + "\"integral\":2,\"negative\":-0.01}");
+  }
+
+  @Test
+  void testWriteNormalisesDateTimeProperties() throws Exception {
+    // Given
+    var specimen = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withDwcVerbatimEventDate("2022-11-01T10:59:24+02:00")));
+    var json = (ObjectNode) MAPPER.valueToTree(specimen);
+    json.put("dcterms:created", "2022-11-01T10:59:24.123456+01:00");
+
+    // When
+    var result = MAPPER.readTree(
+        canonicalJson.write(MAPPER.writeValueAsBytes(json), DigitalSpecimen.class));
+
+    // Then
+    assertThat(result.get("dcterms:created").textValue()).isEqualTo("2022-11-01T09:59:24.123Z");
+    assertThat(result.at("/ods:hasEvents/0/dwc:verbatimEventDate").textValue())
+        .isEqualTo("2022-11-01T10:59:24+02:00");
+  }
+
+  @Test
+  void testTimestampsHashAsTheMapperWritesThem() throws Exception {
+    // Given
+    var specimen = givenDigitalSpecimen();
+    var json = (ObjectNode) MAPPER.valueToTree(specimen);
+    var created = specimen.getDctermsCreated().toInstant();
+    var precise = MAPPER.writeValueAsBytes(json.put("dcterms:created",
+        created.plusNanos(123_456).atOffset(ZoneOffset.ofHours(1)).toString()));
+
+    // When
+    var specimenHash = canonicalJson.hash(specimen);
+    var preciseHash = canonicalJson.hash(precise, DigitalSpecimen.class);
+
+    // Then
+    assertThat(preciseHash).isEqualTo(specimenHash);
+  }
+
+  @Test
+  void testSpecimenMatchesItsJson() throws Exception {
+    // Given
+    var specimen = givenDigitalSpecimen();
+    var json = MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(specimen);
+
+    // When
+    var fromSpecimen = canonicalJson.write(specimen);
+    var fromJson = canonicalJson.write(json, DigitalSpecimen.class);
+
+    // Then
+    assertThat(fromSpecimen).isEqualTo(fromJson);
+    assertThat(canonicalJson.hash(specimen)).isEqualTo(
+        canonicalJson.hash(json, DigitalSpecimen.class));
+    assertThat(MAPPER.readValue(fromSpecimen, DigitalSpecimen.class)).isEqualTo(specimen);
+  }
+
+  @Test
+  void testHash() throws Exception {
+    // Given
+    var annotation = givenAnnotation();
+    var expected = HexFormat.of().formatHex(
+        MessageDigest.getInstance("SHA-256").digest(canonicalJson.write(annotation)));
+
+    // When
+    var result = canonicalJson.hash(annotation);
+
+    // Then
+    assertThat(result).isEqualTo(expected);
+    assertThat(result).isNotEqualTo(
+        canonicalJson.hash(givenAnnotation().withOdsVersion(2)));
+  }
+
+  @Test
+  void testWriteToStream() throws Exception {
+    // Given
+    var output = new ByteArrayOutputStream();
+
+    // When
+    canonicalJson.write(givenDigitalSpecimen(), output);
+    output.write('\n');
+
+    // Then
+    assertThat(output.toByteArray()).startsWith(canonicalJson.write(givenDigitalSpecimen()));
+  }
+
+  @Test
+  void testInvalidJson() {
+    // When / Then
+    assertThrows(IllegalArgumentException.class,
+        () -> canonicalJson.hash("{\"a\":".getBytes(StandardCharsets.UTF_8)));
+  }
+
+}
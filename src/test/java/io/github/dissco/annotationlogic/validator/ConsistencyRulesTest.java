@@ -0,0 +1,166 @@
+package io.github.dissco.annotationlogic.validator;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static io.github.dissco.annotationlogic.TestUtils.givenEvent;
+import static io.github.dissco.annotationlogic.TestUtils.givenIdentification;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ConsistencyRulesTest {
+
+  private static final String EVENT_DATE_PATH = "$['ods:hasEvents'][*]['dwc:eventDate']";
+
+  @ParameterizedTest
+  @MethodSource("affectingPaths")
+  void testAffectedRule(String rulePath, String selectorPath) throws Exception {
+    // Given
+    var rule = givenRule("rule", rulePath);
+    var rules = new ConsistencyRules(List.of(rule));
+
+    // When
+    var result = rules.findRules(List.of(SelectorPath.parse(selectorPath)));
+
+    // Then
+    assertThat(result).containsExactly(rule);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "$['ods:specimenName']",
+      "$['ods:hasEvents'][0]['ods:hasLocation']",
+      "$['ods:hasIdentifications'][0]"
+  })
+  void testUnaffectedRule(String selectorPath) throws Exception {
+    // Given
+    var rules = new ConsistencyRules(List.of(givenRule("rule", EVENT_DATE_PATH)));
+
+    // When
+    var result = rules.findRules(List.of(SelectorPath.parse(selectorPath)));
+
+    // Then
+    assertThat(result).isEmpty();
+  }
+
+  @Test
+  void testRulesInGivenOrder() throws Exception {
+    // Given
+    var first = givenRule("first", "$['ods:hasEvents'][*]['ods:hasLocation']['dwc:country']");
+    var second = givenRule("second", "$['ods:specimenName']");
+    var third = givenRule("third", EVENT_DATE_PATH);
+    var rules = new ConsistencyRules(List.of(first, second, third));
+
+    // When
+    var result = rules.findRules(List.of(SelectorPath.parse("$['ods:specimenName']"),
+        SelectorPath.parse("$['ods:hasEvents'][0]")));
+
+    // Then
+    assertThat(result).containsExactly(first, second, third);
+  }
+
+  @Test
+  void testInvalidRule() {
+    // Given
+    var withoutPaths = givenRule("rule");
+    var invalidPath = givenRule("rule", "ods:specimenName");
+
+    // Then
+    assertThrows(IllegalArgumentException.class,
+        () -> new ConsistencyRules(List.of(withoutPaths)));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ConsistencyRules(List.of(invalidPath)));
+  }
+
+  @Test
+  void testCheck() {
+    // Given
+    var consistent = givenRule("consistent", EVENT_DATE_PATH);
+    var inconsistent = ConsistencyRule.of("inconsistent", List.of(EVENT_DATE_PATH),
+        specimen -> List.of("first", "second"));
+    JsonNode specimen = MAPPER.valueToTree(givenDigitalSpecimen());
+
+    // When
+    var violations = ConsistencyRules.check(List.of(consistent, inconsistent, inconsistent),
+        specimen, false);
+    var firstViolations = ConsistencyRules.check(List.of(inconsistent, inconsistent), specimen,
+        true);
+
+    // Then
+    assertThat(violations).containsExactly("inconsistent: first", "inconsistent: second",
+        "inconsistent: first", "inconsistent: second");
+    assertThat(firstViolations).containsExactly("inconsistent: first", "inconsistent: second");
+  }
+
+  @Test
+  void testVerifiedIdentificationMatchesSpecimenName() {
+    // Given
+    var rule = ConsistencyRules.verifiedIdentificationMatchesSpecimenName();
+    var matching = givenDigitalSpecimen().withOdsSpecimenName("Bombus bombus")
+        .withOdsHasIdentifications(List.of(givenIdentification().withOdsIsVerified(true)));
+    var unverified = givenDigitalSpecimen().withOdsSpecimenName("Bombus terrestris");
+    var mismatching = givenDigitalSpecimen().withOdsSpecimenName("Bombus terrestris")
+        .withOdsHasIdentifications(List.of(givenIdentification().withOdsIsVerified(true)));
+
+    // Then
+    assertThat(rule.check(MAPPER.valueToTree(matching))).isEmpty();
+    assertThat(rule.check(MAPPER.valueToTree(unverified))).isEmpty();
+    assertThat(rule.check(MAPPER.valueToTree(mismatching))).containsExactly(
+        "ods:specimenName Bombus terrestris does not match verified identification 0, which "
+            + "names Bombus bombus");
+  }
+
+  @ParameterizedTest
+  @MethodSource("eventDates")
+  void testEventDatesAreOrdered(String eventDate, boolean consistent) {
+    // Given
+    var rule = ConsistencyRules.eventDatesAreOrdered();
+    var specimen = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withDwcEventDate(eventDate)));
+
+    // When
+    var violations = rule.check(MAPPER.valueToTree(specimen));
+
+    // Then
+    assertThat(violations.isEmpty()).isEqualTo(consistent);
+  }
+
+  private static ConsistencyRule givenRule(String name, String... paths) {
+    return ConsistencyRule.of(name, List.of(paths), specimen -> List.of());
+  }
+
+  private static Stream<Arguments> affectingPaths() {
+    return Stream.of(
+        Arguments.of(EVENT_DATE_PATH, "$['ods:hasEvents'][0]['dwc:eventDate']"),
+        Arguments.of(EVENT_DATE_PATH, "$['ods:hasEvents'][*]['dwc:eventDate']"),
+        Arguments.of(EVENT_DATE_PATH, "$['ods:hasEvents'][1]"),
+        Arguments.of(EVENT_DATE_PATH, "$['ods:hasEvents']"),
+        Arguments.of("$['ods:hasEvents']", "$['ods:hasEvents'][0]['dwc:eventDate']"),
+        Arguments.of("$..['dwc:eventDate']", "$['ods:hasEvents'][0]"),
+        Arguments.of("$..['dwc:eventDate']",
+            "$['ods:hasSpecimenParts'][0]['ods:hasEvents'][0]['dwc:eventDate']")
+    );
+  }
+
+  private static Stream<Arguments> eventDates() {
+    return Stream.of(
+        Arguments.of("2022-11-01", true),
+        Arguments.of("2022-11-01/2022-11-02", true),
+        Arguments.of("2022-11-01T09:59:24.000Z/2022-11-01T08:00:00.000Z", true),
+        Arguments.of("2022-11/2022-11-20", true),
+        Arguments.of("2022-11-03/2022-11-02", false),
+        Arguments.of("2023/2022-12-31", false),
+        Arguments.of("November 2022/October 2022", true)
+    );
+  }
+
+}
@@ -1,16 +1,24 @@
 package io.github.dissco.annotationlogic.validator;
 
 import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.SPECIMEN_ID;
 import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static io.github.dissco.annotationlogic.TestUtils.givenEvent;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.networknt.schema.JsonSchemaFactory;
 import com.networknt.schema.SpecVersion.VersionFlag;
 import io.github.dissco.annotationlogic.TestUtils;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
 import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +31,8 @@ class JsonSchemaValidatorTest {
   private static final JsonSchemaFactory FACTORY = JsonSchemaFactory.getInstance(
       VersionFlag.V202012);
   private JsonSchemaValidator jsonSchemaValidator;
+  private JsonSchemaValidator memoJsonSchemaValidator;
+  private ValidationMemo validationMemo;
 
   @BeforeEach
   void setup() throws IOException {
@@ -31,6 +41,8 @@ class JsonSchemaValidatorTest {
         .getResourceAsStream(schemaUrl)) {
       var schema = FACTORY.getSchema(input);
       jsonSchemaValidator = new JsonSchemaValidator(schema, MAPPER);
+      validationMemo = new ValidationMemo(100);
+      memoJsonSchemaValidator = new JsonSchemaValidator(schema, MAPPER, validationMemo);
     }
   }
 
@@ -44,6 +56,82 @@ class JsonSchemaValidatorTest {
 
   }
 
+  @Test
+  void testValidSpecimenMemo() throws Exception {
+    // Given
+    var specimen = MAPPER.writeValueAsString(givenDigitalSpecimen());
+
+    // When
+    memoJsonSchemaValidator.specimenIsValid(specimen);
+    memoJsonSchemaValidator.specimenIsValid(specimen);
+
+    // Then
+    assertThat(validationMemo.size()).isEqualTo(3);
+    assertThat(validationMemo.getMisses()).isEqualTo(3);
+    assertThat(validationMemo.getHits()).isEqualTo(3);
+  }
+
+  @Test
+  void testInvalidSpecimenMemo() throws Exception {
+    // Given
+    var specimen = (ObjectNode) MAPPER.valueToTree(givenDigitalSpecimen());
+    specimen.put("unknownField", "unknownValue");
+    var specimenString = MAPPER.writeValueAsString(specimen);
+
+    // When
+    assertThrowsExactly(InvalidAnnotationException.class,
+        () -> memoJsonSchemaValidator.specimenIsValid(specimenString));
+    assertThrowsExactly(InvalidAnnotationException.class,
+        () -> memoJsonSchemaValidator.specimenIsValid(specimenString));
+
+    // Then
+    assertThat(validationMemo.size()).isZero();
+    assertThat(validationMemo.getHits()).isZero();
+  }
+
+  @Test
+  void testMemoKeepsErrorPositions() throws Exception {
+    // Given
+    // Positional, as this version of the validator does not apply 2020-12 items schemas
+    var event = "{\"$ref\": \"#/$defs/event\"}";
+    var schema = FACTORY.getSchema("""
+        {
+          "type": "object",
+          "properties": {
+            "ods:hasEvents": {"type": "array", "prefixItems": [%s]}
+          },
+          "$defs": {
+            "event": {
+              "type": "object",
+              "properties": {"dwc:eventDate": {"type": "string"}},
+              "additionalProperties": false
+            }
+          }
+        }
+        """.formatted(String.join(", ", Collections.nCopies(5, event))));
+    var memo = new ValidationMemo(100);
+    var memoValidator = new JsonSchemaValidator(schema, MAPPER, memo);
+    var events = MAPPER.createArrayNode();
+    for (var day = 1; day <= 4; day++) {
+      events.addObject().put("dwc:eventDate", "2022-11-0" + day);
+    }
+    var specimen = MAPPER.createObjectNode().set("ods:hasEvents", events);
+    memoValidator.specimenIsValid(MAPPER.writeValueAsString(specimen));
+    events.addObject().put("unknownField", "unknownValue");
+    var specimenString = MAPPER.writeValueAsString(specimen);
+
+    // When
+    var failFast = assertThrowsExactly(InvalidAnnotationException.class,
+        () -> memoValidator.specimenIsValid(specimenString));
+    var full = assertThrowsExactly(InvalidAnnotationException.class,
+        () -> memoValidator.withFullDiagnostics().specimenIsValid(specimenString));
+
+    // Then
+    assertThat(memo.getHits()).isEqualTo(4);
+    assertThat(failFast.getMessage()).contains("ods:hasEvents[4]");
+    assertThat(full.getMessage()).contains("ods:hasEvents[4]");
+  }
+
   @ParameterizedTest
   @MethodSource("invalidSpecimen")
   void testInvalidSpecimen(String digitalSpecimenString) {
@@ -55,6 +143,147 @@ class JsonSchemaValidatorTest {
 
   }
 
+  @Test
+  void testFailFastReportsFirstError() throws Exception {
+    // Given
+    var specimen = givenSpecimenWithUnknownFields();
+
+    // When
+    var exception = assertThrowsExactly(InvalidAnnotationException.class,
+        () -> jsonSchemaValidator.specimenIsValid(specimen));
+
+    // Then
+    assertThat(jsonSchemaValidator.isFailFast()).isTrue();
+    assertThat(exception.getMessage()).containsOnlyOnce("unknownField");
+  }
+
+  @Test
+  void testFullDiagnostics() throws Exception {
+    // Given
+    var specimen = givenSpecimenWithUnknownFields();
+    var diagnosticValidator = jsonSchemaValidator.withFullDiagnostics();
+
+    // When
+    var exception = assertThrowsExactly(InvalidAnnotationException.class,
+        () -> diagnosticValidator.specimenIsValid(specimen));
+
+    // Then
+    assertThat(diagnosticValidator.isFailFast()).isFalse();
+    assertThat(exception.getMessage()).contains("unknownField1", "unknownField2",
+        "unknownField3");
+  }
+
+  @Test
+  void testSpecimenErrors() throws Exception {
+    // Given
+    var specimen = givenSpecimenWithUnknownFields();
+
+    // When
+    var errors = jsonSchemaValidator.specimenErrors(specimen);
+
+    // Then
+    assertThat(errors).hasSize(3);
+    assertThat(jsonSchemaValidator.specimenErrors(
+        MAPPER.writeValueAsString(givenDigitalSpecimen()))).isEmpty();
+  }
+
+  @Test
+  void testFullDiagnosticsMutation() throws Exception {
+    // Given
+    var selectorPath = SelectorPath.parse("$['ods:hasIdentifications'][0]");
+    var newValue = MAPPER.readTree("{\"unknownField1\": 1, \"unknownField2\": 2}");
+
+    // When
+    var failFast = assertThrowsExactly(InvalidAnnotationException.class,
+        () -> jsonSchemaValidator.mutationIsValid(selectorPath, newValue));
+    var full = assertThrowsExactly(InvalidAnnotationException.class,
+        () -> jsonSchemaValidator.withFullDiagnostics().mutationIsValid(selectorPath, newValue));
+
+    // Then
+    assertThat(failFast.getMessage()).containsOnlyOnce("unknownField");
+    assertThat(full.getMessage()).contains("unknownField1", "unknownField2");
+  }
+
+  @Test
+  void testConsistencyRules() throws Exception {
+    // Given
+    var rule = ConsistencyRule.of("inconsistent", List.of("$['ods:hasEvents']"),
+        specimen -> List.of("specimen " + specimen.get("dcterms:identifier").asText()));
+    var specimen = MAPPER.writeValueAsString(givenDigitalSpecimen());
+    var invalidSpecimen = givenSpecimenWithUnknownFields();
+
+    // When
+    var inconsistent = assertThrowsExactly(InvalidAnnotationException.class,
+        () -> jsonSchemaValidator.specimenIsValid(specimen, List.of(rule)));
+    var failFast = assertThrowsExactly(InvalidAnnotationException.class,
+        () -> jsonSchemaValidator.specimenIsValid(invalidSpecimen, List.of(rule)));
+    var full = assertThrowsExactly(InvalidAnnotationException.class,
+        () -> jsonSchemaValidator.withFullDiagnostics()
+            .specimenIsValid(invalidSpecimen, List.of(rule)));
+    var streaming = assertThrowsExactly(InvalidAnnotationException.class,
+        () -> jsonSchemaValidator.specimenIsConsistent(
+            specimen.getBytes(StandardCharsets.UTF_8), List.of(rule)));
+
+    // Then
+    assertThat(inconsistent.getMessage()).contains("inconsistent: specimen " + SPECIMEN_ID);
+    assertThat(failFast.getMessage()).doesNotContain("inconsistent");
+    assertThat(full.getMessage()).contains("unknownField1", "inconsistent: specimen");
+    assertThat(streaming.getMessage()).contains("inconsistent: specimen " + SPECIMEN_ID);
+    assertDoesNotThrow(() -> jsonSchemaValidator.specimenIsValid(specimen,
+        List.of(ConsistencyRules.eventDatesAreOrdered())));
+  }
+
+  private static String givenSpecimenWithUnknownFields() throws IOException {
+    var specimen = (ObjectNode) MAPPER.valueToTree(givenDigitalSpecimen());
+    specimen.put("unknownField1", "unknownValue");
+    specimen.put("unknownField2", "unknownValue");
+    specimen.put("unknownField3", "unknownValue");
+    return MAPPER.writeValueAsString(specimen);
+  }
+
+  @ParameterizedTest
+  @MethodSource("validMutations")
+  void testValidMutation(String path, String newValue) throws Exception {
+    // Given
+    var selectorPath = SelectorPath.parse(path);
+    var newValueNode = newValue == null ? null : MAPPER.readTree(newValue);
+
+    // When / Then
+    assertDoesNotThrow(() -> jsonSchemaValidator.mutationIsValid(selectorPath, newValueNode));
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidMutations")
+  void testInvalidMutation(String path, String newValue) throws Exception {
+    // Given
+    var selectorPath = SelectorPath.parse(path);
+    var newValueNode = newValue == null ? null : MAPPER.readTree(newValue);
+
+    // When / Then
+    assertThrowsExactly(InvalidAnnotationException.class,
+        () -> jsonSchemaValidator.mutationIsValid(selectorPath, newValueNode));
+  }
+
+  private static Stream<Arguments> validMutations() {
+    return Stream.of(
+        Arguments.of("$['ods:hasEvents'][0]['ods:hasLocation']['dwc:country']", "\"England\""),
+        Arguments.of("$['ods:specimenName']", "\"Bombus bombus\""),
+        Arguments.of("$['ods:hasIdentifications'][0]['ods:hasTaxonIdentifications'][1]",
+            "{\"dwc:genus\": \"Bombus\"}"),
+        Arguments.of("$['ods:hasIdentifications'][0]", null)
+    );
+  }
+
+  private static Stream<Arguments> invalidMutations() {
+    return Stream.of(
+        Arguments.of("$['ods:topicDiscipline']", "\"unknownValue\""),
+        Arguments.of("$['unknownField']", "\"unknownValue\""),
+        Arguments.of("$['ods:hasEvents'][0]['ods:hasLocation']['dwc:country']", "{}"),
+        Arguments.of("$['ods:unknownClass'][0]['dwc:country']", "\"England\""),
+        Arguments.of("$['dcterms:identifier']", null)
+    );
+  }
+
   private static Stream<Arguments> invalidSpecimen() throws IOException {
     var jsonNodeSpecimen = (ObjectNode) MAPPER.valueToTree(TestUtils.givenDigitalSpecimen());
     var missingRequiredValueSpecimen = (ObjectNode) MAPPER.valueToTree(
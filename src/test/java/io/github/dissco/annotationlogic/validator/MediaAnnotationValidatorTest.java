@@ -0,0 +1,192 @@
+package io.github.dissco.annotationlogic.validator;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.MEDIA_ID;
+import static io.github.dissco.annotationlogic.TestUtils.SPECIMEN_ID;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.jayway.jsonpath.Option;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+import io.github.dissco.core.annotationlogic.schema.AnnotationBody;
+import io.github.dissco.core.annotationlogic.schema.AnnotationTarget;
+import io.github.dissco.core.annotationlogic.schema.DigitalMedia;
+import io.github.dissco.core.annotationlogic.schema.OaHasSelector;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MediaAnnotationValidatorTest {
+
+  private AnnotationValidator annotationValidator;
+  @Mock
+  private JsonSchemaValidator jsonSchemaValidator;
+
+  @BeforeEach
+  void setUp() {
+    annotationValidator = new AnnotationValidator(MAPPER,
+        com.jayway.jsonpath.Configuration.builder()
+            .options(Option.SUPPRESS_EXCEPTIONS)
+            .build(), jsonSchemaValidator);
+  }
+
+  @ParameterizedTest
+  @MethodSource("validFragmentSelectors")
+  void testApplyFragmentAnnotation(OaHasSelector selector) throws Exception {
+    // Given
+    var digitalMedia = givenDigitalMedia();
+
+    // When
+    var result = annotationValidator.applyAnnotation(digitalMedia,
+        givenFragmentAnnotation(selector));
+
+    // Then
+    assertThat(result).isEqualTo(givenDigitalMedia());
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidFragmentSelectors")
+  void testInvalidFragmentAnnotation(OaHasSelector selector) {
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyAnnotation(givenDigitalMedia(),
+            givenFragmentAnnotation(selector)));
+  }
+
+  @Test
+  void testPixelFragmentWithoutDimensions() {
+    // Given
+    var digitalMedia = givenDigitalMedia().withExifPixelXDimension(null);
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyAnnotation(digitalMedia,
+            givenFragmentAnnotation(givenFragmentSelector("xywh=0,0,10,10"))));
+  }
+
+  @Test
+  void testFragmentAnnotationWrongTarget() {
+    // Given
+    var annotation = givenFragmentAnnotation(givenFragmentSelector("xywh=0,0,10,10"));
+    annotation.getOaHasTarget().setDctermsIdentifier(SPECIMEN_ID);
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyAnnotation(givenDigitalMedia(), annotation));
+  }
+
+  @Test
+  void testEditingFragmentAnnotation() {
+    // Given
+    var annotation = givenFragmentAnnotation(givenFragmentSelector("xywh=0,0,10,10"))
+        .withOaMotivation(OaMotivation.OA_EDITING);
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyAnnotation(givenDigitalMedia(), annotation));
+  }
+
+  @Test
+  void testFragmentAnnotationOnSpecimen() {
+    // Given
+    var annotation = givenFragmentAnnotation(givenFragmentSelector("xywh=0,0,10,10"));
+    annotation.getOaHasTarget().setDctermsIdentifier(SPECIMEN_ID);
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyAnnotation(givenDigitalSpecimen(), annotation));
+  }
+
+  @Test
+  void testTermAnnotationOnMedia() {
+
+    // Then
+    assertThrows(UnsupportedOperationException.class,
+        () -> annotationValidator.applyAnnotation(givenDigitalMedia(), givenAnnotation()));
+  }
+
+  private static Stream<Arguments> validFragmentSelectors() {
+    return Stream.of(
+        Arguments.of(givenFragmentSelector("xywh=160,120,320,240")),
+        Arguments.of(givenFragmentSelector("xywh=pixel:0,0,1920,1080")),
+        Arguments.of(givenFragmentSelector("xywh=percent:25.5,25,50,75")),
+        Arguments.of(givenFragmentSelector("xywh=160,120,320,240")
+            .withAdditionalProperty("dcterms:conformsTo", "https://www.w3.org/TR/media-frags/")),
+        Arguments.of(givenRoiSelector(0.1, 0.2, 0.5, 0.8))
+    );
+  }
+
+  private static Stream<Arguments> invalidFragmentSelectors() {
+    return Stream.of(
+        Arguments.of(givenFragmentSelector("xywh=1800,0,200,100")),
+        Arguments.of(givenFragmentSelector("xywh=0,1000,100,100")),
+        Arguments.of(givenFragmentSelector("xywh=0,0,0,100")),
+        Arguments.of(givenFragmentSelector("xywh=0.5,0,100,100")),
+        Arguments.of(givenFragmentSelector("xywh=percent:50,0,60,10")),
+        Arguments.of(givenFragmentSelector("t=10,20")),
+        Arguments.of(givenFragmentSelector("xywh=160,120,320,240")
+            .withAdditionalProperty("dcterms:conformsTo", "https://example.org/fragments")),
+        Arguments.of(givenRoiSelector(0.6, 0.2, 0.5, 0.8)),
+        Arguments.of(givenRoiSelector(-0.1, 0.2, 0.5, 0.8)),
+        Arguments.of(new OaHasSelector()
+            .withAdditionalProperty("@type", "oa:FragmentSelector")
+            .withAdditionalProperty("ac:hasROI", Map.of("ac:xFrac", 0.1))),
+        Arguments.of(new OaHasSelector()
+            .withAdditionalProperty("@type", "oa:FragmentSelector"))
+    );
+  }
+
+  private static DigitalMedia givenDigitalMedia() {
+    return new DigitalMedia()
+        .withId(MEDIA_ID)
+        .withType("ods:DigitalMedia")
+        .withDctermsIdentifier(MEDIA_ID)
+        .withAcAccessURI("https://medialib.naturalis.nl/file/id/ZMA.UROCH.P.1555/format/large")
+        .withExifPixelXDimension(1920)
+        .withExifPixelYDimension(1080);
+  }
+
+  private static OaHasSelector givenFragmentSelector(String fragment) {
+    return new OaHasSelector()
+        .withAdditionalProperty("@type", "oa:FragmentSelector")
+        .withAdditionalProperty("rdf:value", fragment);
+  }
+
+  private static OaHasSelector givenRoiSelector(double x, double y, double width,
+      double height) {
+    return new OaHasSelector()
+        .withAdditionalProperty("@type", "oa:FragmentSelector")
+        .withAdditionalProperty("ac:hasROI", Map.of(
+            "ac:xFrac", x,
+            "ac:yFrac", y,
+            "ac:widthFrac", width,
+            "ac:heightFrac", height));
+  }
+
+  private static Annotation givenFragmentAnnotation(OaHasSelector selector) {
+    return givenAnnotation(OaMotivation.OA_COMMENTING, true)
+        .withOaHasBody(new AnnotationBody()
+            .withType("oa:TextualBody")
+            .withOaValue(List.of("Region of interest")))
+        .withOaHasTarget(new AnnotationTarget()
+            .withId(MEDIA_ID)
+            .withType("ods:DigitalMedia")
+            .withDctermsIdentifier(MEDIA_ID)
+            .withOaHasSelector(selector));
+  }
+
+}
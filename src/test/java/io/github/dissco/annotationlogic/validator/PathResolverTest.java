@@ -0,0 +1,92 @@
+package io.github.dissco.annotationlogic.validator;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static io.github.dissco.annotationlogic.TestUtils.givenEvent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jayway.jsonpath.Configuration;
+import io.github.dissco.annotationlogic.domain.PathSegment;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PathResolverTest {
+
+  private final Configuration configuration = Configuration.defaultConfiguration();
+  private final PathResolver pathResolver = new PathResolver(configuration.jsonProvider());
+  private Object tree;
+
+  @BeforeEach
+  void setup() throws Exception {
+    var specimen = givenDigitalSpecimen().withOdsHasEvents(List.of(givenEvent(), givenEvent()));
+    tree = configuration.jsonProvider().parse(MAPPER.writeValueAsString(specimen));
+  }
+
+  @Test
+  void testExistingTarget() throws Exception {
+    // When
+    var targets = pathResolver.resolve(tree,
+        SelectorPath.parse("$['ods:hasEvents'][1]['ods:hasLocation']['dwc:country']"));
+
+    // Then
+    assertThat(targets).hasSize(1);
+    var target = targets.getFirst();
+    assertThat(target.exists()).isTrue();
+    assertThat(target.value()).isEqualTo("England");
+    assertThat(target.parent()).isInstanceOf(Map.class);
+    assertThat(target.containers()).hasSize(4).first().isSameAs(tree);
+  }
+
+  @Test
+  void testMissingTargetWithParent() throws Exception {
+    // When
+    var targets = pathResolver.resolve(tree, SelectorPath.parse("$['ods:hasEvents'][2]"));
+
+    // Then
+    var target = targets.getFirst();
+    assertThat(target.exists()).isFalse();
+    assertThat(target.parentExists()).isTrue();
+    assertThat(target.parent()).isInstanceOf(List.class);
+    assertThat(target.last()).isEqualTo(PathSegment.ofIndex(2));
+  }
+
+  @Test
+  void testBrokenPath() throws Exception {
+    // When
+    var targets = pathResolver.resolve(tree,
+        SelectorPath.parse("$['ods:hasCitations'][0]['dcterms:title']"));
+
+    // Then
+    var target = targets.getFirst();
+    assertThat(target.exists()).isFalse();
+    assertThat(target.parentExists()).isFalse();
+    assertThat(target.parent()).isNull();
+  }
+
+  @Test
+  void testWildcard() throws Exception {
+    // When
+    var targets = pathResolver.resolve(tree,
+        SelectorPath.parse("$['ods:hasEvents'][*]['ods:hasLocation']['dwc:locality']"));
+
+    // Then
+    assertThat(targets).hasSize(2);
+    assertThat(targets).allMatch(target -> !target.exists() && target.parentExists());
+    assertThat(targets).extracting(target -> target.segments().get(1))
+        .containsExactly(PathSegment.ofIndex(0), PathSegment.ofIndex(1));
+  }
+
+  @Test
+  void testWildcardWithoutMatches() throws Exception {
+    // When
+    var targets = pathResolver.resolve(tree,
+        SelectorPath.parse("$['ods:hasCitations'][*]['dcterms:title']"));
+
+    // Then
+    assertThat(targets).isEmpty();
+  }
+
+}
@@ -0,0 +1,107 @@
+package io.github.dissco.annotationlogic.validator;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.dissco.annotationlogic.domain.PathSegment;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PersistentJsonTest {
+
+  @Test
+  void testObject() {
+    // Given
+    var expected = new HashMap<String, Object>();
+    var object = PersistentJsonObject.EMPTY;
+    for (int i = 0; i < 2_000; i++) {
+      expected.put("key-" + i, i);
+      object = object.with("key-" + i, i);
+    }
+
+    // When
+    var changed = object.with("key-5", "changed").without("key-7").with("added", null);
+
+    // Then
+    assertThat(object).isEqualTo(expected);
+    expected.put("key-5", "changed");
+    expected.remove("key-7");
+    expected.put("added", null);
+    assertThat(changed).isEqualTo(expected);
+    assertThat(changed).containsKey("added");
+    assertThat(changed.get("key-8")).isEqualTo(8);
+    assertThat(object.get("key-5")).isEqualTo(5);
+    assertThat(object.with("key-5", object.get("key-5"))).isSameAs(object);
+    assertThat(object.without("missing")).isSameAs(object);
+  }
+
+  @Test
+  void testObjectHashCollisions() {
+    // Given
+    assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+    var object = PersistentJsonObject.EMPTY.with("Aa", 1).with("BB", 2).with("C", 3);
+
+    // When
+    var removed = object.without("Aa");
+
+    // Then
+    assertThat(object).containsOnlyKeys("Aa", "BB", "C");
+    assertThat(object.get("BB")).isEqualTo(2);
+    assertThat(removed).containsOnlyKeys("BB", "C");
+    assertThat(removed.without("BB").without("C")).isEmpty();
+  }
+
+  @Test
+  void testArray() {
+    // Given
+    var expected = new ArrayList<Object>();
+    var array = PersistentJsonArray.EMPTY;
+    for (int i = 0; i < 1_100; i++) {
+      expected.add(i);
+      array = array.append(i);
+    }
+
+    // When
+    var changed = array.with(1_050, "changed").with(array.size(), "appended").without(3);
+
+    // Then
+    assertThat(array).isEqualTo(expected);
+    expected.set(1_050, "changed");
+    expected.add("appended");
+    expected.remove(3);
+    assertThat(changed).isEqualTo(expected);
+    assertThat(array.get(1_050)).isEqualTo(1_050);
+  }
+
+  @Test
+  void testReadAndUpdateSharesUnchangedElements() throws Exception {
+    // Given
+    var json = """
+        {"a": {"b": [1, {"c": "d"}], "e": 2.5}, "f": [true, false, null], "g": "h"}
+        """;
+    Object tree;
+    try (var parser = MAPPER.createParser(json)) {
+      tree = PersistentJson.read(parser);
+    }
+
+    // When
+    var updated = (PersistentJsonObject) PersistentJson.updateIn(tree,
+        List.of(PathSegment.ofKey("a"), PathSegment.ofKey("b"), PathSegment.ofIndex(1),
+            PathSegment.ofKey("c")), 0,
+        (parent, last) -> ((PersistentJsonObject) parent).with(last.key(), "changed"));
+
+    // Then
+    assertThat((JsonNode) MAPPER.valueToTree(tree)).isEqualTo(MAPPER.readTree(json));
+    assertThat((JsonNode) MAPPER.valueToTree(updated)).isEqualTo(
+        MAPPER.readTree(json.replace("\"d\"", "\"changed\"")));
+    var original = (PersistentJsonObject) tree;
+    assertThat(updated.get("f")).isSameAs(original.get("f"));
+    assertThat(((PersistentJsonObject) updated.get("a")).get("e"))
+        .isSameAs(((PersistentJsonObject) original.get("a")).get("e"));
+    assertThat(updated.get("g")).isSameAs(original.get("g"));
+  }
+
+}
@@ -0,0 +1,172 @@
+package io.github.dissco.annotationlogic.validator;
+
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.dissco.annotationlogic.domain.ProtectionRule;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
+import io.github.dissco.annotationlogic.domain.SelectorType;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ProtectionPolicyTest {
+
+  private static final String VERIFIED_PATH = "$['ods:hasIdentifications'][*]['ods:isVerified']";
+  private static final String MAS_ID = "https://hdl.handle.net/20.5000.1025/AAA-111-BBB";
+
+  @ParameterizedTest
+  @MethodSource("protectedPaths")
+  void testProtectedPath(String rulePath, String selectorPath) throws Exception {
+    // Given
+    var policy = new ProtectionPolicy(List.of(ProtectionRule.forbidden(rulePath)));
+
+    // When
+    var rules = policy.findRules(SelectorPath.parse(selectorPath));
+
+    // Then
+    assertThat(rules).extracting(ProtectionRule::path).containsExactly(rulePath);
+  }
+
+  @ParameterizedTest
+  @MethodSource("unprotectedPaths")
+  void testUnprotectedPath(String rulePath, String selectorPath) throws Exception {
+    // Given
+    var policy = new ProtectionPolicy(List.of(ProtectionRule.forbidden(rulePath)));
+
+    // When
+    var rules = policy.findRules(SelectorPath.parse(selectorPath));
+
+    // Then
+    assertThat(rules).isEmpty();
+  }
+
+  @Test
+  void testDefaults() {
+    // Given
+    var annotation = givenAnnotation();
+    var policy = ProtectionPolicy.defaults();
+
+    // Then
+    assertThrows(InvalidAnnotationException.class, () -> policy.check(annotation,
+        SelectorPath.parse("$['ods:version']"), SelectorType.TERM_SELECTOR));
+    assertThrows(InvalidAnnotationException.class, () -> policy.check(annotation,
+        SelectorPath.parse("$['ods:hasTombstoneMetadata']"), SelectorType.CLASS_SELECTOR));
+    assertThrows(InvalidAnnotationException.class, () -> policy.check(annotation,
+        SelectorPath.parse("$['ods:hasTombstoneMetadata']['ods:hasAgents'][0]"),
+        SelectorType.CLASS_SELECTOR));
+    assertDoesNotThrow(() -> policy.check(annotation,
+        SelectorPath.parse("$['ods:hasEvents'][0]['ods:hasLocation']['dwc:country']"),
+        SelectorType.TERM_SELECTOR));
+  }
+
+  @Test
+  void testDefaultsScopedToSelectorType() {
+    // Given
+    var annotation = givenAnnotation();
+    var policy = ProtectionPolicy.defaults();
+
+    // Then
+    assertDoesNotThrow(() -> policy.check(annotation,
+        SelectorPath.parse("$['ods:hasTombstoneMetadata']['ods:tombstoneText']"),
+        SelectorType.TERM_SELECTOR));
+    assertDoesNotThrow(() -> policy.check(annotation,
+        SelectorPath.parse("$['ods:hasEvents'][0]['dcterms:modified']"),
+        SelectorType.CLASS_SELECTOR));
+    assertThat(ProtectionPolicy.defaultRules()).allSatisfy(
+        rule -> assertThat(rule.selectorTypes()).hasSize(1));
+  }
+
+  @Test
+  void testAllowedAgent() throws Exception {
+    // Given
+    var policy = new ProtectionPolicy(List.of(
+        new ProtectionRule(VERIFIED_PATH, Set.of(OaMotivation.OA_EDITING), Set.of(MAS_ID))));
+    var path = SelectorPath.parse("$['ods:hasIdentifications'][0]['ods:isVerified']");
+    var annotation = givenAnnotation();
+    var masAnnotation = givenAnnotation();
+    masAnnotation.getAsGenerator().setId(MAS_ID);
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> policy.check(annotation, path, SelectorType.TERM_SELECTOR));
+    assertDoesNotThrow(() -> policy.check(masAnnotation, path, SelectorType.TERM_SELECTOR));
+  }
+
+  @Test
+  void testMotivation() throws Exception {
+    // Given
+    var policy = new ProtectionPolicy(List.of(
+        new ProtectionRule(VERIFIED_PATH, Set.of(OaMotivation.OA_EDITING), Set.of())));
+    var path = SelectorPath.parse("$['ods:hasIdentifications'][0]['ods:isVerified']");
+
+    // Then
+    assertThrows(InvalidAnnotationException.class, () -> policy.check(
+        givenAnnotation(OaMotivation.OA_EDITING, true), path, SelectorType.TERM_SELECTOR));
+    assertDoesNotThrow(() -> policy.check(givenAnnotation(OaMotivation.ODS_DELETING, true), path,
+        SelectorType.TERM_SELECTOR));
+  }
+
+  @Test
+  void testManyRules() throws Exception {
+    // Given
+    var rules = IntStream.range(0, 5000)
+        .mapToObj(i -> ProtectionRule.forbidden(
+            "$['ods:hasIdentifications'][" + i + "]['ods:hasTaxonIdentifications']"))
+        .toList();
+    var policy = new ProtectionPolicy(rules);
+
+    // When
+    var matched = policy.findRules(SelectorPath.parse(
+        "$['ods:hasIdentifications'][4321]['ods:hasTaxonIdentifications'][0]['dwc:genus']"));
+
+    // Then
+    assertThat(policy.size()).isEqualTo(5000);
+    assertThat(matched).extracting(ProtectionRule::path).containsExactly(
+        "$['ods:hasIdentifications'][4321]['ods:hasTaxonIdentifications']");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "ods:version", "$", "$...['ods:version']", "$['ods:version"})
+  void testInvalidRulePath(String rulePath) {
+
+    // Then
+    assertThrows(IllegalArgumentException.class,
+        () -> new ProtectionPolicy(List.of(ProtectionRule.forbidden(rulePath))));
+  }
+
+  private static Stream<Arguments> protectedPaths() {
+    return Stream.of(
+        Arguments.of("$..['ods:version']", "$['ods:version']"),
+        Arguments.of("$..['ods:version']", "$['ods:hasEvents'][0]['ods:version']"),
+        Arguments.of("$['ods:hasTombstoneMetadata']",
+            "$['ods:hasTombstoneMetadata']['ods:tombstoneText']"),
+        Arguments.of("$..['ods:hasAgents']..['schema:name']",
+            "$['ods:hasEvents'][0]['ods:hasAgents'][1]['ods:hasRoles'][0]['schema:name']"),
+        Arguments.of(VERIFIED_PATH, "$['ods:hasIdentifications'][2]['ods:isVerified']"),
+        Arguments.of("$['ods:hasIdentifications'][2]",
+            "$['ods:hasIdentifications'][*]['ods:isVerified']")
+    );
+  }
+
+  private static Stream<Arguments> unprotectedPaths() {
+    return Stream.of(
+        Arguments.of("$..['ods:version']", "$['ods:hasEvents'][0]['dwc:eventDate']"),
+        Arguments.of("$['ods:hasTombstoneMetadata']", "$['ods:hasEvents']"),
+        Arguments.of(VERIFIED_PATH, "$['ods:hasIdentifications'][2]['dwc:typeStatus']"),
+        Arguments.of("$['ods:hasIdentifications'][2]",
+            "$['ods:hasIdentifications'][1]['ods:isVerified']")
+    );
+  }
+
+}
@@ -0,0 +1,274 @@
+package io.github.dissco.annotationlogic.validator;
+
+import static io.github.dissco.annotationlogic.TestUtils.MAPPER;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.github.dissco.annotationlogic.domain.SelectorPath;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.validator.SchemaRegistry.SchemaType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SchemaRegistryTest {
+
+  private static final String BUNDLED_VERSION = "0.4.0";
+  private static final String NEW_VERSION = "0.5.0";
+  private static final String BUNDLED_SCHEMA_ID =
+      "https://schemas.dissco.tech/schemas/digitalobjects/digital-specimen/0.4.0/digital-specimen.json";
+  private static final String NEW_SCHEMA_ID =
+      "https://schemas.dissco.tech/schemas/fdo-type/digital-specimen/0.5.0/digital-specimen.json";
+  private static final String TOMBSTONE_SCHEMA_ID =
+      "https://schemas.dissco.tech/schemas/fdo-type/shared-model/0.5.0/tombstone-metadata.json";
+  @TempDir
+  private Path schemaDirectory;
+
+  @Test
+  void testBundledSchemas() throws Exception {
+    // Given
+    try (var schemaRegistry = new SchemaRegistry(MAPPER, null, null, null)) {
+
+      // When
+      var schema = schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, BUNDLED_VERSION);
+
+      // Then
+      assertThat(schemaRegistry.getDefaultVersion()).isEqualTo(BUNDLED_VERSION);
+      assertThat(schemaRegistry.getVersions(SchemaType.DIGITAL_SPECIMEN))
+          .containsExactly(BUNDLED_VERSION);
+      assertThat(schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, BUNDLED_VERSION))
+          .isSameAs(schema);
+      assertThat(schema.schema().validate(MAPPER.valueToTree(givenDigitalSpecimen()))).isEmpty();
+    }
+  }
+
+  @Test
+  void testDirectorySchemas() throws Exception {
+    // Given
+    givenSchema("[\"ods:newTerm\"]");
+    var specimen = MAPPER.valueToTree(givenDigitalSpecimen());
+
+    // When
+    try (var schemaRegistry = new SchemaRegistry(MAPPER, schemaDirectory, null, null)) {
+
+      // Then
+      assertThat(schemaRegistry.getVersions(SchemaType.DIGITAL_SPECIMEN))
+          .containsExactly(BUNDLED_VERSION, NEW_VERSION);
+      assertThat(schemaRegistry.getDefaultVersion()).isEqualTo(BUNDLED_VERSION);
+      assertThat(schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, NEW_VERSION).schema()
+          .validate(specimen)).isNotEmpty();
+    }
+  }
+
+  @Test
+  void testSelectSchema() throws Exception {
+    // Given
+    givenSchema("[\"ods:newTerm\"]");
+    var specimen = (ObjectNode) MAPPER.valueToTree(givenDigitalSpecimen());
+    var bundledSpecimen = specimen.deepCopy().put("$schema", BUNDLED_SCHEMA_ID);
+    var newSpecimen = specimen.deepCopy().put("$schema", NEW_SCHEMA_ID);
+
+    try (var schemaRegistry = new SchemaRegistry(MAPPER, schemaDirectory, null, null)) {
+      var jsonSchemaValidator = new JsonSchemaValidator(schemaRegistry, MAPPER, null);
+
+      // When
+      var defaultSchema = schemaRegistry.selectSchema(SchemaType.DIGITAL_SPECIMEN, specimen);
+      var bundledSchema = schemaRegistry.selectSchema(SchemaType.DIGITAL_SPECIMEN,
+          bundledSpecimen);
+      var newSchema = schemaRegistry.selectSchema(SchemaType.DIGITAL_SPECIMEN, newSpecimen);
+
+      // Then
+      assertThat(defaultSchema.version()).isEqualTo(BUNDLED_VERSION);
+      assertThat(bundledSchema.version()).isEqualTo(BUNDLED_VERSION);
+      assertThat(newSchema.version()).isEqualTo(NEW_VERSION);
+      assertDoesNotThrow(() -> jsonSchemaValidator.specimenIsValid(
+          MAPPER.writeValueAsString(bundledSpecimen)));
+      assertThrows(InvalidAnnotationException.class, () -> jsonSchemaValidator.specimenIsValid(
+          MAPPER.writeValueAsString(newSpecimen)));
+    }
+  }
+
+  @Test
+  void testSelectSchemaForMutation() throws Exception {
+    // Given
+    var versionDirectory = Files.createDirectories(schemaDirectory.resolve(NEW_VERSION));
+    Files.writeString(versionDirectory.resolve("digital-specimen.json"), """
+        {
+          "$id": "%s",
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "properties": {"ods:specimenName": {"type": "integer"}}
+        }
+        """.formatted(NEW_SCHEMA_ID));
+    var path = SelectorPath.parse("$['ods:specimenName']");
+    var newValue = TextNode.valueOf("Bombus bombus");
+
+    try (var schemaRegistry = new SchemaRegistry(MAPPER, schemaDirectory, null, null)) {
+      var jsonSchemaValidator = new JsonSchemaValidator(schemaRegistry, MAPPER, null);
+
+      // Then
+      assertDoesNotThrow(() -> jsonSchemaValidator.mutationIsValid(path, newValue,
+          BUNDLED_SCHEMA_ID));
+      assertThrows(InvalidAnnotationException.class,
+          () -> jsonSchemaValidator.mutationIsValid(path, newValue, NEW_SCHEMA_ID));
+    }
+  }
+
+  @Test
+  void testReferencedSchemasFromDirectory() throws Exception {
+    // Given
+    var versionDirectory = Files.createDirectories(schemaDirectory.resolve(NEW_VERSION));
+    Files.writeString(versionDirectory.resolve("digital-specimen.json"), """
+        {
+          "$id": "%s",
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "properties": {"ods:hasTombstoneMetadata": {"$ref": "%s"}}
+        }
+        """.formatted(NEW_SCHEMA_ID, TOMBSTONE_SCHEMA_ID));
+    givenTombstoneSchema("integer");
+    var path = SelectorPath.parse("$['ods:hasTombstoneMetadata']['ods:tombstoneText']");
+    var newValue = TextNode.valueOf("Specimen was destroyed");
+
+    try (var schemaRegistry = new SchemaRegistry(MAPPER, schemaDirectory, NEW_VERSION, null)) {
+      var jsonSchemaValidator = new JsonSchemaValidator(schemaRegistry, MAPPER, null);
+      assertThrows(InvalidAnnotationException.class,
+          () -> jsonSchemaValidator.mutationIsValid(path, newValue));
+      givenTombstoneSchema("string");
+
+      // When
+      schemaRegistry.reload();
+
+      // Then
+      assertDoesNotThrow(() -> jsonSchemaValidator.mutationIsValid(path, newValue));
+    }
+  }
+
+  @Test
+  void testUnknownVersion() throws Exception {
+    // Given
+    try (var schemaRegistry = new SchemaRegistry(MAPPER, null, null, null)) {
+
+      // Then
+      assertThrows(IllegalArgumentException.class,
+          () -> schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, NEW_VERSION));
+    }
+  }
+
+  @Test
+  void testReload() throws Exception {
+    // Given
+    givenSchema("[\"ods:newTerm\"]");
+    var specimen = MAPPER.valueToTree(givenDigitalSpecimen());
+
+    try (var schemaRegistry = new SchemaRegistry(MAPPER, schemaDirectory, null, null)) {
+      var oldSchema = schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, NEW_VERSION);
+      givenSchema("[]");
+
+      // When
+      schemaRegistry.reload();
+
+      // Then
+      var newSchema = schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, NEW_VERSION);
+      assertThat(newSchema.fingerprint()).isNotEqualTo(oldSchema.fingerprint());
+      assertThat(newSchema.schema().validate(specimen)).isEmpty();
+      assertThat(oldSchema.schema().validate(specimen)).isNotEmpty();
+    }
+  }
+
+  @Test
+  void testReloadReleasesFailFastSchemas() throws Exception {
+    // Given
+    givenSchema("[]");
+    var specimen = MAPPER.writeValueAsString(givenDigitalSpecimen());
+
+    try (var schemaRegistry = new SchemaRegistry(MAPPER, schemaDirectory, NEW_VERSION, null)) {
+      var jsonSchemaValidator = new JsonSchemaValidator(schemaRegistry, MAPPER, null);
+      jsonSchemaValidator.specimenIsValid(specimen);
+      var oldSchema = schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, NEW_VERSION);
+      var failFastSchema = oldSchema.derivedSchema("#fail-fast", key -> null);
+
+      // When
+      schemaRegistry.reload();
+      jsonSchemaValidator.specimenIsValid(specimen);
+
+      // Then
+      var newSchema = schemaRegistry.getSchema(SchemaType.DIGITAL_SPECIMEN, NEW_VERSION);
+      assertThat(failFastSchema).isNotNull();
+      assertThat(newSchema).isNotSameAs(oldSchema);
+      assertThat(newSchema.derivedSchema("#fail-fast", key -> null))
+          .isNotNull()
+          .isNotSameAs(failFastSchema);
+    }
+  }
+
+  @Test
+  void testReloadInterval() throws Exception {
+    // Given
+    givenSchema("[\"ods:newTerm\"]");
+    var specimen = MAPPER.valueToTree(givenDigitalSpecimen());
+
+    try (var schemaRegistry = new SchemaRegistry(MAPPER, schemaDirectory, NEW_VERSION,
+        Duration.ofMillis(50))) {
+      // When
+      var file = givenSchema("[]");
+      Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(10)));
+
+      // Then
+      await().atMost(Duration.ofSeconds(5)).until(() -> schemaRegistry.getSchema(
+          SchemaType.DIGITAL_SPECIMEN, NEW_VERSION).schema().validate(specimen).isEmpty());
+    }
+  }
+
+  @Test
+  void testPinnedSchemaVersion() throws Exception {
+    // Given
+    givenSchema("[\"ods:newTerm\"]");
+    var specimen = MAPPER.writeValueAsString(givenDigitalSpecimen());
+
+    try (var schemaRegistry = new SchemaRegistry(MAPPER, schemaDirectory, null, null)) {
+      var jsonSchemaValidator = new JsonSchemaValidator(schemaRegistry, MAPPER, null);
+
+      // When
+      jsonSchemaValidator.specimenIsValid(specimen);
+
+      // Then
+      assertThrows(InvalidAnnotationException.class,
+          () -> jsonSchemaValidator.forSchemaVersion(NEW_VERSION).specimenIsValid(specimen));
+    }
+  }
+
+  private void givenTombstoneSchema(String textType) throws Exception {
+    var versionDirectory = Files.createDirectories(schemaDirectory.resolve(NEW_VERSION));
+    Files.writeString(versionDirectory.resolve("tombstone-metadata.json"), """
+        {
+          "$id": "%s",
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "properties": {"ods:tombstoneText": {"type": "%s"}}
+        }
+        """.formatted(TOMBSTONE_SCHEMA_ID, textType));
+  }
+
+  private Path givenSchema(String required) throws Exception {
+    var versionDirectory = Files.createDirectories(schemaDirectory.resolve(NEW_VERSION));
+    return Files.writeString(versionDirectory.resolve("digital-specimen.json"), """
+        {
+          "$id": "%s",
+          "$schema": "https://json-schema.org/draft/2020-12/schema",
+          "type": "object",
+          "required": %s
+        }
+        """.formatted(NEW_SCHEMA_ID, required));
+  }
+
+}
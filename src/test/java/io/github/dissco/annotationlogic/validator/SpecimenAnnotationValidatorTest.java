@@ -12,10 +12,21 @@ import static io.github.dissco.annotationlogic.TestUtils.givenIdentification;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.jayway.jsonpath.Option;
+import io.github.dissco.annotationlogic.domain.BinaryFormat;
 import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.annotationlogic.exception.InvalidTargetException;
+import io.github.dissco.annotationlogic.exception.StaleTargetException;
 import io.github.dissco.core.annotationlogic.schema.Annotation;
 import io.github.dissco.core.annotationlogic.schema.Annotation.OaMotivation;
 import io.github.dissco.core.annotationlogic.schema.AnnotationBody;
@@ -25,21 +36,33 @@ import io.github.dissco.core.annotationlogic.schema.GeologicalContext;
 import io.github.dissco.core.annotationlogic.schema.Location;
 import io.github.dissco.core.annotationlogic.schema.OaHasSelector;
 import io.github.dissco.core.annotationlogic.schema.TaxonIdentification;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 class SpecimenAnnotationValidatorTest {
 
+  private static final UUID BATCH_ID = UUID.fromString("b4e6a5d4-4ba4-4f9d-9a3b-6b0c3c1c5b7a");
   private AnnotationValidator annotationValidator;
+  private AnnotationValidator streamingAnnotationValidator;
   @Mock
   private JsonSchemaValidator jsonSchemaValidator;
 
@@ -49,6 +72,12 @@ class SpecimenAnnotationValidatorTest {
         com.jayway.jsonpath.Configuration.builder()
             .options(Option.SUPPRESS_EXCEPTIONS)
             .build(), jsonSchemaValidator);
+    streamingAnnotationValidator = AnnotationValidator.builder(MAPPER,
+            com.jayway.jsonpath.Configuration.builder()
+                .options(Option.SUPPRESS_EXCEPTIONS)
+                .build(), jsonSchemaValidator)
+        .streamingThreshold(0)
+        .build();
   }
 
 
@@ -84,6 +113,942 @@ class SpecimenAnnotationValidatorTest {
     assertThat(result).isEqualTo(expected);
   }
 
+  @ParameterizedTest
+  @MethodSource("validAnnotationsAndResult")
+  void testApplyAnnotationsStreaming(Annotation annotation, DigitalSpecimen expected)
+      throws Exception {
+    // Given
+
+    // When
+    var result = streamingAnnotationValidator.applyAnnotation(givenDigitalSpecimen(), annotation);
+
+    // Then
+    assertThat(result).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidAnnotations")
+  void testInvalidAnnotationStreaming(Annotation annotation) {
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> streamingAnnotationValidator.applyAnnotation(givenDigitalSpecimen(), annotation));
+  }
+
+  @Test
+  void testInvalidResultStreaming() throws InvalidAnnotationException {
+    // Given
+    doThrow(InvalidAnnotationException.class).when(jsonSchemaValidator)
+        .mutationIsValid(any(), any(), any());
+
+    // When
+    assertThrows(InvalidAnnotationException.class,
+        () -> streamingAnnotationValidator.applyAnnotation(givenDigitalSpecimen(),
+            givenAnnotation()));
+  }
+
+  @Test
+  void testApplyAnnotationWithResult() throws Exception {
+    // Given
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var result = annotationValidator.applyAnnotationWithResult(givenDigitalSpecimen(),
+        givenAnnotation());
+
+    // Then
+    assertThat(result.unchanged()).isFalse();
+    assertThat(result.digitalSpecimen()).isEqualTo(expected);
+  }
+
+  @Test
+  void testApplyAnnotationAtVersion() throws Exception {
+    // Given
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var result = annotationValidator.applyAnnotation(givenDigitalSpecimen(), givenAnnotation(), 1);
+    var resultWithFlag = annotationValidator.applyAnnotationWithResult(givenDigitalSpecimen(),
+        givenAnnotation(), 1);
+
+    // Then
+    assertThat(result).isEqualTo(expected);
+    assertThat(resultWithFlag.digitalSpecimen()).isEqualTo(expected);
+  }
+
+  @Test
+  void testStaleAnnotation() {
+    // When
+    var exception = assertThrows(StaleTargetException.class,
+        () -> annotationValidator.applyAnnotation(givenDigitalSpecimen().withOdsVersion(3),
+            givenAnnotation(), 2));
+
+    // Then
+    assertThat(exception.getAnnotatedVersion()).isEqualTo(2);
+    assertThat(exception.getTargetVersion()).isEqualTo(3);
+    verifyNoInteractions(jsonSchemaValidator);
+  }
+
+  @Test
+  void testStaleAnnotationWithoutTargetVersion() {
+    // When
+    assertThrows(StaleTargetException.class,
+        () -> annotationValidator.applyAnnotationWithResult(
+            givenDigitalSpecimen().withOdsVersion(null), givenAnnotation(), 1));
+
+    // Then
+    verifyNoInteractions(jsonSchemaValidator);
+  }
+
+  @ParameterizedTest
+  @MethodSource("unchangedAnnotations")
+  void testUnchangedAnnotation(Annotation annotation) throws Exception {
+    // Given
+    var digitalSpecimen = givenDigitalSpecimen();
+
+    // When
+    var result = annotationValidator.applyAnnotationWithResult(digitalSpecimen, annotation);
+
+    // Then
+    assertThat(result.unchanged()).isTrue();
+    assertThat(result.digitalSpecimen()).isSameAs(digitalSpecimen);
+    verifyNoInteractions(jsonSchemaValidator);
+  }
+
+  @ParameterizedTest
+  @MethodSource("unchangedAnnotations")
+  void testUnchangedAnnotationStreaming(Annotation annotation) throws Exception {
+    // Given
+    var digitalSpecimen = givenDigitalSpecimen();
+
+    // When
+    var result = streamingAnnotationValidator.applyAnnotationWithResult(digitalSpecimen,
+        annotation);
+
+    // Then
+    assertThat(result.unchanged()).isTrue();
+    assertThat(result.digitalSpecimen()).isSameAs(digitalSpecimen);
+    verifyNoInteractions(jsonSchemaValidator);
+  }
+
+  @Test
+  void testApplyPreparedSpecimen() throws Exception {
+    // Given
+    var preparedSpecimen = annotationValidator.prepare(givenDigitalSpecimen());
+    var cases = validAnnotationsAndResult().map(Arguments::get).toList();
+
+    // When
+    var results = new ArrayList<DigitalSpecimen>();
+    for (var arguments : cases) {
+      results.add(annotationValidator.apply(preparedSpecimen, (Annotation) arguments[0]));
+    }
+    var repeated = annotationValidator.apply(preparedSpecimen, (Annotation) cases.get(0)[0]);
+
+    // Then
+    for (int i = 0; i < cases.size(); i++) {
+      assertThat(results.get(i)).isEqualTo(cases.get(i)[1]);
+    }
+    assertThat(repeated).isEqualTo(cases.get(0)[1]);
+  }
+
+  @Test
+  void testApplyPreparedSpecimenAfterInvalidAnnotation() throws Exception {
+    // Given
+    var preparedSpecimen = annotationValidator.prepare(givenDigitalSpecimen());
+    var invalidAnnotation = givenAnnotation()
+        .withOaHasTarget(givenAnnotationTarget("$['dwc:pathDoesNotExist']"));
+
+    // When
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.apply(preparedSpecimen, invalidAnnotation));
+    var result = annotationValidator.apply(preparedSpecimen, givenAnnotation());
+
+    // Then
+    assertThat(result).isEqualTo(givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE)))));
+  }
+
+  @Test
+  void testApplyPreparedSpecimenStreaming() throws Exception {
+    // Given
+    var preparedSpecimen = streamingAnnotationValidator.prepare(givenDigitalSpecimen());
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var first = streamingAnnotationValidator.apply(preparedSpecimen, givenAnnotation());
+    var second = streamingAnnotationValidator.apply(preparedSpecimen, givenAnnotation());
+
+    // Then
+    assertThat(first).isEqualTo(expected);
+    assertThat(second).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @MethodSource("validAnnotationsAndResult")
+  void testApplyAnnotationsPersistent(Annotation annotation, DigitalSpecimen expected)
+      throws Exception {
+    // Given
+    var persistentSpecimen = annotationValidator.persist(givenDigitalSpecimen());
+
+    // When
+    var result = annotationValidator.apply(persistentSpecimen, annotation);
+
+    // Then
+    assertThat(result.toDigitalSpecimen()).isEqualTo(expected);
+    assertThat(persistentSpecimen.toDigitalSpecimen()).isEqualTo(givenDigitalSpecimen());
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidAnnotations")
+  void testInvalidAnnotationPersistent(Annotation annotation) throws Exception {
+    // Given
+    var persistentSpecimen = annotationValidator.persist(givenDigitalSpecimen());
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.apply(persistentSpecimen, annotation));
+  }
+
+  @ParameterizedTest
+  @MethodSource("unchangedAnnotations")
+  void testUnchangedAnnotationPersistent(Annotation annotation) throws Exception {
+    // Given
+    var persistentSpecimen = annotationValidator.persist(givenDigitalSpecimen());
+
+    // When
+    var result = annotationValidator.apply(persistentSpecimen, annotation);
+
+    // Then
+    assertThat(result).isSameAs(persistentSpecimen);
+    verifyNoInteractions(jsonSchemaValidator);
+  }
+
+  @Test
+  void testPersistentVersionsShareElements() throws Exception {
+    // Given
+    var first = annotationValidator.persist(givenDigitalSpecimen());
+
+    // When
+    var second = annotationValidator.apply(first, givenAnnotation());
+
+    // Then
+    var firstTree = first.tree();
+    var secondTree = second.tree();
+    assertThat(secondTree.get("ods:hasIdentifications"))
+        .isSameAs(firstTree.get("ods:hasIdentifications"));
+    assertThat(secondTree.get("ods:hasEntityRelationships"))
+        .isSameAs(firstTree.get("ods:hasEntityRelationships"));
+    assertThat(secondTree.get("ods:hasEvents")).isNotSameAs(firstTree.get("ods:hasEvents"));
+    assertThat(first.toDigitalSpecimen()).isEqualTo(givenDigitalSpecimen());
+    assertThat(second.getTargetId()).isEqualTo(SPECIMEN_ID);
+  }
+
+  @Test
+  void testSpecimenCache() throws Exception {
+    // Given
+    var specimenCache = new SpecimenCache(1_000_000);
+    var cachingValidator = AnnotationValidator.builder(MAPPER,
+            com.jayway.jsonpath.Configuration.builder()
+                .options(Option.SUPPRESS_EXCEPTIONS)
+                .build(), jsonSchemaValidator)
+        .specimenCache(specimenCache)
+        .build();
+    var digitalSpecimen = givenDigitalSpecimen();
+    var addingAnnotation = givenAnnotation(OaMotivation.ODS_ADDING, true);
+
+    // When
+    var edited = cachingValidator.applyAnnotation(digitalSpecimen, givenAnnotation());
+    var added = cachingValidator.applyAnnotation(givenDigitalSpecimen(), addingAnnotation);
+    var unchanged = cachingValidator.applyAnnotationWithResult(digitalSpecimen,
+        givenCountryAnnotation("England"));
+    var otherVersion = cachingValidator.applyAnnotation(givenDigitalSpecimen().withOdsVersion(2),
+        givenAnnotation());
+
+    // Then
+    assertThat(edited).isEqualTo(givenSpecimenWithCountry(NEW_VALUE));
+    assertThat(added).isEqualTo(annotationValidator.applyAnnotation(givenDigitalSpecimen(),
+        addingAnnotation));
+    assertThat(unchanged.unchanged()).isTrue();
+    assertThat(unchanged.digitalSpecimen()).isSameAs(digitalSpecimen);
+    assertThat(otherVersion).isEqualTo(givenSpecimenWithCountry(NEW_VALUE).withOdsVersion(2));
+    assertThat(specimenCache.getHits()).isEqualTo(2);
+    assertThat(specimenCache.getMisses()).isEqualTo(2);
+    assertThat(specimenCache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void testSpecimenCacheAnnotationsInARow() throws Exception {
+    // Given
+    var specimenCache = new SpecimenCache(1_000_000);
+    var cachingValidator = AnnotationValidator.builder(MAPPER,
+            com.jayway.jsonpath.Configuration.builder()
+                .options(Option.SUPPRESS_EXCEPTIONS)
+                .build(), jsonSchemaValidator)
+        .specimenCache(specimenCache)
+        .build();
+    var addingAnnotation = givenAnnotation(OaMotivation.ODS_ADDING, true);
+
+    // When
+    var edited = cachingValidator.applyAnnotation(givenDigitalSpecimen(), givenAnnotation());
+    var added = cachingValidator.applyAnnotation(edited, addingAnnotation);
+    var original = cachingValidator.applyAnnotation(givenDigitalSpecimen(), addingAnnotation);
+
+    // Then
+    assertThat(edited.getOdsVersion()).isEqualTo(givenDigitalSpecimen().getOdsVersion());
+    assertThat(added).isEqualTo(annotationValidator.applyAnnotation(
+        givenSpecimenWithCountry(NEW_VALUE), addingAnnotation));
+    assertThat(original).isEqualTo(annotationValidator.applyAnnotation(givenDigitalSpecimen(),
+        addingAnnotation));
+    assertThat(specimenCache.getHits()).isEqualTo(1);
+    assertThat(specimenCache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void testConsistencyRules() throws Exception {
+    // Given
+    var countryRule = ConsistencyRule.of("country",
+        List.of("$['ods:hasEvents'][*]['ods:hasLocation']"), specimen -> List.of());
+    var nameRule = ConsistencyRule.of("name", List.of("$['ods:specimenName']"),
+        specimen -> List.of());
+    var rules = new ConsistencyRules(List.of(countryRule, nameRule));
+    var ruleValidator = givenValidatorWithRules(Long.MAX_VALUE, rules);
+    var streamingRuleValidator = givenValidatorWithRules(0, rules);
+
+    // When
+    ruleValidator.applyAnnotation(givenDigitalSpecimen(), givenAnnotation());
+    ruleValidator.applyAnnotation(givenDigitalSpecimen(),
+        givenAnnotation(OaMotivation.OA_EDITING, false));
+    ruleValidator.apply(ruleValidator.persist(givenDigitalSpecimen()), givenAnnotation());
+    ruleValidator.replay(givenDigitalSpecimen(), List.of(givenAnnotation()));
+    streamingRuleValidator.applyAnnotation(givenDigitalSpecimen(), givenAnnotation());
+
+    // Then
+    verify(jsonSchemaValidator, times(2)).specimenIsValid(anyString(),
+        eq(List.of(countryRule)));
+    verify(jsonSchemaValidator).specimenIsValid(anyString());
+    verify(jsonSchemaValidator).specimenTreeIsValid(any(), eq(List.of(countryRule)));
+    verify(jsonSchemaValidator).specimenTreeIsConsistent(any(), eq(List.of(countryRule)));
+  }
+
+  @Test
+  void testConsistencyRuleViolation() throws Exception {
+    // Given
+    var rule = ConsistencyRule.of("country", List.of("$['ods:hasEvents']"),
+        specimen -> List.of("inconsistent"));
+    var ruleValidator = givenValidatorWithRules(Long.MAX_VALUE,
+        new ConsistencyRules(List.of(rule)));
+    doThrow(InvalidAnnotationException.class).when(jsonSchemaValidator)
+        .specimenIsValid(anyString(), eq(List.of(rule)));
+
+    // When / Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> ruleValidator.applyAnnotation(givenDigitalSpecimen(), givenAnnotation()));
+  }
+
+  private AnnotationValidator givenValidatorWithRules(long streamingThreshold,
+      ConsistencyRules rules) {
+    return AnnotationValidator.builder(MAPPER,
+            com.jayway.jsonpath.Configuration.builder()
+                .options(Option.SUPPRESS_EXCEPTIONS)
+                .build(), jsonSchemaValidator)
+        .streamingThreshold(streamingThreshold)
+        .consistencyRules(rules)
+        .build();
+  }
+
+  @Test
+  void testReplay() throws Exception {
+    // Given
+    var annotations = Stream.of("Country 0", "England", "Country 2", "Country 3", "Country 4",
+        "Country 5", "Country 6").map(this::givenCountryAnnotation).toList();
+    var states = new ArrayList<>(List.of(givenDigitalSpecimen()));
+    for (var annotation : annotations) {
+      states.add(annotationValidator.applyAnnotation(states.getLast(), annotation));
+    }
+    clearInvocations(jsonSchemaValidator);
+
+    // When
+    var replay = annotationValidator.replay(givenDigitalSpecimen(), annotations, 3, 2);
+
+    // Then
+    assertThat(replay.isComplete()).isTrue();
+    assertThat(replay.getAppliedCount()).isEqualTo(annotations.size());
+    assertThat(replay.getCurrentState()).isEqualTo(states.getLast());
+    for (int i = 0; i < states.size(); i++) {
+      assertThat(replay.getStateAt(i)).isEqualTo(states.get(i));
+    }
+    // Validated at the checkpoints after 3 and 6 annotations, and after the last annotation
+    verify(jsonSchemaValidator, times(3)).specimenIsValid(any());
+  }
+
+  @Test
+  void testReplayInvalidAnnotation() throws Exception {
+    // Given
+    var invalidAnnotation = givenAnnotation()
+        .withOaHasTarget(givenAnnotationTarget("$['dwc:pathDoesNotExist']"));
+    var annotations = List.of(givenCountryAnnotation("Country 0"),
+        givenCountryAnnotation("Country 1"), invalidAnnotation, givenCountryAnnotation("Country 3"));
+
+    // When
+    var replay = annotationValidator.replay(givenDigitalSpecimen(), annotations, 3, 2);
+
+    // Then
+    assertThat(replay.isComplete()).isFalse();
+    assertThat(replay.getFailure().index()).isEqualTo(2);
+    assertThat(replay.getFailure().annotation()).isEqualTo(invalidAnnotation);
+    assertThat(replay.getAppliedCount()).isEqualTo(2);
+    assertThat(replay.getCurrentState()).isEqualTo(givenSpecimenWithCountry("Country 1"));
+    verify(jsonSchemaValidator).specimenIsValid(any());
+  }
+
+  @Test
+  void testReplayInvalidSpecimenAtCheckpoint() throws Exception {
+    // Given
+    var annotations = Stream.of("Country 0", "Country 1", "Country 2", "Country 3", "Invalid 4",
+        "Invalid 5", "Country 6").map(this::givenCountryAnnotation).toList();
+    doAnswer(invocation -> {
+      if (invocation.<String>getArgument(0).contains("Invalid")) {
+        throw new InvalidAnnotationException("Invalid specimen");
+      }
+      return null;
+    }).when(jsonSchemaValidator).specimenIsValid(any());
+
+    // When
+    var replay = annotationValidator.replay(givenDigitalSpecimen(), annotations, 3, 2);
+
+    // Then
+    assertThat(replay.isComplete()).isFalse();
+    assertThat(replay.getFailure().index()).isEqualTo(4);
+    assertThat(replay.getFailure().annotation()).isEqualTo(annotations.get(4));
+    assertThat(replay.getFailure().exception()).isInstanceOf(InvalidAnnotationException.class);
+    assertThat(replay.getAppliedCount()).isEqualTo(4);
+    assertThat(replay.getCurrentState()).isEqualTo(givenSpecimenWithCountry("Country 3"));
+    assertThat(replay.getStateAt(3)).isEqualTo(givenSpecimenWithCountry("Country 2"));
+    assertThrows(IllegalArgumentException.class, () -> replay.getStateAt(5));
+  }
+
+  @Test
+  void testReplayInvalidInterval() {
+    // When / Then
+    assertThrows(IllegalArgumentException.class,
+        () -> annotationValidator.replay(givenDigitalSpecimen(), List.of(), 0, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> annotationValidator.replay(givenDigitalSpecimen(), List.of(), 1, 0));
+  }
+
+  private Annotation givenCountryAnnotation(String country) {
+    return givenAnnotation().withOaHasBody(new AnnotationBody()
+        .withType("oa:TextualBody")
+        .withOaValue(new ArrayList<>(List.of(country))));
+  }
+
+  private static DigitalSpecimen givenSpecimenWithCountry(String country) {
+    return givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(country))));
+  }
+
+  @Test
+  void testApplyBatchAnnotation() throws Exception {
+    // Given
+    var otherSpecimenId = "https://doi.org/10.3535/XYZ-XYZ-XYZ";
+    var template = givenAnnotation().withOdsBatchID(BATCH_ID);
+    var batch = Map.of(
+        1, givenDigitalSpecimen(),
+        2, givenDigitalSpecimen().withDctermsIdentifier(otherSpecimenId),
+        3, givenDigitalSpecimen().withOdsHasEvents(List.of()));
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var result = annotationValidator.applyBatchAnnotation(template, batch);
+
+    // Then
+    assertThat(result).containsOnlyKeys(1, 2, 3);
+    assertThat(result.get(1).digitalSpecimen()).isEqualTo(expected);
+    assertThat(result.get(1).unchanged()).isFalse();
+    assertThat(result.get(2).digitalSpecimen()).isEqualTo(
+        expected.withDctermsIdentifier(otherSpecimenId));
+    assertThat(result.get(3).isApplied()).isFalse();
+    assertThat(result.get(3).targetId()).isEqualTo(SPECIMEN_ID);
+    assertThat(result.get(3).exception()).isInstanceOf(InvalidAnnotationException.class);
+  }
+
+  @Test
+  void testApplyBatchAnnotationStreaming() throws Exception {
+    // Given
+    var template = givenAnnotation().withOdsBatchID(BATCH_ID);
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var result = streamingAnnotationValidator.applyBatchAnnotation(template,
+        Map.of(1, givenDigitalSpecimen()));
+
+    // Then
+    assertThat(result.get(1).digitalSpecimen()).isEqualTo(expected);
+  }
+
+  @Test
+  void testApplyBatchAnnotationOnExecutor() throws Exception {
+    // Given
+    var tasks = new AtomicInteger();
+    var executingValidator = AnnotationValidator.builder(MAPPER,
+            com.jayway.jsonpath.Configuration.builder()
+                .options(Option.SUPPRESS_EXCEPTIONS)
+                .build(), jsonSchemaValidator)
+        .batchExecutor(task -> {
+          tasks.incrementAndGet();
+          task.run();
+        })
+        .build();
+    var template = givenAnnotation().withOdsBatchID(BATCH_ID);
+
+    // When
+    var result = executingValidator.applyBatchAnnotation(template,
+        Map.of(1, givenDigitalSpecimen(), 2, givenDigitalSpecimen()));
+
+    // Then
+    assertThat(tasks.get()).isEqualTo(2);
+    assertThat(result.get(1).digitalSpecimen()).isEqualTo(givenSpecimenWithCountry(NEW_VALUE));
+    assertThat(result.get(2).digitalSpecimen()).isEqualTo(givenSpecimenWithCountry(NEW_VALUE));
+  }
+
+  @Test
+  void testBatchAnnotationChecksTargets() throws Exception {
+    // Given
+    var template = givenAnnotation().withOdsBatchID(BATCH_ID);
+    var batch = Map.of(
+        1, givenDigitalSpecimen().withDctermsIdentifier(null),
+        2, givenDigitalSpecimen().withOdsFdoType("https://doi.org/21.T11148/other"));
+
+    // When
+    var result = annotationValidator.applyBatchAnnotation(template, batch);
+
+    // Then
+    assertThat(result.get(1).isApplied()).isFalse();
+    assertThat(result.get(1).exception()).isInstanceOf(InvalidTargetException.class);
+    assertThat(result.get(2).isApplied()).isFalse();
+    assertThat(result.get(2).targetId()).isEqualTo(SPECIMEN_ID);
+    assertThat(result.get(2).exception()).isInstanceOf(InvalidAnnotationException.class);
+  }
+
+  @Test
+  void testBatchAnnotationWithoutBatchId() {
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyBatchAnnotation(givenAnnotation(),
+            Map.of(1, givenDigitalSpecimen())));
+  }
+
+  @Test
+  void testInvalidBatchTemplate() {
+    // Given
+    var template = givenAnnotation(OaMotivation.OA_COMMENTING, true).withOdsBatchID(BATCH_ID);
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyBatchAnnotation(template,
+            Map.of(1, givenDigitalSpecimen())));
+  }
+
+  @ParameterizedTest
+  @MethodSource("validAnnotationsAndResult")
+  void testApplyJsonAnnotation(Annotation annotation, DigitalSpecimen expected)
+      throws Exception {
+    // Given
+    var specimen = MAPPER.writeValueAsBytes(givenDigitalSpecimen());
+
+    // When
+    var result = annotationValidator.applyAnnotation(specimen, annotation);
+
+    // Then
+    assertThat(MAPPER.readValue(result, DigitalSpecimen.class)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @MethodSource("validAnnotationsAndResult")
+  void testApplyJsonAnnotationStreaming(Annotation annotation, DigitalSpecimen expected)
+      throws Exception {
+    // Given
+    var specimen = MAPPER.writeValueAsBytes(givenDigitalSpecimen());
+
+    // When
+    var result = streamingAnnotationValidator.applyAnnotation(specimen, annotation);
+
+    // Then
+    assertThat(MAPPER.readValue(result, DigitalSpecimen.class)).isEqualTo(expected);
+  }
+
+  @Test
+  void testApplyJsonAnnotationFromBuffer() throws Exception {
+    // Given
+    var specimen = MAPPER.writeValueAsBytes(givenDigitalSpecimen());
+    var buffer = ByteBuffer.allocateDirect(specimen.length).put(specimen).flip();
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var result = annotationValidator.applyAnnotation(buffer, givenAnnotation());
+
+    // Then
+    assertThat(MAPPER.readValue(result, DigitalSpecimen.class)).isEqualTo(expected);
+    assertThat(buffer.remaining()).isEqualTo(specimen.length);
+  }
+
+  @Test
+  void testApplyJsonAnnotationFromStream() throws Exception {
+    // Given
+    var specimen = new ByteArrayInputStream(MAPPER.writeValueAsBytes(givenDigitalSpecimen()));
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var result = annotationValidator.applyAnnotation(specimen, givenAnnotation());
+
+    // Then
+    assertThat(MAPPER.readValue(result, DigitalSpecimen.class)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @MethodSource("validAnnotationsAndResult")
+  void testApplyJsonAnnotationToStream(Annotation annotation, DigitalSpecimen expected)
+      throws Exception {
+    // Given
+    var specimen = new ByteArrayInputStream(MAPPER.writeValueAsBytes(givenDigitalSpecimen()));
+    var output = new ByteArrayOutputStream();
+
+    // When
+    var changed = annotationValidator.applyAnnotation(specimen, annotation, output);
+
+    // Then
+    assertThat(changed).isTrue();
+    assertThat(MAPPER.readValue(output.toByteArray(), DigitalSpecimen.class)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @MethodSource("unchangedAnnotations")
+  void testUnchangedJsonAnnotationToStream(Annotation annotation) throws Exception {
+    // Given
+    var specimen = MAPPER.writeValueAsBytes(givenDigitalSpecimen());
+    var output = new ByteArrayOutputStream();
+
+    // When
+    var changed = annotationValidator.applyAnnotation(new ByteArrayInputStream(specimen),
+        annotation, output);
+
+    // Then
+    assertThat(changed).isFalse();
+    assertThat(output.toByteArray()).isEqualTo(specimen);
+    verifyNoInteractions(jsonSchemaValidator);
+  }
+
+  @Test
+  void testConsistencyRuleViolationToStream() throws Exception {
+    // Given
+    var rule = ConsistencyRule.of("country", List.of("$['ods:hasEvents']"),
+        specimen -> List.of("inconsistent"));
+    var ruleValidator = givenValidatorWithRules(Long.MAX_VALUE,
+        new ConsistencyRules(List.of(rule)));
+    var specimen = new ByteArrayInputStream(MAPPER.writeValueAsBytes(givenDigitalSpecimen()));
+    var output = new ByteArrayOutputStream();
+    doThrow(InvalidAnnotationException.class).when(jsonSchemaValidator)
+        .specimenTreeIsConsistent(any(), eq(List.of(rule)));
+
+    // When / Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> ruleValidator.applyAnnotation(specimen, givenAnnotation(), output));
+    assertThat(output.size()).isZero();
+  }
+
+  @ParameterizedTest
+  @MethodSource("unchangedAnnotations")
+  void testUnchangedJsonAnnotation(Annotation annotation) throws Exception {
+    // Given
+    var specimen = MAPPER.writeValueAsBytes(givenDigitalSpecimen());
+
+    // When
+    var result = annotationValidator.applyAnnotation(specimen, annotation);
+
+    // Then
+    assertThat(result).isSameAs(specimen);
+    verifyNoInteractions(jsonSchemaValidator);
+  }
+
+  @Test
+  void testInvalidJsonResult() throws Exception {
+    // Given
+    var specimen = MAPPER.writeValueAsBytes(givenDigitalSpecimen());
+    doThrow(InvalidAnnotationException.class).when(jsonSchemaValidator).specimenIsValid(any());
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyAnnotation(specimen, givenAnnotation()));
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidAnnotations")
+  void testInvalidJsonAnnotation(Annotation annotation) throws Exception {
+    // Given
+    var specimen = MAPPER.writeValueAsBytes(givenDigitalSpecimen());
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyAnnotation(specimen, annotation));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"{\"dcterms:identifier\": ", "[]", "\"specimen\""})
+  void testInvalidJsonSpecimen(String specimen) {
+    // Given
+    var bytes = specimen.getBytes(StandardCharsets.UTF_8);
+
+    // Then
+    assertThrows(InvalidTargetException.class,
+        () -> annotationValidator.applyAnnotation(bytes, givenAnnotation()));
+  }
+
+  @ParameterizedTest
+  @EnumSource(BinaryFormat.class)
+  void testApplyBinaryAnnotation(BinaryFormat format) throws Exception {
+    // Given
+    var binaryMapper = MAPPER.copyWith(format.createFactory());
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var result = annotationValidator.applyAnnotation(
+        binaryMapper.writeValueAsBytes(givenDigitalSpecimen()),
+        binaryMapper.writeValueAsBytes(givenAnnotation()), format);
+
+    // Then
+    assertThat(binaryMapper.readValue(result, DigitalSpecimen.class)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @EnumSource(BinaryFormat.class)
+  void testApplyBinaryAnnotationStreaming(BinaryFormat format) throws Exception {
+    // Given
+    var binaryMapper = MAPPER.copyWith(format.createFactory());
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var result = streamingAnnotationValidator.applyAnnotation(
+        binaryMapper.writeValueAsBytes(givenDigitalSpecimen()),
+        binaryMapper.writeValueAsBytes(givenAnnotation()), format);
+
+    // Then
+    assertThat(binaryMapper.readValue(result, DigitalSpecimen.class)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @EnumSource(BinaryFormat.class)
+  void testApplyBinaryAnnotationWithoutBinding(BinaryFormat format) throws Exception {
+    // Given
+    var binaryMapper = MAPPER.copyWith(format.createFactory());
+    var specimen = (ObjectNode) MAPPER.valueToTree(givenDigitalSpecimen());
+    specimen.put("dcterms:created", "2022-11-01T09:59:24.123456Z");
+    var annotation = binaryMapper.writeValueAsBytes(givenAnnotation());
+
+    // When
+    var result = annotationValidator.applyAnnotation(binaryMapper.writeValueAsBytes(specimen),
+        annotation, format);
+    var streamingResult = streamingAnnotationValidator.applyAnnotation(
+        binaryMapper.writeValueAsBytes(specimen), annotation, format);
+
+    // Then
+    assertThat(binaryMapper.readTree(result).get("dcterms:created").textValue())
+        .isEqualTo("2022-11-01T09:59:24.123456Z");
+    assertThat(binaryMapper.readTree(streamingResult)).isEqualTo(binaryMapper.readTree(result));
+    verify(jsonSchemaValidator).specimenTreeIsValid(any(), eq(List.of()));
+    verify(jsonSchemaValidator).mutationIsValid(any(), any(), any());
+  }
+
+  @ParameterizedTest
+  @EnumSource(BinaryFormat.class)
+  void testApplyBinaryAnnotationUnchanged(BinaryFormat format) throws Exception {
+    // Given
+    var binaryMapper = MAPPER.copyWith(format.createFactory());
+    var specimen = binaryMapper.writeValueAsBytes(givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE)))));
+    var annotation = binaryMapper.writeValueAsBytes(givenAnnotation());
+
+    // When
+    var result = annotationValidator.applyAnnotation(specimen, annotation, format);
+    var streamingResult = streamingAnnotationValidator.applyAnnotation(specimen, annotation,
+        format);
+
+    // Then
+    assertThat(result).isSameAs(specimen);
+    assertThat(streamingResult).isSameAs(specimen);
+    verifyNoInteractions(jsonSchemaValidator);
+  }
+
+  @Test
+  void testWriteSpecimen() throws Exception {
+    // Given
+    var specimen = givenDigitalSpecimen();
+
+    // When
+    var result = annotationValidator.writeSpecimen(specimen, BinaryFormat.SMILE);
+
+    // Then
+    assertThat(MAPPER.copyWith(BinaryFormat.SMILE.createFactory())
+        .readValue(result, DigitalSpecimen.class)).isEqualTo(specimen);
+  }
+
+  @Test
+  void testInvalidBinarySpecimen() throws Exception {
+    // Given
+    var annotation = MAPPER.copyWith(BinaryFormat.CBOR.createFactory())
+        .writeValueAsBytes(givenAnnotation());
+    var specimen = MAPPER.writeValueAsBytes(givenDigitalSpecimen());
+
+    // Then
+    assertThrows(InvalidTargetException.class,
+        () -> annotationValidator.applyAnnotation(specimen, annotation, BinaryFormat.CBOR));
+  }
+
+  @Test
+  void testInvalidBinaryAnnotation() throws Exception {
+    // Given
+    var specimen = MAPPER.copyWith(BinaryFormat.SMILE.createFactory())
+        .writeValueAsBytes(givenDigitalSpecimen());
+    var annotation = MAPPER.writeValueAsBytes(givenAnnotation());
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyAnnotation(specimen, annotation, BinaryFormat.SMILE));
+  }
+
+  @ParameterizedTest
+  @EnumSource(BinaryFormat.class)
+  void testApplyBinaryBatchAnnotation(BinaryFormat format) throws Exception {
+    // Given
+    var binaryMapper = MAPPER.copyWith(format.createFactory());
+    var template = binaryMapper.writeValueAsBytes(givenAnnotation().withOdsBatchID(BATCH_ID));
+    var batch = Map.of(
+        1, binaryMapper.writeValueAsBytes(givenDigitalSpecimen()),
+        2, new byte[]{1, 2, 3});
+    var expected = givenDigitalSpecimen().withOdsHasEvents(
+        List.of(givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))));
+
+    // When
+    var result = annotationValidator.applyBatchAnnotation(template, batch, format);
+
+    // Then
+    assertThat(result).containsOnlyKeys(1, 2);
+    assertThat(result.get(1).digitalSpecimen()).isEqualTo(expected);
+    assertThat(result.get(2).isApplied()).isFalse();
+    assertThat(result.get(2).targetId()).isNull();
+    assertThat(result.get(2).exception()).isInstanceOf(InvalidTargetException.class);
+  }
+
+  @ParameterizedTest
+  @MethodSource("validWildcardAnnotationsAndResult")
+  void testApplyWildcardAnnotations(Annotation annotation, DigitalSpecimen expected)
+      throws Exception {
+    // Given
+    var specimen = givenDigitalSpecimen().withOdsHasEvents(List.of(givenEvent(), givenEvent()));
+
+    // When
+    var result = annotationValidator.applyAnnotation(specimen, annotation);
+    var streamingResult = streamingAnnotationValidator.applyAnnotation(specimen, annotation);
+    var persistentResult = annotationValidator.apply(annotationValidator.persist(specimen),
+        annotation).toDigitalSpecimen();
+
+    // Then
+    assertThat(result).isEqualTo(expected);
+    assertThat(streamingResult).isEqualTo(expected);
+    assertThat(persistentResult).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @MethodSource("invalidWildcardAnnotations")
+  void testInvalidWildcardAnnotation(DigitalSpecimen specimen, Annotation annotation) {
+
+    // Then
+    assertThrows(InvalidAnnotationException.class,
+        () -> annotationValidator.applyAnnotation(specimen, annotation));
+    assertThrows(InvalidAnnotationException.class,
+        () -> streamingAnnotationValidator.applyAnnotation(specimen, annotation));
+  }
+
+  private static Stream<Arguments> validWildcardAnnotationsAndResult() {
+    var allEventsLocation = "$['ods:hasEvents'][*]['ods:hasLocation']";
+    return Stream.of(
+        Arguments.of(
+            givenAnnotation(OaMotivation.OA_EDITING, true)
+                .withOaHasTarget(givenAnnotationTarget(allEventsLocation + "['dwc:country']")),
+            givenDigitalSpecimen()
+                .withOdsHasEvents(List.of(
+                    givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE)),
+                    givenEvent().withOdsHasLocation(new Location().withDwcCountry(NEW_VALUE))))
+        ),
+        Arguments.of(
+            givenAnnotation(OaMotivation.ODS_ADDING, true)
+                .withOaHasTarget(givenAnnotationTarget(allEventsLocation + "['dwc:locality']")),
+            givenDigitalSpecimen()
+                .withOdsHasEvents(List.of(
+                    givenEvent().withOdsHasLocation(
+                        givenEvent().getOdsHasLocation().withDwcLocality(NEW_VALUE)),
+                    givenEvent().withOdsHasLocation(
+                        givenEvent().getOdsHasLocation().withDwcLocality(NEW_VALUE))))
+        ),
+        Arguments.of(
+            givenAnnotation(OaMotivation.OA_EDITING, false)
+                .withOaHasTarget(givenClassTarget(allEventsLocation))
+                .withOaHasBody(localityBody()),
+            givenDigitalSpecimen()
+                .withOdsHasEvents(List.of(
+                    givenEvent().withOdsHasLocation(
+                        new Location().withDwcCountry(NEW_VALUE).withDwcLocality(NEW_VALUE)),
+                    givenEvent().withOdsHasLocation(
+                        new Location().withDwcCountry(NEW_VALUE).withDwcLocality(NEW_VALUE))))
+        ),
+        Arguments.of(
+            givenAnnotation(OaMotivation.ODS_DELETING, false)
+                .withOaHasTarget(givenClassTarget(allEventsLocation)),
+            givenDigitalSpecimen()
+                .withOdsHasEvents(List.of(
+                    givenEvent().withOdsHasLocation(null),
+                    givenEvent().withOdsHasLocation(null)))
+        ),
+        Arguments.of(
+            givenAnnotation(OaMotivation.ODS_DELETING, false)
+                .withOaHasTarget(givenClassTarget("$['ods:hasEvents'][*]")),
+            givenDigitalSpecimen().withOdsHasEvents(List.of())
+        )
+    );
+  }
+
+  private static Stream<Arguments> invalidWildcardAnnotations() {
+    var specimen = givenDigitalSpecimen().withOdsHasEvents(List.of(givenEvent(), givenEvent()));
+    return Stream.of(
+        Arguments.of(specimen,
+            givenAnnotation(OaMotivation.ODS_ADDING, false)
+                .withOaHasTarget(givenClassTarget("$['ods:hasEvents'][*]"))),
+        Arguments.of(specimen,
+            givenAnnotation(OaMotivation.OA_EDITING, true)
+                .withOaHasTarget(givenAnnotationTarget(
+                    "$['ods:hasEvents'][*]['ods:hasLocation']['dwc:locality']"))),
+        Arguments.of(specimen,
+            givenAnnotation(OaMotivation.OA_EDITING, true)
+                .withOaHasTarget(givenAnnotationTarget(
+                    "$['ods:hasCitations'][*]['dcterms:description']"))),
+        Arguments.of(
+            givenDigitalSpecimen().withOdsHasEvents(List.of(givenEvent(),
+                givenEvent().withOdsHasLocation(new Location().withDwcLocality(NEW_VALUE)))),
+            givenAnnotation(OaMotivation.OA_EDITING, true)
+                .withOaHasTarget(givenAnnotationTarget(
+                    "$['ods:hasEvents'][*]['ods:hasLocation']['dwc:country']")))
+    );
+  }
+
   private static Stream<Arguments> validAnnotationsAndResult() {
     return Stream.of(
         Arguments.of(
@@ -175,6 +1140,26 @@ class SpecimenAnnotationValidatorTest {
     );
   }
 
+  private static Stream<Arguments> unchangedAnnotations() {
+    return Stream.of(
+        Arguments.of(givenAnnotation()
+            .withOaHasBody(new AnnotationBody().withOaValue(List.of("England")))),
+        Arguments.of(givenAnnotation(OaMotivation.OA_EDITING, false)
+            .withOaHasTarget(localityTargetEdit())
+            .withOaHasBody(new AnnotationBody().withOaValue(List.of("""
+                {
+                  "dwc:country": "England"
+                }
+                """)))),
+        Arguments.of(givenAnnotation(OaMotivation.ODS_ADDING, false)
+            .withOaHasBody(new AnnotationBody().withOaValue(List.of("""
+                {
+                  "dwc:scientificName": "Bombus bombus"
+                }
+                """))))
+    );
+  }
+
   private static Stream<Arguments> invalidAnnotations() {
     return Stream.of(
         Arguments.of(
@@ -262,6 +1247,16 @@ class SpecimenAnnotationValidatorTest {
                 .withAdditionalProperty("ods:class", "$['ods:hasEvents'][0]['ods:hasLocation']"));
   }
 
+  private static AnnotationTarget givenClassTarget(String path) {
+    return new AnnotationTarget()
+        .withDctermsIdentifier(SPECIMEN_ID)
+        .withType("ods:DigitalSpecimen")
+        .withOaHasSelector(
+            new OaHasSelector()
+                .withAdditionalProperty("@type", "ods:ClassSelector")
+                .withAdditionalProperty("ods:class", path));
+  }
+
   private static AnnotationTarget geologicalContextAdd() {
     return new AnnotationTarget()
         .withDctermsIdentifier(SPECIMEN_ID)
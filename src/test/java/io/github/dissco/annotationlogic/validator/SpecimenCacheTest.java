@@ -0,0 +1,95 @@
+package io.github.dissco.annotationlogic.validator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SpecimenCacheTest {
+
+  @Test
+  void testHitRate() {
+    // Given
+    var specimenCache = new SpecimenCache(100);
+    specimenCache.put("a", 1, givenPreparedSpecimen(10));
+
+    // When
+    var first = specimenCache.get("a", 1, "x".repeat(10));
+    var second = specimenCache.get("a", 2, "x".repeat(10));
+
+    // Then
+    assertThat(first).isNotNull();
+    assertThat(second).isNull();
+    assertThat(specimenCache.getHitRate()).isEqualTo(0.5);
+  }
+
+  @Test
+  void testKeysByContent() {
+    // Given
+    var specimenCache = new SpecimenCache(100);
+    specimenCache.put("a", 1, givenPreparedSpecimen(10));
+
+    // When
+    specimenCache.put("a", 1, givenPreparedSpecimen(20));
+
+    // Then
+    assertThat(specimenCache.get("a", 1, "x".repeat(10))).isNotNull();
+    assertThat(specimenCache.get("a", 1, "x".repeat(20))).isNotNull();
+    assertThat(specimenCache.get("a", 1, "y".repeat(10))).isNull();
+    assertThat(specimenCache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void testEvictsLeastRecentlyUsedBySize() {
+    // Given
+    var specimenCache = new SpecimenCache(25);
+    specimenCache.put("a", 1, givenPreparedSpecimen(10));
+    specimenCache.put("b", 1, givenPreparedSpecimen(10));
+    specimenCache.get("a", 1, "x".repeat(10));
+
+    // When
+    specimenCache.put("c", 1, givenPreparedSpecimen(10));
+
+    // Then
+    assertThat(specimenCache.get("a", 1, "x".repeat(10))).isNotNull();
+    assertThat(specimenCache.get("b", 1, "x".repeat(10))).isNull();
+    assertThat(specimenCache.get("c", 1, "x".repeat(10))).isNotNull();
+    assertThat(specimenCache.getCachedSize()).isEqualTo(20);
+    assertThat(specimenCache.getEvictions()).isEqualTo(1);
+  }
+
+  @Test
+  void testSkipsUncacheableSpecimens() {
+    // Given
+    var specimenCache = new SpecimenCache(25);
+
+    // When
+    specimenCache.put("a", 1, givenPreparedSpecimen(30));
+    specimenCache.put("b", null, givenPreparedSpecimen(10));
+    specimenCache.put(null, 1, givenPreparedSpecimen(10));
+
+    // Then
+    assertThat(specimenCache.size()).isZero();
+    assertThat(specimenCache.getCachedSize()).isZero();
+  }
+
+  @Test
+  void testInvalidate() {
+    // Given
+    var specimenCache = new SpecimenCache(100);
+    specimenCache.put("a", 1, givenPreparedSpecimen(10));
+    specimenCache.put("a", 2, givenPreparedSpecimen(10));
+    specimenCache.put("b", 1, givenPreparedSpecimen(10));
+
+    // When
+    specimenCache.invalidate("a");
+
+    // Then
+    assertThat(specimenCache.size()).isEqualTo(1);
+    assertThat(specimenCache.getCachedSize()).isEqualTo(10);
+  }
+
+  private static PreparedSpecimen givenPreparedSpecimen(int size) {
+    return new PreparedSpecimen(null, "x".repeat(size), null);
+  }
+
+}
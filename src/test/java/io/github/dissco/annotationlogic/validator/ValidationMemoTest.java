@@ -0,0 +1,43 @@
+package io.github.dissco.annotationlogic.validator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ValidationMemoTest {
+
+  @Test
+  void testHitRate() {
+    // Given
+    var validationMemo = new ValidationMemo(10);
+    validationMemo.markValid("a");
+
+    // When
+    var first = validationMemo.isValid("a");
+    var second = validationMemo.isValid("b");
+
+    // Then
+    assertThat(first).isTrue();
+    assertThat(second).isFalse();
+    assertThat(validationMemo.getHitRate()).isEqualTo(0.5);
+  }
+
+  @Test
+  void testEvictsLeastRecentlyUsed() {
+    // Given
+    var validationMemo = new ValidationMemo(2);
+    validationMemo.markValid("a");
+    validationMemo.markValid("b");
+    validationMemo.isValid("a");
+
+    // When
+    validationMemo.markValid("c");
+
+    // Then
+    assertThat(validationMemo.size()).isEqualTo(2);
+    assertThat(validationMemo.getEvictions()).isEqualTo(1);
+    assertThat(validationMemo.isValid("a")).isTrue();
+    assertThat(validationMemo.isValid("b")).isFalse();
+  }
+
+}
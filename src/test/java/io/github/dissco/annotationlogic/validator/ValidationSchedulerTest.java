@@ -0,0 +1,243 @@
+package io.github.dissco.annotationlogic.validator;
+
+import static io.github.dissco.annotationlogic.TestUtils.CREATED;
+import static io.github.dissco.annotationlogic.TestUtils.givenAnnotation;
+import static io.github.dissco.annotationlogic.TestUtils.givenDigitalSpecimen;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import io.github.dissco.annotationlogic.domain.AnnotationLane;
+import io.github.dissco.annotationlogic.domain.AnnotationResult;
+import io.github.dissco.annotationlogic.domain.ScheduledAnnotationResult.Outcome;
+import io.github.dissco.annotationlogic.exception.InvalidAnnotationException;
+import io.github.dissco.core.annotationlogic.schema.Agent;
+import io.github.dissco.core.annotationlogic.schema.Agent.Type;
+import io.github.dissco.core.annotationlogic.schema.Annotation;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ValidationSchedulerTest {
+
+  @Mock
+  private AnnotationValidator annotationValidator;
+  private final TestClock clock = new TestClock();
+
+  @BeforeEach
+  void setUp() {
+    clock.now = CREATED;
+  }
+
+  @Test
+  void testLaneOfAnnotation() {
+    // When
+    var human = AnnotationLane.of(givenHumanAnnotation());
+    var machine = AnnotationLane.of(givenMachineAnnotation());
+
+    // Then
+    assertThat(human).isEqualTo(AnnotationLane.HUMAN);
+    assertThat(machine).isEqualTo(AnnotationLane.MACHINE);
+  }
+
+  @Test
+  void testLaneOfGeneratedAnnotation() {
+    // Given
+    var annotation = givenHumanAnnotation().withAsGenerator(
+        new Agent().withType(Type.PROV_SOFTWARE_AGENT).withSchemaName("Machine annotation service"));
+
+    // When
+    var lane = AnnotationLane.of(annotation);
+
+    // Then
+    assertThat(lane).isEqualTo(AnnotationLane.MACHINE);
+  }
+
+  @Test
+  void testHumanAnnotationsFirst() throws Exception {
+    // Given
+    given(annotationValidator.applyAnnotationWithResult(any(), any())).willReturn(
+        AnnotationResult.changed(givenDigitalSpecimen()));
+    var scheduler = new ValidationScheduler(annotationValidator, 1, 10, 10, 2, clock);
+    var order = new ArrayList<String>();
+    for (var name : new String[]{"machine-1", "machine-2"}) {
+      scheduler.submit(givenDigitalSpecimen(), givenMachineAnnotation())
+          .thenRun(() -> order.add(name));
+    }
+    for (var name : new String[]{"human-1", "human-2", "human-3"}) {
+      scheduler.submit(givenDigitalSpecimen(), givenHumanAnnotation()).thenRun(() -> order.add(name));
+    }
+
+    // When
+    while (scheduler.runNext()) {
+      clock.now = clock.now.plusSeconds(1);
+    }
+
+    // Then
+    assertThat(order).containsExactly("human-1", "human-2", "machine-1", "human-3", "machine-2");
+    assertThat(scheduler.getStatistics(AnnotationLane.HUMAN).processed()).isEqualTo(3);
+    assertThat(scheduler.getStatistics(AnnotationLane.MACHINE).maxQueueWait())
+        .isEqualTo(Duration.ofSeconds(4));
+  }
+
+  @Test
+  void testOverloaded() {
+    // Given
+    var scheduler = new ValidationScheduler(annotationValidator, 1, 10, 1, 1, clock);
+    scheduler.submit(givenDigitalSpecimen(), givenMachineAnnotation());
+
+    // When
+    var result = scheduler.submit(givenDigitalSpecimen(), givenMachineAnnotation()).join();
+
+    // Then
+    assertThat(result.outcome()).isEqualTo(Outcome.OVERLOADED);
+    var statistics = scheduler.getStatistics(AnnotationLane.MACHINE);
+    assertThat(statistics.queued()).isEqualTo(1);
+    assertThat(statistics.admitted()).isEqualTo(1);
+    assertThat(statistics.shed()).isEqualTo(1);
+  }
+
+  @Test
+  void testExpiredOnSubmit() {
+    // Given
+    var scheduler = new ValidationScheduler(annotationValidator, 1, 10, 10, 1, clock);
+
+    // When
+    var result = scheduler.submit(givenDigitalSpecimen(), givenHumanAnnotation(), clock.now).join();
+
+    // Then
+    assertThat(result.outcome()).isEqualTo(Outcome.EXPIRED);
+    assertThat(scheduler.getStatistics(AnnotationLane.HUMAN).queued()).isZero();
+  }
+
+  @Test
+  void testExpiredInQueue() {
+    // Given
+    var scheduler = new ValidationScheduler(annotationValidator, 1, 10, 10, 1, clock);
+    var future = scheduler.submit(givenDigitalSpecimen(), givenHumanAnnotation(),
+        clock.now.plusSeconds(5));
+    clock.now = clock.now.plusSeconds(10);
+
+    // When
+    scheduler.runNext();
+
+    // Then
+    var result = future.join();
+    assertThat(result.outcome()).isEqualTo(Outcome.EXPIRED);
+    assertThat(result.queueWait()).isEqualTo(Duration.ofSeconds(10));
+    assertThat(scheduler.getStatistics(AnnotationLane.HUMAN).expired()).isEqualTo(1);
+    verifyNoInteractions(annotationValidator);
+  }
+
+  @Test
+  void testRejected() throws Exception {
+    // Given
+    var exception = new InvalidAnnotationException("Invalid annotation");
+    given(annotationValidator.applyAnnotationWithResult(any(), any())).willThrow(exception);
+    var scheduler = new ValidationScheduler(annotationValidator, 1, 10, 10, 1, clock);
+    var future = scheduler.submit(givenDigitalSpecimen(), givenHumanAnnotation());
+
+    // When
+    scheduler.runNext();
+
+    // Then
+    var result = future.join();
+    assertThat(result.outcome()).isEqualTo(Outcome.REJECTED);
+    assertThat(result.exception()).isSameAs(exception);
+    assertThat(result.result()).isNull();
+  }
+
+  @Test
+  void testWorkers() throws Exception {
+    // Given
+    var expected = AnnotationResult.changed(givenDigitalSpecimen());
+    given(annotationValidator.applyAnnotationWithResult(any(), any())).willReturn(expected);
+
+    try (var scheduler = new ValidationScheduler(annotationValidator, 2, 10, 10, 1)) {
+      var future = scheduler.submit(givenDigitalSpecimen(), givenHumanAnnotation());
+
+      // When
+      scheduler.start();
+      var result = future.get(10, TimeUnit.SECONDS);
+
+      // Then
+      assertThat(result.outcome()).isEqualTo(Outcome.APPLIED);
+      assertThat(result.result()).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void testClosed() {
+    // Given
+    var scheduler = new ValidationScheduler(annotationValidator, 1, 10, 10, 1);
+    scheduler.close();
+
+    // When / Then
+    assertThrows(IllegalStateException.class,
+        () -> scheduler.submit(givenDigitalSpecimen(), givenHumanAnnotation()));
+  }
+
+  @Test
+  void testStartedTwice() {
+    // Given
+    try (var scheduler = new ValidationScheduler(annotationValidator, 1, 10, 10, 1)) {
+      scheduler.start();
+
+      // When / Then
+      assertThrows(IllegalStateException.class, scheduler::start);
+    }
+  }
+
+  @Test
+  void testInvalidSettings() {
+    // When / Then
+    assertThrows(IllegalArgumentException.class,
+        () -> new ValidationScheduler(annotationValidator, 0, 10, 10, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ValidationScheduler(annotationValidator, 1, 0, 10, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ValidationScheduler(annotationValidator, 0, 10, 10, 1, Clock.systemUTC()));
+  }
+
+  private static Annotation givenMachineAnnotation() {
+    return givenAnnotation().withDctermsCreator(new Agent().withType(Type.PROV_SOFTWARE_AGENT));
+  }
+
+  private static Annotation givenHumanAnnotation() {
+    return givenAnnotation().withAsGenerator(null);
+  }
+
+  private static class TestClock extends Clock {
+
+    private Instant now;
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+  }
+
+}